@@ -1,13 +1,27 @@
 package com.parunev.linkededge.config;
 
 import com.parunev.linkededge.openai.OpenAi;
-import com.parunev.linkededge.openai.model.enums.OpenAiDefaults;
+import com.parunev.linkededge.openai.OpenAiBulkhead;
+import com.parunev.linkededge.openai.OpenAiCircuitBreaker;
+import com.parunev.linkededge.openai.OpenAiRateLimiter;
+import com.parunev.linkededge.openai.OpenAiRetryPolicy;
+import com.parunev.linkededge.openai.OpenAiRoutingPolicy;
+import com.parunev.linkededge.openai.cache.OpenAiResponseCache;
+import com.parunev.linkededge.openai.usage.OpenAiUsageRecorder;
+import com.parunev.linkededge.openai.model.enums.OpenAiUseCase;
 import com.parunev.linkededge.security.SpringSecurityAuditorAware;
 import com.parunev.linkededge.service.UserService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -19,9 +33,14 @@ import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -33,13 +52,42 @@ import java.util.concurrent.TimeUnit;
 @Getter
 @RequiredArgsConstructor
 @EnableJpaAuditing(auditorAwareRef = "auditorAware")
-@EnableConfigurationProperties(value = {RsaConfiguration.class})
+@EnableConfigurationProperties(value = {RsaConfiguration.class, OpenAiRateLimitConfiguration.class,
+        OpenAiBulkheadConfiguration.class, OpenAiHttpConfiguration.class, OpenAiPromptBudgetConfiguration.class,
+        OpenAiRoutingConfiguration.class})
 public class ApplicationConfiguration {
     private final UserService userService;
+    private final OpenAiRateLimitConfiguration openAiRateLimits;
+    private final OpenAiBulkheadConfiguration openAiBulkheads;
+    private final OpenAiHttpConfiguration openAiHttp;
+    private final OpenAiRoutingConfiguration openAiRouting;
 
     @Value("${openai.api}")
     private String openAiApi;
-    private final String openAiHost = OpenAiDefaults.DEFAULT_URL.getValue();
+
+    @Value("${openai.host}")
+    private String openAiHost;
+
+    @Value("${openai.retry.max-attempts}")
+    private int openAiRetryMaxAttempts;
+
+    @Value("${openai.retry.initial-backoff}")
+    private long openAiRetryInitialBackoff;
+
+    @Value("${openai.retry.max-backoff}")
+    private long openAiRetryMaxBackoff;
+
+    @Value("${openai.circuit-breaker.window-size}")
+    private int openAiCircuitWindowSize;
+
+    @Value("${openai.circuit-breaker.minimum-calls}")
+    private int openAiCircuitMinimumCalls;
+
+    @Value("${openai.circuit-breaker.failure-rate-threshold}")
+    private int openAiCircuitFailureRateThreshold;
+
+    @Value("${openai.circuit-breaker.open-duration}")
+    private long openAiCircuitOpenDuration;
 
     /**
      * Bean definition for providing an AuditorAware implementation, which helps track
@@ -86,31 +134,131 @@ public class ApplicationConfiguration {
     }
 
     /**
-     * Bean definition for OkHttpClient, an HTTP client with custom configuration,
-     * including extended timeouts for making API calls.
+     * Bean definition for OkHttpClient, the HTTP client used to call OpenAI, configured under `openai.http.*`.
      *
-     * @return OkHttpClient with extended timeouts
+     * @return OkHttpClient for OpenAI calls
      */
     @Bean
     public OkHttpClient client(){
-        // really depends on what type of questions are asked
-        // 300 seconds = 5 minutes
-        return new OkHttpClient.Builder()
-              .connectTimeout(300, TimeUnit.SECONDS)
-              .readTimeout(300, TimeUnit.SECONDS)
-              .writeTimeout(300, TimeUnit.SECONDS)
-              .build();
+        // Every call goes to the same host, the default of 5 concurrent requests per host
+        // would queue asynchronous calls behind each other
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(openAiHttp.maxRequests());
+        dispatcher.setMaxRequestsPerHost(openAiHttp.maxRequestsPerHost());
+
+        // With HTTP/2 concurrent calls are multiplexed over a few connections,
+        // with HTTP/1.1 every concurrent call needs a connection of its own
+        List<Protocol> protocols = openAiHttp.http2()
+                ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                : List.of(Protocol.HTTP_1_1);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+              .dispatcher(dispatcher)
+              .connectionPool(new ConnectionPool(openAiHttp.maxIdleConnections(),
+                      openAiHttp.keepAlive().toMillis(), TimeUnit.MILLISECONDS))
+              .protocols(protocols)
+              .connectTimeout(openAiHttp.connectTimeout())
+              .writeTimeout(openAiHttp.writeTimeout())
+              .readTimeout(openAiHttp.readTimeout())
+              .callTimeout(openAiHttp.callTimeout());
+
+        if (!openAiHttp.gzip()) {
+            // OkHttp asks for gzip responses and decompresses them transparently unless the encoding is set explicitly
+            builder.addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                    .header("Accept-Encoding", "identity")
+                    .build()));
+        }
+
+        return builder.build();
     }
 
     /**
      * Bean definition for OpenAi, which initializes the OpenAi service with
      * API configuration and an OkHttpClient.
      *
+     * @param client The OkHttpClient for OpenAI calls
+     * @param responseCache The OpenAI response cache, if one is configured
+     * @param meterRegistry The registry the OpenAI metrics are published to
+     * @param usageRecorder The recorder OpenAI token usage is metered with, if one is configured
      * @return OpenAi instance
      */
     @Bean
-    public OpenAi openAi(){
-        return new OpenAi(openAiApi, openAiHost, client());
+    public OpenAi openAi(OkHttpClient client, ObjectProvider<OpenAiResponseCache> responseCache, MeterRegistry meterRegistry,
+                         ObjectProvider<OpenAiUsageRecorder> usageRecorder){
+        OpenAiRetryPolicy retryPolicy = OpenAiRetryPolicy.builder()
+                .maxAttempts(openAiRetryMaxAttempts)
+                .initialBackoff(Duration.ofMillis(openAiRetryInitialBackoff))
+                .maxBackoff(Duration.ofMillis(openAiRetryMaxBackoff))
+                .build();
+
+        OpenAiCircuitBreaker circuitBreaker = new OpenAiCircuitBreaker(openAiCircuitWindowSize, openAiCircuitMinimumCalls,
+                openAiCircuitFailureRateThreshold, Duration.ofMillis(openAiCircuitOpenDuration));
+
+        // 0 = closed, 1 = open, 2 = half open
+        Gauge.builder("openai.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("State of the OpenAI circuit breaker (0 closed, 1 open, 2 half open)")
+                .register(meterRegistry);
+
+        OpenAiRateLimiter rateLimiter = new OpenAiRateLimiter(openAiRateLimits.maxWait(), openAiRateLimits.defaults(),
+                openAiRateLimits.models());
+
+        Map<OpenAiUseCase, OpenAiBulkhead> bulkheads = new EnumMap<>(OpenAiUseCase.class);
+        if (openAiBulkheads.bulkheads() != null) {
+            openAiBulkheads.bulkheads().forEach((useCase, limits) -> {
+                OpenAiBulkhead bulkhead = new OpenAiBulkhead(limits);
+                String tag = useCase.name().toLowerCase();
+                Gauge.builder("openai.bulkhead.active", bulkhead, OpenAiBulkhead::getActive)
+                        .tag("use_case", tag)
+                        .register(meterRegistry);
+                Gauge.builder("openai.bulkhead.queue.depth", bulkhead, OpenAiBulkhead::getQueueDepth)
+                        .tag("use_case", tag)
+                        .register(meterRegistry);
+                FunctionCounter.builder("openai.bulkhead.rejected", bulkhead, OpenAiBulkhead::getRejected)
+                        .tag("use_case", tag)
+                        .register(meterRegistry);
+                bulkheads.put(useCase, bulkhead);
+            });
+        }
+
+        // Clients with use case specific timeouts share the connection pool and dispatcher of the main client
+        Map<OpenAiUseCase, OkHttpClient> useCaseClients = new EnumMap<>(OpenAiUseCase.class);
+        if (openAiHttp.timeouts() != null) {
+            openAiHttp.timeouts().forEach((useCase, timeouts) -> useCaseClients.put(useCase, client.newBuilder()
+                    .readTimeout(timeouts.read() != null ? timeouts.read() : openAiHttp.readTimeout())
+                    .callTimeout(timeouts.call() != null ? timeouts.call() : openAiHttp.callTimeout())
+                    .build()));
+        }
+
+        return OpenAi.builder()
+                .openAiApi(openAiApi)
+                .openAiHost(openAiHost)
+                .client(client)
+                .responseCache(responseCache.getIfAvailable())
+                .retryPolicy(retryPolicy)
+                .circuitBreaker(circuitBreaker)
+                .rateLimiter(rateLimiter)
+                .bulkheads(bulkheads)
+                .useCaseClients(useCaseClients)
+                .meterRegistry(meterRegistry)
+                .routingPolicy(new OpenAiRoutingPolicy(openAiRouting.routes()))
+                .usageRecorder(usageRecorder.getIfAvailable())
+                .build();
+    }
+
+    /**
+     * Bean definition for the executor that continues request processing once an asynchronous OpenAi call completes,
+     * so neither the servlet threads nor the OkHttp dispatcher threads are held by the post-processing.
+     *
+     * @return ThreadPoolTaskExecutor for OpenAi continuations
+     */
+    @Bean
+    public ThreadPoolTaskExecutor openAiTaskExecutor(){
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(32);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("openai-");
+        return executor;
     }
 
     /**
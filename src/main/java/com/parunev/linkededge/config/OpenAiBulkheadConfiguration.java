@@ -0,0 +1,20 @@
+package com.parunev.linkededge.config;
+
+import com.parunev.linkededge.openai.OpenAiBulkhead;
+import com.parunev.linkededge.openai.model.enums.OpenAiUseCase;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * @Description: Configuration class for the OpenAI bulkheads.
+ * <p>
+ * Every use case listed under `openai.bulkheads` gets its own bulkhead, e.g.
+ * `openai.bulkheads.job-preparation.max-concurrent`. Use cases that are not listed are not limited.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@ConfigurationProperties(prefix = "openai")
+public record OpenAiBulkheadConfiguration(Map<OpenAiUseCase, OpenAiBulkhead.Limits> bulkheads) {
+}
@@ -0,0 +1,40 @@
+package com.parunev.linkededge.config;
+
+import com.parunev.linkededge.openai.model.enums.OpenAiUseCase;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * @Description: Configuration class for the HTTP transport used to call OpenAI.
+ * <p>
+ * Configures the connection pool, the dispatcher limits, the protocols, response compression and the timeouts.
+ * The read and call timeouts can be overridden per use case under `openai.http.timeouts`, e.g.
+ * `openai.http.timeouts.validation.read`; those clients share the connection pool and dispatcher of the main client.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@ConfigurationProperties(prefix = "openai.http")
+public record OpenAiHttpConfiguration(int maxIdleConnections,
+                                      Duration keepAlive,
+                                      int maxRequests,
+                                      int maxRequestsPerHost,
+                                      boolean http2,
+                                      boolean gzip,
+                                      Duration connectTimeout,
+                                      Duration writeTimeout,
+                                      Duration readTimeout,
+                                      Duration callTimeout,
+                                      Map<OpenAiUseCase, Timeouts> timeouts) {
+
+    /**
+     * The timeouts of a use case.
+     *
+     * @param read The longest time between two reads of the response, bounds the time to the first token.
+     * @param call The longest time the whole call may take, 0 for no limit.
+     */
+    public record Timeouts(Duration read, Duration call) {
+    }
+}
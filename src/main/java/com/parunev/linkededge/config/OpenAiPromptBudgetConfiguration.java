@@ -0,0 +1,43 @@
+package com.parunev.linkededge.config;
+
+import com.parunev.linkededge.openai.OpenAiTokenEstimator;
+import com.parunev.linkededge.openai.model.OpenAiMessage;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Description: Configuration class for the token budgets of generated prompts.
+ * <p>
+ * A budget is the number of tokens a generated user prompt may use: what is left of the model's context window once
+ * the system prompt and the completion are accounted for. The completion takes the `max_tokens` of the route, or
+ * `uncapped-completion` tokens for routes without a cap. `context-window` applies to every model without an entry in
+ * `context-windows`. Model names contain dots, so they are written in brackets,
+ * e.g. `openai.prompt-budget.context-windows.[gpt-4]`.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@ConfigurationProperties(prefix = "openai.prompt-budget")
+public record OpenAiPromptBudgetConfiguration(int contextWindow, Map<String, Integer> contextWindows,
+                                              int uncappedCompletion) {
+
+    /**
+     * Returns the prompt budget of a call.
+     *
+     * @param model          The name of the model.
+     * @param maxTokens      The `max_tokens` cap of the route, or `null` if it is not capped.
+     * @param systemMessages The messages sent before the generated user prompt.
+     * @return The number of tokens a generated user prompt may use, 0 if nothing is left for it.
+     */
+    public int budgetFor(String model, Integer maxTokens, List<OpenAiMessage> systemMessages) {
+        int window = contextWindows != null ? contextWindows.getOrDefault(model, contextWindow) : contextWindow;
+        int completion = maxTokens != null ? maxTokens : uncappedCompletion;
+        // The conversation without the content of the user prompt, including the framing of the user message.
+        List<OpenAiMessage> conversation = new ArrayList<>(systemMessages);
+        conversation.add(OpenAiMessage.builder().role("user").content("").build());
+        return Math.max(0, window - completion - OpenAiTokenEstimator.countTokens(conversation));
+    }
+}
@@ -0,0 +1,22 @@
+package com.parunev.linkededge.config;
+
+import com.parunev.linkededge.openai.OpenAiRateLimiter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * @Description: Configuration class for the client-side OpenAI rate limits.
+ * <p>
+ * `defaults` apply to every model without an entry in `models`. Model names contain dots,
+ * so they are written in brackets, e.g. `openai.rate-limit.models.[gpt-3.5-turbo].tokens-per-minute`.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@ConfigurationProperties(prefix = "openai.rate-limit")
+public record OpenAiRateLimitConfiguration(Duration maxWait,
+                                           OpenAiRateLimiter.Limits defaults,
+                                           Map<String, OpenAiRateLimiter.Limits> models) {
+}
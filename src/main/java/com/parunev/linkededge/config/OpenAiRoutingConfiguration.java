@@ -0,0 +1,21 @@
+package com.parunev.linkededge.config;
+
+import com.parunev.linkededge.openai.OpenAiRoutingPolicy;
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * @Description: Configuration class for the OpenAI model routing.
+ * <p>
+ * Every route listed under `openai.routes` is sent to its own model with its own completion cap, e.g.
+ * `openai.routes.validation.model=GPT_3_5_TURBO` and `openai.routes.validation.max-tokens=5`.
+ * Routes that are not listed use the default model without a cap.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@ConfigurationProperties(prefix = "openai")
+public record OpenAiRoutingConfiguration(Map<OpenAiRoute, OpenAiRoutingPolicy.Target> routes) {
+}
@@ -5,6 +5,7 @@ import com.parunev.linkededge.security.jwt.JwtFilter;
 import com.parunev.linkededge.security.jwt.JwtLogout;
 import com.parunev.linkededge.security.payload.ApiError;
 import com.parunev.linkededge.security.payload.ApiResponse;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -68,6 +69,9 @@ public class SecurityConfiguration {
                             ));
                         })))
                 .authorizeHttpRequests(authorize -> authorize
+                        // Asynchronous and streamed results are dispatched again once ready, without the JWT filter.
+                        // The request itself was authorized when it started.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/edge-api/v1/auth/**").permitAll() // Permits public access to specific endpoints.
                         .requestMatchers("/edge-api/v1/profile/**").permitAll()
                         .requestMatchers("/v2/api-docs", "/v3/api-docs",
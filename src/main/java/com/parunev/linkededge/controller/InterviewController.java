@@ -2,20 +2,26 @@ package com.parunev.linkededge.controller;
 
 import com.parunev.linkededge.model.payload.interview.*;
 import com.parunev.linkededge.service.InterviewService;
+import com.parunev.linkededge.util.SseUtil;
 import com.parunev.linkededge.util.annotations.openapi.interview.ApiAnswerSpecificQuestion;
 import com.parunev.linkededge.util.annotations.openapi.interview.ApiGenerateRandomQuestions;
 import com.parunev.linkededge.util.annotations.openapi.interview.ApiPrepareMeForJob;
+import com.parunev.linkededge.util.annotations.openapi.interview.ApiStreamPrepareMeForJob;
+import com.parunev.linkededge.util.annotations.openapi.interview.ApiStreamRandomQuestions;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
@@ -28,21 +34,38 @@ public class InterviewController {
     @ApiGenerateRandomQuestions
     @GetMapping("/generate")
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_USER_EXTRA')")
-    public ResponseEntity<List<QuestionResponse>> generateRandomInterviewQuestions(@RequestBody QuestionRequest request){
-       return new ResponseEntity<>(interviewService.generateRandomInterviewQuestions(request), HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<List<QuestionResponse>>> generateRandomInterviewQuestions(@RequestBody QuestionRequest request){
+       return interviewService.generateRandomInterviewQuestions(request)
+               .thenApply(response -> new ResponseEntity<>(response, HttpStatus.OK));
+    }
+
+    @ApiStreamRandomQuestions
+    @GetMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_USER_EXTRA')")
+    public SseEmitter streamRandomInterviewQuestions(@RequestBody QuestionRequest request){
+        return SseUtil.stream(onChunk -> interviewService.streamRandomInterviewQuestions(request, onChunk));
     }
 
     @ApiAnswerSpecificQuestion
     @GetMapping("/answer-me")
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_USER_EXTRA')")
-    public ResponseEntity<AnswerResponse> answerUserQuestion(@RequestBody AnswerRequest request){
-        return new ResponseEntity<>(interviewService.answerUserQuestion(request), HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<AnswerResponse>> answerUserQuestion(@RequestBody AnswerRequest request){
+        return interviewService.answerUserQuestion(request)
+                .thenApply(response -> new ResponseEntity<>(response, HttpStatus.OK));
     }
 
     @ApiPrepareMeForJob
     @GetMapping("/prepare-me")
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_USER_EXTRA')")
-    public ResponseEntity<JobResponse> prepareMeForAJob(@RequestBody JobRequest request){
-        return new ResponseEntity<>(interviewService.prepareMeForAJob(request), HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<JobResponse>> prepareMeForAJob(@RequestBody JobRequest request){
+        return interviewService.prepareMeForAJob(request)
+                .thenApply(response -> new ResponseEntity<>(response, HttpStatus.OK));
+    }
+
+    @ApiStreamPrepareMeForJob
+    @GetMapping(value = "/prepare-me/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_USER_EXTRA')")
+    public SseEmitter streamPrepareMeForAJob(@RequestBody JobRequest request){
+        return SseUtil.stream(onChunk -> interviewService.streamPrepareMeForAJob(request, onChunk));
     }
 }
@@ -28,6 +28,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
@@ -81,9 +82,10 @@ public class ProfileController {
     @ApiAddEducation
     @PostMapping("/education")
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_USER_EXTRA')")
-    public ResponseEntity<ProfileResponse> addUserEducation(@RequestBody ProfileEducationRequest request){
+    public CompletableFuture<ResponseEntity<ProfileResponse>> addUserEducation(@RequestBody ProfileEducationRequest request){
         leLogger.info("Request to add new user education");
-        return new ResponseEntity<>(userProfileService.addEducation(request), HttpStatus.CREATED);
+        return userProfileService.addEducation(request)
+                .thenApply(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
     }
 
     @ApiAllEducations
@@ -97,9 +99,10 @@ public class ProfileController {
     @ApiAddExperience
     @PostMapping("/experience")
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_USER_EXTRA')")
-    public ResponseEntity<ProfileResponse> addUserExperience(@RequestBody ProfileExperienceRequest request){
+    public CompletableFuture<ResponseEntity<ProfileResponse>> addUserExperience(@RequestBody ProfileExperienceRequest request){
         leLogger.info("Request to add new user experience");
-        return new ResponseEntity<>(userProfileService.addExperience(request), HttpStatus.CREATED);
+        return userProfileService.addExperience(request)
+                .thenApply(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
     }
 
     @ApiAllExperiences
@@ -113,9 +116,10 @@ public class ProfileController {
     @ApiAddSkill
     @PostMapping("/skill")
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_USER_EXTRA')")
-    public ResponseEntity<ProfileResponse> addUserSkill(@RequestBody ProfileSkillRequest request){
+    public CompletableFuture<ResponseEntity<ProfileResponse>> addUserSkill(@RequestBody ProfileSkillRequest request){
         leLogger.info("Request to add new user skill");
-        return new ResponseEntity<>(userProfileService.addSkill(request), HttpStatus.CREATED);
+        return userProfileService.addSkill(request)
+                .thenApply(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
     }
 
     @ApiAllSkills
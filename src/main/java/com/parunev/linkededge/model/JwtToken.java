@@ -28,6 +28,12 @@ public class JwtToken extends BaseEntity {
     @Column(name = "TOKEN_VALUE", nullable = false, length = 1000)
     private String tokenValue;
 
+    /**
+     * The SHA-256 hash of the token value (hex encoded), used to look the token up by a fixed-size unique key.
+     */
+    @Column(name = "TOKEN_HASH", length = 64, unique = true)
+    private String tokenHash;
+
     /**
      * The type of the token, typically set to TOKEN_TYPE_BEARER.
      */
@@ -0,0 +1,44 @@
+package com.parunev.linkededge.model;
+
+import com.parunev.linkededge.model.commons.BaseEntity;
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The `OpenAiCachedResponse` class represents a generated OpenAI response kept in the database cache,
+ * keyed by the hash of the completion request that produced it.
+ *
+ * @author Martin Parunev
+ * @date October 11, 2023
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Entity(name = "OPENAI_CACHED_RESPONSES")
+@AttributeOverride(name = "id", column = @Column(name = "OPENAI_CACHED_RESPONSE_ID"))
+public class OpenAiCachedResponse extends BaseEntity {
+
+    /**
+     * The SHA-256 hash of the serialized completion request.
+     */
+    @Column(name = "CACHE_KEY", length = 64, nullable = false, unique = true)
+    private String cacheKey;
+
+    /**
+     * The generated response.
+     */
+    @Column(name = "RESPONSE", columnDefinition = "TEXT", nullable = false)
+    private String response;
+
+    /**
+     * The timestamp after which the response is no longer served.
+     */
+    @Column(name = "EXPIRES_AT", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,98 @@
+package com.parunev.linkededge.model;
+
+import com.parunev.linkededge.model.commons.BaseEntity;
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The `OpenAiUsage` class represents the tokens OpenAI calls used during one metering period, for a single user,
+ * endpoint, model and route. A row is written for every combination that made calls during the period, totals are
+ * the sums over the rows.
+ *
+ * @author Martin Parunev
+ * @date October 11, 2023
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Entity(name = "OPENAI_USAGE")
+@AttributeOverride(name = "id", column = @Column(name = "OPENAI_USAGE_ID"))
+@Table(indexes = {
+        @Index(name = "IDX_OPENAI_USAGE_PROFILE", columnList = "PROFILE_ID, PERIOD_END"),
+        @Index(name = "IDX_OPENAI_USAGE_PERIOD", columnList = "PERIOD_END")
+})
+public class OpenAiUsage extends BaseEntity {
+
+    /**
+     * The username of the user the calls were made for, `null` for calls made without a user.
+     */
+    @Column(name = "USERNAME", length = 100)
+    private String username;
+
+    /**
+     * The id of the user's profile, resolved when the usage is written, so usage can be compared with the credits of the profile.
+     */
+    @Column(name = "PROFILE_ID")
+    private UUID profileId;
+
+    /**
+     * The path of the requests that triggered the calls, `null` for calls made outside a request.
+     */
+    @Column(name = "ENDPOINT")
+    private String endpoint;
+
+    /**
+     * The model the calls were made to.
+     */
+    @Column(name = "MODEL", length = 50, nullable = false)
+    private String model;
+
+    /**
+     * The kind of prompt of the calls.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ROUTE", length = 30, nullable = false)
+    private OpenAiRoute route;
+
+    /**
+     * The number of calls.
+     */
+    @Column(name = "CALLS", nullable = false)
+    private Long calls;
+
+    /**
+     * The number of prompt tokens of the calls.
+     */
+    @Column(name = "PROMPT_TOKENS", nullable = false)
+    private Long promptTokens;
+
+    /**
+     * The number of completion tokens of the calls.
+     */
+    @Column(name = "COMPLETION_TOKENS", nullable = false)
+    private Long completionTokens;
+
+    /**
+     * The number of prompt and completion tokens of the calls.
+     */
+    @Column(name = "TOTAL_TOKENS", nullable = false)
+    private Long totalTokens;
+
+    /**
+     * The start of the metering period.
+     */
+    @Column(name = "PERIOD_START", nullable = false)
+    private LocalDateTime periodStart;
+
+    /**
+     * The end of the metering period, when the usage was written.
+     */
+    @Column(name = "PERIOD_END", nullable = false)
+    private LocalDateTime periodEnd;
+}
@@ -0,0 +1,44 @@
+package com.parunev.linkededge.model;
+
+import com.parunev.linkededge.model.commons.BaseEntity;
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The `SchedulerLock` class represents a named lock held in the database, used to make sure a scheduled job
+ * runs on only one node at a time. A lock is held while `lockedUntil` is in the future.
+ *
+ * @author Martin Parunev
+ * @date October 11, 2023
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Entity(name = "SCHEDULER_LOCKS")
+@AttributeOverride(name = "id", column = @Column(name = "SCHEDULER_LOCK_ID"))
+public class SchedulerLock extends BaseEntity {
+
+    /**
+     * The unique name of the lock, typically the name of the scheduled job.
+     */
+    @Column(name = "LOCK_NAME", length = 100, nullable = false, unique = true)
+    private String name;
+
+    /**
+     * The timestamp until which the lock is held.
+     */
+    @Column(name = "LOCKED_UNTIL", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    /**
+     * The node that currently holds the lock.
+     */
+    @Column(name = "LOCKED_BY", length = 100, nullable = false)
+    private String lockedBy;
+}
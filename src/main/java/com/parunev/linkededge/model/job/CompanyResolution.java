@@ -4,12 +4,14 @@ import com.parunev.linkededge.model.commons.BaseEntity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * The `CompanyResolution` class represents a company's resolution or information in the LinkedEdge application. It extends the `BaseEntity` class
  * and includes various fields related to a company, such as the company's universal name, name, URL, description, staff count, and headquarters.
- * This class is associated with company specialties, industries, and a job.
+ * This class is associated with company specialties and industries. A company is stored once per universal name and shared by
+ * all jobs it posted, the time it was fetched tells when it should be refreshed.
  *
  * @author Martin Parunev
  * @date October 11, 2023
@@ -22,6 +24,7 @@ import java.util.List;
 @EqualsAndHashCode(callSuper = true)
 @Entity(name = "EDGE_COMPANY_RESOLUTION")
 @AttributeOverride(name = "id", column = @Column(name = "COMPANY_RESOLUTION_ID"))
+@Table(indexes = @Index(name = "IDX_COMPANY_UNIVERSAL_NAME", columnList = "COMPANY_UNIVERSAL_NAME, FETCHED_AT"))
 public class CompanyResolution extends BaseEntity {
 
     /**
@@ -60,22 +63,21 @@ public class CompanyResolution extends BaseEntity {
     @Column(name = "COMPANY_HEADQUARTER")
     private String companyHeadquarter;
 
+    /**
+     * The time the company was last fetched from LinkedIn.
+     */
+    @Column(name = "FETCHED_AT")
+    private LocalDateTime fetchedAt;
+
     /**
      * A list of specialties associated with this company.
      */
-    @OneToMany(mappedBy = "companyResolution", cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "companyResolution", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CompanySpecialty> specialties;
 
     /**
      * A list of industries associated with this company.
      */
-    @OneToMany(mappedBy = "companyResolution", cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "companyResolution", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CompanyIndustry> industries;
-
-    /**
-     * The job associated with this company resolution.
-     */
-    @ManyToOne
-    @JoinColumn(name = "EDGE_JOB_ID")
-    private Job job;
 }
@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * The `Job` class represents a job in the LinkedEdge application, typically extracted from a LinkedIn job post. It extends the `BaseEntity` class
  * and includes various fields related to the job, such as job description, employment status, job title, location, job posting URL, and job posting ID.
- * This class is associated with job functions and job industries.
+ * This class is associated with job functions, job industries and the company that posted it.
  *
  * @author Martin Parunev
  * @date October 11, 2023
@@ -73,6 +73,13 @@ public class Job extends BaseEntity {
     @OneToMany(mappedBy = "job", cascade = CascadeType.ALL)
     private List<JobIndustry> industries;
 
+    /**
+     * The company that posted this job, shared with the other jobs of the same company.
+     */
+    @ManyToOne
+    @JoinColumn(name = "COMPANY_RESOLUTION_ID")
+    private CompanyResolution companyResolution;
+
     /**
      * The user profile associated with this job.
      */
@@ -0,0 +1,17 @@
+package com.parunev.linkededge.model.payload.interview;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * @Description: The answer OpenAI generates for a specialized interview question, bound from its JSON answer.
+ *
+ * @param answer   The answer to the question.
+ * @param example  An example illustrating the answer, empty if the question was refused.
+ * @param benefits Why knowing the topic is beneficial in an interview, empty if the question was refused.
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public record GeneratedAnswer(@JsonProperty(required = true) String answer,
+                              @JsonProperty(required = true) String example,
+                              @JsonProperty(required = true) String benefits) {
+}
@@ -0,0 +1,42 @@
+package com.parunev.linkededge.model.payload.interview;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.parunev.linkededge.model.enums.QuestionDifficulty;
+
+import java.util.List;
+
+/**
+ * @Description: The job interview preparation OpenAI generates for a user, bound from its JSON answer.
+ *
+ * @param coaching    The questions to expect, with insights and advice for each of them.
+ * @param preparation The assessment of the user's fit for the job, only the first one is used.
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public record GeneratedJobPreparation(@JsonProperty(required = true) List<CoachingItem> coaching,
+                                      @JsonProperty(required = true) List<PreparationItem> preparation) {
+
+    /**
+     * A question to expect in the interview.
+     *
+     * @param difficulty The difficulty of the question.
+     * @param question   The question itself.
+     * @param insight    Insights on answering the question.
+     * @param advice     Advice for an effective answer.
+     */
+    public record CoachingItem(@JsonProperty(required = true) QuestionDifficulty difficulty,
+                               @JsonProperty(required = true) String question,
+                               @JsonProperty(required = true) String insight,
+                               @JsonProperty(required = true) String advice) {
+    }
+
+    /**
+     * The assessment of the user's fit for the job.
+     *
+     * @param doYouFit    Why the user fits the job.
+     * @param doYouNotFit Why the user might not fit the job.
+     */
+    public record PreparationItem(@JsonProperty(required = true) String doYouFit,
+                                  @JsonProperty(required = true) String doYouNotFit) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.parunev.linkededge.model.payload.interview;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.parunev.linkededge.model.enums.QuestionDifficulty;
+
+import java.util.List;
+
+/**
+ * @Description: The interview questions OpenAI generates for a user, bound from its JSON answer.
+ *
+ * @param questions The generated questions.
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public record GeneratedQuestions(@JsonProperty(required = true) List<QuestionItem> questions) {
+
+    /**
+     * A single generated question.
+     *
+     * @param skill      The skill the question is about.
+     * @param difficulty The difficulty of the question.
+     * @param question   The question itself.
+     * @param answer     An example answer to the question.
+     */
+    public record QuestionItem(@JsonProperty(required = true) String skill,
+                               @JsonProperty(required = true) QuestionDifficulty difficulty,
+                               @JsonProperty(required = true) String question,
+                               @JsonProperty(required = true) String answer) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.parunev.linkededge.model.payload.metering;
+
+import java.util.UUID;
+
+/**
+ * @Description: Record for the OpenAI token usage of a profile, next to the credits the profile has left.
+ *
+ * @param profileId The id of the profile.
+ * @param credits The general credits the profile has left.
+ * @param jobCredits The job credits the profile has left.
+ * @param calls The number of calls.
+ * @param totalTokens The number of prompt and completion tokens.
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public record OpenAiProfileUsage(UUID profileId, Integer credits, Integer jobCredits, Long calls, Long totalTokens) {
+}
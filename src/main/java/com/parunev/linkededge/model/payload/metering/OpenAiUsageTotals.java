@@ -0,0 +1,15 @@
+package com.parunev.linkededge.model.payload.metering;
+
+/**
+ * @Description: Record for the OpenAI token usage summed up over a group, such as an endpoint or a model.
+ *
+ * @param key The value the usage is grouped by.
+ * @param calls The number of calls.
+ * @param promptTokens The number of prompt tokens.
+ * @param completionTokens The number of completion tokens.
+ * @param totalTokens The number of prompt and completion tokens.
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public record OpenAiUsageTotals(String key, Long calls, Long promptTokens, Long completionTokens, Long totalTokens) {
+}
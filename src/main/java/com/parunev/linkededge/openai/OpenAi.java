@@ -1,26 +1,50 @@
 package com.parunev.linkededge.openai;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.parunev.linkededge.openai.cache.OpenAiResponseCache;
 import com.parunev.linkededge.openai.exception.OpenAiException;
 import com.parunev.linkededge.openai.model.OpenAiMessage;
+import com.parunev.linkededge.openai.model.OpenAiOptions;
 import com.parunev.linkededge.openai.model.enums.OpenAiDefaults;
 import com.parunev.linkededge.openai.model.enums.OpenAiError;
 import com.parunev.linkededge.openai.model.enums.OpenAiModel;
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
+import com.parunev.linkededge.openai.model.enums.OpenAiUseCase;
 import com.parunev.linkededge.openai.model.payload.OpenAiCompletionRequest;
 import com.parunev.linkededge.openai.model.payload.OpenAiCompletionResponse;
+import com.parunev.linkededge.openai.usage.OpenAiUsageRecorder;
 import com.parunev.linkededge.security.exceptions.InvalidWritingException;
 import com.parunev.linkededge.security.payload.ApiError;
 import com.parunev.linkededge.util.LELogger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.Builder;
 import okhttp3.*;
+import okio.BufferedSource;
+import org.jetbrains.annotations.NotNull;
 import org.springframework.http.HttpStatus;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
-import static com.parunev.linkededge.util.RequestUtil.getCurrentRequest;
+import static com.parunev.linkededge.security.CurrentUser.findCurrentUsername;
+import static com.parunev.linkededge.util.RequestUtil.findCurrentRequest;
+import static com.parunev.linkededge.util.TokenHashUtil.sha256;
 
 /**
  * @Description: Class for interacting with OpenAI's language models.
@@ -34,10 +58,28 @@ import static com.parunev.linkededge.util.RequestUtil.getCurrentRequest;
  */
 @Builder
 public class OpenAi {
+    private static final String SSE_DATA_PREFIX = "data:";
+    private static final String SSE_DONE = "[DONE]";
+    private static final String PROMPT_TOKENS_METRIC = "openai.prompt.tokens";
+    private static final String ROUTE_LATENCY_METRIC = "openai.route.latency";
+    private static final String ROUTE_TOKENS_METRIC = "openai.route.tokens";
     private final String openAiApi;
     private final String openAiHost;
     protected OkHttpClient client;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OpenAiResponseCache responseCache; // Optional, responses are not cached when null
+    private final OpenAiRetryPolicy retryPolicy;
+    private final OpenAiCircuitBreaker circuitBreaker;
+    private final OpenAiRateLimiter rateLimiter;
+    private final Map<OpenAiUseCase, OpenAiBulkhead> bulkheads; // Use cases without a bulkhead are not limited
+    private final Map<OpenAiUseCase, OkHttpClient> useCaseClients; // Clients with use case specific timeouts, sharing the pool of `client`
+    private final MeterRegistry meterRegistry;
+    private final OpenAiRoutingPolicy routingPolicy;
+    private final OpenAiUsageRecorder usageRecorder; // Optional, usage is not metered when null
+    private final SingleFlight<String, OpenAiCompletionResponse> inFlight = new SingleFlight<>(); // Calls in flight keyed by the hash of the request
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS) // Generated answers do not always match the enum case
+            .build();
     private final LELogger leLogger = new LELogger(OpenAi.class);
 
     /**
@@ -48,9 +90,76 @@ public class OpenAi {
      * @param client The OkHttpClient for making HTTP requests.
      */
     public OpenAi(String openAiApi, String openAiHost, OkHttpClient client) {
+        this(openAiApi, openAiHost, client, null);
+    }
+
+    /**
+     * Constructor for the OpenAi class with a response cache.
+     *
+     * @param openAiApi The OpenAI API key.
+     * @param openAiHost The OpenAI API host.
+     * @param client The OkHttpClient for making HTTP requests.
+     * @param responseCache The cache used by calls that opt in with {@link OpenAiOptions#isCacheable()}.
+     */
+    public OpenAi(String openAiApi, String openAiHost, OkHttpClient client, OpenAiResponseCache responseCache) {
+        this(openAiApi, openAiHost, client, responseCache, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Constructor for the OpenAi class with all of its collaborators.
+     *
+     * @param openAiApi The OpenAI API key.
+     * @param openAiHost The OpenAI API host.
+     * @param client The OkHttpClient for making HTTP requests.
+     * @param responseCache The cache used by calls that opt in with {@link OpenAiOptions#isCacheable()}.
+     * @param retryPolicy The policy for retrying failed calls, the default policy is used when null.
+     * @param circuitBreaker The circuit breaker guarding the calls, a breaker with default settings is used when null.
+     * @param rateLimiter The client-side rate limiter, a limiter with default limits is used when null.
+     * @param bulkheads The bulkheads per use case, calls are not limited by use case when null.
+     * @param useCaseClients HTTP clients per use case, typically derived from `client` with other timeouts.
+     *                       Use cases without a client of their own use `client`.
+     * @param meterRegistry The registry token usage and latency are recorded in, the global registry is used when null.
+     * @param routingPolicy The policy selecting the model and completion cap of every route, calls are sent to the
+     *                      default model without a cap when null.
+     * @param usageRecorder The recorder the tokens of every call are metered with, usage is not metered when null.
+     */
+    public OpenAi(String openAiApi, String openAiHost, OkHttpClient client, OpenAiResponseCache responseCache,
+                  OpenAiRetryPolicy retryPolicy, OpenAiCircuitBreaker circuitBreaker, OpenAiRateLimiter rateLimiter,
+                  Map<OpenAiUseCase, OpenAiBulkhead> bulkheads, Map<OpenAiUseCase, OkHttpClient> useCaseClients,
+                  MeterRegistry meterRegistry, OpenAiRoutingPolicy routingPolicy,
+                  OpenAiUsageRecorder usageRecorder) {
         this.openAiApi = openAiApi;
         this.openAiHost = openAiHost;
         this.client = client;
+        this.responseCache = responseCache;
+        this.retryPolicy = retryPolicy != null ? retryPolicy : OpenAiRetryPolicy.builder().build();
+        this.circuitBreaker = circuitBreaker != null ? circuitBreaker : OpenAiCircuitBreaker.withDefaults();
+        this.rateLimiter = rateLimiter != null ? rateLimiter : OpenAiRateLimiter.withDefaults();
+        this.bulkheads = bulkheads != null ? Map.copyOf(bulkheads) : Map.of();
+        this.useCaseClients = useCaseClients != null ? Map.copyOf(useCaseClients) : Map.of();
+        this.meterRegistry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+        this.routingPolicy = routingPolicy != null ? routingPolicy : OpenAiRoutingPolicy.withDefaults();
+        this.usageRecorder = usageRecorder;
+    }
+
+    /**
+     * Select the model a call with the given options is sent to when no specific model is given.
+     *
+     * @param options The options of the call, holding its route.
+     * @return The name of the model of the route.
+     */
+    public String modelFor(OpenAiOptions options) {
+        return routingPolicy.modelFor(options);
+    }
+
+    /**
+     * Select the completion cap of a call with the given options.
+     *
+     * @param options The options of the call, holding its route.
+     * @return The `max_tokens` of the route, or `null` if it is not capped.
+     */
+    public Integer maxTokensFor(OpenAiOptions options) {
+        return routingPolicy.maxTokensFor(options);
     }
 
     /**
@@ -84,16 +193,183 @@ public class OpenAi {
      * @return The generated response as a string.
      */
     public String ask(String model, List<OpenAiMessage> message) {
+        return ask(model, message, OpenAiOptions.DEFAULT);
+    }
+
+    /**
+     * Ask a question using a specific model, provided messages and call options.
+     * The calling thread waits for the same call {@link #askAsync(String, List, OpenAiOptions)} makes, so the call
+     * is sent with the options of its route and runs in the bulkhead and on the client of its use case.
+     *
+     * @param model The specific OpenAI model to use.
+     * @param messages A list of messages in the chat conversation.
+     * @param options The options for this call.
+     * @return The generated response as a string.
+     */
+    public String ask(String model, List<OpenAiMessage> messages, OpenAiOptions options) {
         leLogger.info("Performing 'ask' operation for model '{}' with messages.", model);
-        OpenAiCompletionResponse response = askOriginal(model, message);
-        List<OpenAiCompletionResponse.Choice> choices = response.getChoices();
-        StringBuilder result = new StringBuilder();
+        String key = cacheKey(model, messages, options);
+        String cached = getCached(key);
+        if (cached != null) {
+            return cached;
+        }
 
-        for (OpenAiCompletionResponse.Choice choice : choices) {
-            result.append(choice.getMessage().getContent());
+        return putCached(key, joinChoices(join(askOriginalAsync(model, messages, options))));
+    }
+
+    /**
+     * Ask a question asynchronously using the default model and provided messages.
+     *
+     * @param messages A list of messages in the chat conversation.
+     * @return A future completed with the generated response as a string.
+     */
+    public CompletableFuture<String> askAsync(List<OpenAiMessage> messages) {
+        leLogger.info("Performing 'askAsync' operation with default model and messages.");
+        return askAsync(OpenAiDefaults.DEFAULT_MODEL.getValue(), messages);
+    }
+
+    /**
+     * Ask a question asynchronously using the model of the route given in the options, provided messages and call options.
+     *
+     * @param messages A list of messages in the chat conversation.
+     * @param options The options for this call.
+     * @return A future completed with the generated response as a string.
+     */
+    public CompletableFuture<String> askAsync(List<OpenAiMessage> messages, OpenAiOptions options) {
+        leLogger.info("Performing 'askAsync' operation with routed model, messages and options.");
+        return askAsync(modelFor(options), messages, options);
+    }
+
+    /**
+     * Ask a question asynchronously using a specific model and provided messages.
+     *
+     * @param model The specific OpenAI model to use.
+     * @param messages A list of messages in the chat conversation.
+     * @return A future completed with the generated response as a string.
+     */
+    public CompletableFuture<String> askAsync(OpenAiModel model, List<OpenAiMessage> messages) {
+        leLogger.info("Performing 'askAsync' operation with model '{}' and messages.", model.getName());
+        return askAsync(model.getName(), messages);
+    }
+
+    /**
+     * Ask a question asynchronously using a specific model and provided messages.
+     *
+     * @param model The specific OpenAI model to use.
+     * @param messages A list of messages in the chat conversation.
+     * @return A future completed with the generated response as a string.
+     */
+    public CompletableFuture<String> askAsync(String model, List<OpenAiMessage> messages) {
+        return askAsync(model, messages, OpenAiOptions.DEFAULT);
+    }
+
+    /**
+     * Ask a question asynchronously using a specific model, provided messages and call options.
+     * A cached response completes the returned future immediately, without calling OpenAI.
+     *
+     * @param model The specific OpenAI model to use.
+     * @param messages A list of messages in the chat conversation.
+     * @param options The options for this call.
+     * @return A future completed with the generated response as a string.
+     */
+    public CompletableFuture<String> askAsync(String model, List<OpenAiMessage> messages, OpenAiOptions options) {
+        leLogger.info("Performing 'askAsync' operation for model '{}' with messages.", model);
+        String key = cacheKey(model, messages, options);
+        String cached = getCached(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
         }
 
-        return result.toString();
+        CompletableFuture<OpenAiCompletionResponse> original = askOriginalAsync(model, messages, options);
+        CompletableFuture<String> answer = original.thenApply(response -> putCached(key, joinChoices(response)));
+
+        // Give up on the call when the caller cancels or times out the returned future.
+        answer.whenComplete((result, throwable) -> {
+            if (throwable != null && !original.isDone()) {
+                original.cancel(true);
+            }
+        });
+
+        return answer;
+    }
+
+    /**
+     * Ask for a JSON answer using the model of the route given in the options, provided messages and call options,
+     * and bind it to the given type.
+     * The call is made in JSON mode on models that support it, the messages must still instruct the model which JSON
+     * object to produce.
+     *
+     * @param messages A list of messages in the chat conversation.
+     * @param options The options for this call.
+     * @param type The type the generated JSON object is bound to.
+     * @param <T> The type of the result.
+     * @return The generated answer bound to the given type.
+     * @throws OpenAiException If the call fails or the answer cannot be bound to the given type.
+     */
+    public <T> T askFor(List<OpenAiMessage> messages, OpenAiOptions options, Class<T> type) {
+        String content = ask(modelFor(options), messages, jsonMode(options));
+        return readContent(content, type, findCurrentRequest());
+    }
+
+    /**
+     * Ask for a JSON answer asynchronously using the model of the route given in the options, provided messages
+     * and call options, and bind it to the given type.
+     *
+     * @param messages A list of messages in the chat conversation.
+     * @param options The options for this call.
+     * @param type The type the generated JSON object is bound to.
+     * @param <T> The type of the result.
+     * @return A future completed with the generated answer bound to the given type, or exceptionally with an
+     * OpenAiException if the call fails or the answer cannot be bound to the given type.
+     */
+    public <T> CompletableFuture<T> askForAsync(List<OpenAiMessage> messages, OpenAiOptions options, Class<T> type) {
+        return askForAsync(modelFor(options), messages, options, type);
+    }
+
+    /**
+     * Ask for a JSON answer asynchronously using a specific model, provided messages and call options,
+     * and bind it to the given type.
+     * The call is made in JSON mode on models that support it, the messages must still instruct the model which JSON
+     * object to produce.
+     *
+     * @param model The specific OpenAI model to use.
+     * @param messages A list of messages in the chat conversation.
+     * @param options The options for this call.
+     * @param type The type the generated JSON object is bound to.
+     * @param <T> The type of the result.
+     * @return A future completed with the generated answer bound to the given type, or exceptionally with an
+     * OpenAiException if the call fails or the answer cannot be bound to the given type.
+     */
+    public <T> CompletableFuture<T> askForAsync(String model, List<OpenAiMessage> messages, OpenAiOptions options,
+                                                Class<T> type) {
+        String path = findCurrentRequest();
+        return askAsync(model, messages, jsonMode(options)).thenApply(content -> readContent(content, type, path));
+    }
+
+    /**
+     * Ask for a JSON answer asynchronously using the model of the route given in the options, provided messages
+     * and call options.
+     *
+     * @param messages A list of messages in the chat conversation.
+     * @param options The options for this call.
+     * @return A future completed with the generated JSON object as a tree, or exceptionally with an OpenAiException
+     * if the model did not answer with valid JSON.
+     */
+    public CompletableFuture<JsonNode> askJsonAsync(List<OpenAiMessage> messages, OpenAiOptions options) {
+        return askForAsync(messages, options, JsonNode.class);
+    }
+
+    /**
+     * Ask for a JSON answer asynchronously using a specific model, provided messages and call options.
+     *
+     * @param model The specific OpenAI model to use.
+     * @param messages A list of messages in the chat conversation.
+     * @param options The options for this call.
+     * @return A future completed with the generated JSON object as a tree, or exceptionally with an OpenAiException
+     * if the model did not answer with valid JSON.
+     */
+    public CompletableFuture<JsonNode> askJsonAsync(String model, List<OpenAiMessage> messages, OpenAiOptions options) {
+        return askForAsync(model, messages, options, JsonNode.class);
     }
 
     /**
@@ -101,6 +377,7 @@ public class OpenAi {
      * <p>
      * This method is responsible for making an HTTP request to OpenAI's chat completion API using a specific model and a list of messages.
      * It allows you to customize and fine-tune the chat generation process.
+     * The calling thread waits for the same coalesced call {@link #askOriginalAsync(String, List)} makes.
      *
      * @param model The specific OpenAI model to use for generating chat completions.
      * @param messages A list of messages in the chat conversation, including roles (e.g., "user" or "assistant") and content.
@@ -109,55 +386,774 @@ public class OpenAi {
      */
     public OpenAiCompletionResponse askOriginal(String model, List<OpenAiMessage> messages) {
         leLogger.info("Performing 'askOriginal' operation for model '{}' with messages.", model);
-        // Create the request body by serializing the provided model and messages into JSON.
-        RequestBody body = RequestBody
-                .create(buildRequestBody(model, messages), MediaType.get("application/json; charset=utf-8"));
+
+        return join(askOriginalAsync(model, messages));
+    }
+
+    /**
+     * Wait for a call, rethrowing the OpenAiException (or any other runtime exception) it failed with.
+     */
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Perform the original 'ask' operation asynchronously with a specific model and provided messages.
+     * <p>
+     * The request is enqueued on the OkHttp dispatcher, so no thread is blocked while OpenAI generates the completion.
+     * The returned future is completed on a dispatcher thread; callers doing further work should continue on their own executor.
+     * <p>
+     * Identical requests made while one is already in flight share its HTTP call instead of making their own.
+     * Cancelling the returned future only cancels the HTTP call once no other caller is waiting for it.
+     *
+     * @param model The specific OpenAI model to use for generating chat completions.
+     * @param messages A list of messages in the chat conversation, including roles (e.g., "user" or "assistant") and content.
+     * @return A future completed with the OpenAiCompletionResponse, or exceptionally with an OpenAiException.
+     */
+    public CompletableFuture<OpenAiCompletionResponse> askOriginalAsync(String model, List<OpenAiMessage> messages) {
+        return askOriginalAsync(model, messages, OpenAiOptions.DEFAULT);
+    }
+
+    /**
+     * Perform the original 'ask' operation asynchronously with a specific model, provided messages and call options.
+     * The call runs in the bulkhead of the use case given in the options, and its completion is capped by the
+     * `max_tokens` of its route. Its usage is metered for the current user; a call shared by identical requests is
+     * metered once, for the user whose request made it.
+     *
+     * @param model The specific OpenAI model to use for generating chat completions.
+     * @param messages A list of messages in the chat conversation, including roles (e.g., "user" or "assistant") and content.
+     * @param options The options for this call.
+     * @return A future completed with the OpenAiCompletionResponse, or exceptionally with an OpenAiException.
+     */
+    public CompletableFuture<OpenAiCompletionResponse> askOriginalAsync(String model, List<OpenAiMessage> messages,
+                                                                        OpenAiOptions options) {
+        leLogger.info("Performing 'askOriginalAsync' operation for model '{}' with messages.", model);
+        // The callback runs outside the request thread, so the request path and the user have to be captured up front.
+        String path = findCurrentRequest();
+        String username = findCurrentUsername();
+        String requestBody = buildRequestBody(model, messages, options, false);
+        int promptTokens = OpenAiTokenEstimator.countTokens(messages);
+        int estimatedTokens = OpenAiRateLimiter.estimateTokens(promptTokens, routingPolicy.maxTokensFor(options));
+        OpenAiRoute route = routeOf(options);
+
+        return inFlight.execute(sha256(requestBody), () -> inBulkhead(options, path, () ->
+                enqueue(clientFor(options), model, route, requestBody, promptTokens, estimatedTokens, username, path)));
+    }
+
+    /**
+     * @return The route of a call, {@link OpenAiRoute#GENERAL} if it has no options.
+     */
+    private OpenAiRoute routeOf(OpenAiOptions options) {
+        return options != null ? options.getRoute() : OpenAiRoute.GENERAL;
+    }
+
+    /**
+     * Select the HTTP client for a call, based on its use case.
+     *
+     * @param options The options of the call, holding its use case.
+     * @return The client of the use case, or the default client if the use case has none.
+     */
+    private OkHttpClient clientFor(OpenAiOptions options) {
+        OkHttpClient http = options != null ? useCaseClients.get(options.getUseCase()) : null;
+        return http != null ? http : client;
+    }
+
+    /**
+     * Run a call in the bulkhead of its use case. Use cases without a bulkhead are not limited.
+     *
+     * @param options The options of the call, holding its use case.
+     * @param path The path of the request that triggered the call, used in error details.
+     * @param call Starts the call.
+     * @return A future completed with the result of the call.
+     */
+    private <T> CompletableFuture<T> inBulkhead(OpenAiOptions options, String path, Supplier<CompletableFuture<T>> call) {
+        OpenAiBulkhead bulkhead = options != null ? bulkheads.get(options.getUseCase()) : null;
+        if (bulkhead == null) {
+            return call.get();
+        }
+
+        return bulkhead.execute(call, rejection -> {
+            leLogger.warn("OpenAI call for use case '{}' rejected: {}", options.getUseCase(), rejection);
+            return new OpenAiException(rejection == OpenAiBulkhead.Rejection.CALL_TIMEOUT
+                    ? buildError(path, HttpStatus.GATEWAY_TIMEOUT.value(), "OpenAI did not answer in time, please try again later")
+                    : buildError(path, OpenAiError.SERVICE_UNAVAILABLE.getCode(), null));
+        });
+    }
+
+    /**
+     * Send a request to OpenAI's chat completion API without blocking.
+     * <p>
+     * Every attempt first waits for capacity in the model's rate limiter. Transient failures are retried according
+     * to the retry policy, and no call is made while the circuit breaker is open.
+     *
+     * @param http The HTTP client the request is sent with.
+     * @param model The model the request is made to.
+     * @param route The route of the call, used to tag its metrics.
+     * @param requestBody The serialized completion request.
+     * @param promptTokens The estimated number of prompt tokens of the call.
+     * @param estimatedTokens The estimated number of tokens the call will use, reserved in the rate limiter.
+     * @param username The user the call is made for, used to meter its usage.
+     * @param path The path of the request that triggered the call, used in error details.
+     * @return A future completed with the OpenAiCompletionResponse, or exceptionally with an OpenAiException.
+     * Cancelling the future cancels the HTTP call and any pending attempt.
+     */
+    private CompletableFuture<OpenAiCompletionResponse> enqueue(OkHttpClient http, String model, OpenAiRoute route,
+                                                                String requestBody, int promptTokens, int estimatedTokens,
+                                                                String username, String path) {
+        PendingCall pending = new PendingCall(http, model, route, requestBody, promptTokens, estimatedTokens, username,
+                path, new CompletableFuture<>());
+        recordLatency(pending.future(), route, model);
+        attempt(pending, 1);
+        return pending.future();
+    }
+
+    /**
+     * Make a single attempt of a call once the rate limiter allows it.
+     *
+     * @param pending The call.
+     * @param attempt The number of this attempt, starting at 1.
+     */
+    private void attempt(PendingCall pending, int attempt) {
+        if (pending.future().isDone()) {
+            // Cancelled while waiting for the retry.
+            return;
+        }
+
+        long wait = rateLimiter.reserve(pending.model(), pending.estimatedTokens());
+        if (wait < 0) {
+            leLogger.warn("Client-side rate limit reached for model '{}', rejecting the call", pending.model());
+            pending.future().completeExceptionally(
+                    new OpenAiException(buildError(pending.path(), OpenAiError.RATE_LIMIT_REACHED.getCode(), null)));
+        } else if (wait > 0) {
+            leLogger.debug("Waiting {} ms for rate limit capacity for model '{}'", wait, pending.model());
+            CompletableFuture.delayedExecutor(wait, TimeUnit.MILLISECONDS).execute(() -> send(pending, attempt));
+        } else {
+            send(pending, attempt);
+        }
+    }
+
+    /**
+     * Send a single attempt of a call, completing the future or scheduling the next attempt.
+     *
+     * @param pending The call, with capacity already reserved in the rate limiter.
+     * @param attempt The number of this attempt, starting at 1.
+     */
+    private void send(PendingCall pending, int attempt) {
+        String path = pending.path();
+        CompletableFuture<OpenAiCompletionResponse> future = pending.future();
+
+        if (future.isDone() || !circuitBreaker.tryAcquire()) {
+            rateLimiter.release(pending.model(), pending.estimatedTokens());
+            if (!future.isDone()) {
+                leLogger.warn("OpenAI circuit breaker is {}, failing fast", circuitBreaker.getState());
+                future.completeExceptionally(new OpenAiException(buildError(path, OpenAiError.SERVICE_UNAVAILABLE.getCode(), null)));
+            }
+            return;
+        }
+
+        Call call = pending.http().newCall(buildRequest(pending.requestBody()));
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                if (call.isCanceled()) {
+                    circuitBreaker.onIgnored();
+                    rateLimiter.release(pending.model(), pending.estimatedTokens());
+                    return;
+                }
+
+                leLogger.error("Request failed: {} {}", e, e.getMessage());
+                circuitBreaker.onFailure();
+                retryOrFail(pending, attempt, null,
+                        new OpenAiException(buildError(path, OpenAiError.SERVER_HAD_AN_ERROR.getCode(), e.getMessage())));
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (response) {
+                    OpenAiCompletionResponse completion = readResponse(response, path);
+                    circuitBreaker.onSuccess();
+                    recordUsage(pending, completion);
+                    future.complete(completion);
+                } catch (OpenAiException e) {
+                    if (OpenAiError.isRetryable(response.code())) {
+                        circuitBreaker.onFailure();
+                        retryOrFail(pending, attempt, parseRetryAfter(response.header("Retry-After")), e);
+                    } else {
+                        // A client error, OpenAI itself is healthy.
+                        circuitBreaker.onSuccess();
+                        rateLimiter.release(pending.model(), pending.estimatedTokens());
+                        future.completeExceptionally(e);
+                    }
+                } catch (IOException e) {
+                    leLogger.error("Request failed: {} {}", e, e.getMessage());
+                    circuitBreaker.onFailure();
+                    retryOrFail(pending, attempt, null,
+                            new OpenAiException(buildError(path, OpenAiError.SERVER_HAD_AN_ERROR.getCode(), e.getMessage())));
+                } catch (RuntimeException e) {
+                    circuitBreaker.onIgnored();
+                    rateLimiter.release(pending.model(), pending.estimatedTokens());
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+
+        future.whenComplete((response, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+    }
+
+    /**
+     * Schedule the next attempt of a failed call, or fail the call if the retry policy does not allow another attempt.
+     * The tokens reserved for the failed attempt are given back, the next attempt reserves its own.
+     *
+     * @param pending The call.
+     * @param attempt The number of the attempt that failed.
+     * @param retryAfter The delay requested by OpenAI, or `null` if none was requested.
+     * @param error The error the call fails with if it is not retried.
+     */
+    private void retryOrFail(PendingCall pending, int attempt, Duration retryAfter, OpenAiException error) {
+        rateLimiter.release(pending.model(), pending.estimatedTokens());
+        long delay = retryPolicy.delayMillis(attempt, retryAfter);
+        if (delay < 0 || pending.future().isDone()) {
+            pending.future().completeExceptionally(error);
+            return;
+        }
+
+        leLogger.warn("OpenAI call failed with status {}, retrying in {} ms (attempt {} of {})",
+                error.getApiError().getStatus(), delay, attempt + 1, retryPolicy.getMaxAttempts());
+        CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+                .execute(() -> attempt(pending, attempt + 1));
+    }
+
+    /**
+     * Correct the rate limiter with the tokens the call actually used, as reported by OpenAI, and record the
+     * estimated and actual number of prompt tokens, so the estimator can be checked against OpenAI's count.
+     * The prompt and completion tokens are also recorded per route, to show what every kind of prompt costs,
+     * and metered per user and endpoint.
+     */
+    private void recordUsage(PendingCall pending, OpenAiCompletionResponse completion) {
+        OpenAiCompletionResponse.Usage usage = completion.getUsage();
+        if (usage == null) {
+            return;
+        }
+
+        if (usage.getTotalTokens() != null) {
+            rateLimiter.correct(pending.model(), pending.estimatedTokens(), usage.getTotalTokens());
+        }
+        String route = pending.route().name().toLowerCase();
+        if (usage.getCompletionTokens() != null) {
+            meterRegistry.summary(ROUTE_TOKENS_METRIC, "route", route, "model", pending.model(), "type", "completion")
+                    .record(usage.getCompletionTokens());
+        }
+        if (usage.getPromptTokens() != null) {
+            meterRegistry.summary(ROUTE_TOKENS_METRIC, "route", route, "model", pending.model(), "type", "prompt")
+                    .record(usage.getPromptTokens());
+            meterRegistry.summary(PROMPT_TOKENS_METRIC, "model", pending.model(), "count", "estimated")
+                    .record(pending.promptTokens());
+            meterRegistry.summary(PROMPT_TOKENS_METRIC, "model", pending.model(), "count", "actual")
+                    .record(usage.getPromptTokens());
+            leLogger.debug("Prompt tokens for model '{}': estimated {}, actual {}",
+                    pending.model(), pending.promptTokens(), usage.getPromptTokens());
+        }
+        if (usage.getPromptTokens() != null && usage.getCompletionTokens() != null) {
+            meterUsage(pending.username(), pending.path(), pending.model(), pending.route(),
+                    usage.getPromptTokens(), usage.getCompletionTokens());
+        }
+    }
+
+    /**
+     * Meter the usage of a call. A failing recorder must never fail the call.
+     */
+    private void meterUsage(String username, String path, String model, OpenAiRoute route, int promptTokens,
+                            int completionTokens) {
+        if (usageRecorder == null) {
+            return;
+        }
+
+        try {
+            usageRecorder.record(username, path, model, route, promptTokens, completionTokens);
+        } catch (RuntimeException e) {
+            leLogger.warn("Metering OpenAI usage failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Record the latency of a call once it completes, from the moment it was started, including the time spent
+     * waiting for the rate limiter and between retries. Calls given up on by their callers are not recorded.
+     *
+     * @param future The future of the call.
+     * @param route The route of the call.
+     * @param model The model the call is made to.
+     */
+    private void recordLatency(CompletableFuture<?> future, OpenAiRoute route, String model) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            sample.stop(meterRegistry.timer(ROUTE_LATENCY_METRIC, "route", route.name().toLowerCase(), "model", model,
+                    "outcome", throwable == null ? "success" : "failure"));
+        });
+    }
+
+    /**
+     * Parse the `Retry-After` header, which OpenAI sends as a number of seconds.
+     *
+     * @param retryAfter The header value, may be `null`.
+     * @return The requested delay, or `null` if there is none or it cannot be parsed.
+     */
+    private Duration parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return null;
+        }
+
+        try {
+            return Duration.ofMillis(Math.round(Double.parseDouble(retryAfter.trim()) * 1000));
+        } catch (NumberFormatException e) {
+            leLogger.debug("Unsupported Retry-After header: {}", retryAfter);
+            return null;
+        }
+    }
+
+    /**
+     * Ask a question using the default model and stream the generated response.
+     *
+     * @param messages A list of messages in the chat conversation.
+     * @param onChunk Receives every piece of the response as soon as it is generated.
+     * @return A future completed with the whole generated response once the stream ends.
+     */
+    public CompletableFuture<String> askStream(List<OpenAiMessage> messages, Consumer<String> onChunk) {
+        leLogger.info("Performing 'askStream' operation with default model and messages.");
+        return askStream(OpenAiDefaults.DEFAULT_MODEL.getValue(), messages, OpenAiOptions.DEFAULT, onChunk);
+    }
+
+    /**
+     * Ask a question using the model of the route given in the options and call options, and stream the generated response.
+     *
+     * @param messages A list of messages in the chat conversation.
+     * @param options The options for this call.
+     * @param onChunk Receives every piece of the response as soon as it is generated.
+     * @return A future completed with the whole generated response once the stream ends.
+     */
+    public CompletableFuture<String> askStream(List<OpenAiMessage> messages, OpenAiOptions options, Consumer<String> onChunk) {
+        leLogger.info("Performing 'askStream' operation with routed model, messages and options.");
+        return askStream(modelFor(options), messages, options, onChunk);
+    }
+
+    /**
+     * Ask for a JSON answer using the model of the route and call options, stream the generated text and bind the whole
+     * answer to the given type once the stream ends.
+     * The call is made in JSON mode on models that support it, the messages must still instruct the model which JSON
+     * object to produce.
+     *
+     * @param messages A list of messages in the chat conversation.
+     * @param options The options for this call.
+     * @param type The type the generated JSON object is bound to.
+     * @param onChunk Receives every piece of the generated text as soon as it is generated.
+     * @param <T> The type of the result.
+     * @return A future completed with the generated answer bound to the given type once the stream ends, or
+     * exceptionally with an OpenAiException if the call fails or the answer cannot be bound to the given type.
+     */
+    public <T> CompletableFuture<T> askStreamFor(List<OpenAiMessage> messages, OpenAiOptions options, Class<T> type,
+                                                 Consumer<String> onChunk) {
+        String path = findCurrentRequest();
+        return askStream(messages, jsonMode(options), onChunk).thenApply(content -> readContent(content, type, path));
+    }
+
+    /**
+     * Ask for a JSON answer using the model of the route and call options, and stream the generated text.
+     *
+     * @param messages A list of messages in the chat conversation.
+     * @param options The options for this call.
+     * @param onChunk Receives every piece of the generated text as soon as it is generated.
+     * @return A future completed with the generated JSON object as a tree once the stream ends, or exceptionally
+     * with an OpenAiException if the model did not answer with valid JSON.
+     */
+    public CompletableFuture<JsonNode> askStreamJson(List<OpenAiMessage> messages, OpenAiOptions options, Consumer<String> onChunk) {
+        return askStreamFor(messages, options, JsonNode.class, onChunk);
+    }
+
+    /**
+     * Ask a question using a specific model and stream the generated response.
+     *
+     * @param model The specific OpenAI model to use.
+     * @param messages A list of messages in the chat conversation.
+     * @param onChunk Receives every piece of the response as soon as it is generated.
+     * @return A future completed with the whole generated response once the stream ends.
+     */
+    public CompletableFuture<String> askStream(String model, List<OpenAiMessage> messages, Consumer<String> onChunk) {
+        return askStream(model, messages, OpenAiOptions.DEFAULT, onChunk);
+    }
+
+    /**
+     * Ask a question using a specific model and stream the generated response.
+     * <p>
+     * The request is sent with `stream: true`, OpenAI then answers with server-sent events, each carrying a small delta
+     * of the message. The events are parsed one line at a time as they arrive and each delta is handed to `onChunk`.
+     * If `onChunk` throws, for example because the client went away, the call is cancelled.
+     * Streamed responses carry no usage, the usage of a completed stream is metered from the local token estimate.
+     *
+     * @param model The specific OpenAI model to use.
+     * @param messages A list of messages in the chat conversation.
+     * @param options The options for this call. The response cache is not used for streamed calls.
+     * @param onChunk Receives every piece of the response as soon as it is generated.
+     * @return A future completed with the whole generated response once the stream ends, or exceptionally with an OpenAiException.
+     */
+    public CompletableFuture<String> askStream(String model, List<OpenAiMessage> messages, OpenAiOptions options,
+                                               Consumer<String> onChunk) {
+        leLogger.info("Performing 'askStream' operation for model '{}' with messages.", model);
+        String path = findCurrentRequest();
+        String requestBody = buildRequestBody(model, messages, options, true);
+        String username = findCurrentUsername();
+        int promptTokens = OpenAiTokenEstimator.countTokens(messages);
+        int estimatedTokens = OpenAiRateLimiter.estimateTokens(promptTokens, routingPolicy.maxTokensFor(options));
+        OpenAiRoute route = routeOf(options);
+
+        return inBulkhead(options, path, () -> {
+            CompletableFuture<String> future = startStream(clientFor(options), model, requestBody, estimatedTokens, path, onChunk);
+            recordLatency(future, route, model);
+            future.thenAccept(result -> meterUsage(username, path, model, route, promptTokens,
+                    OpenAiTokenEstimator.countTokens(result)));
+            return future;
+        });
+    }
+
+    /**
+     * Start a streamed call once the rate limiter allows it.
+     *
+     * @param http The HTTP client the request is sent with.
+     * @param model The model the request is made to.
+     * @param requestBody The serialized completion request.
+     * @param estimatedTokens The estimated number of tokens the call will use.
+     * @param path The path of the request that triggered the call, used in error details.
+     * @param onChunk Receives every piece of the response as soon as it is generated.
+     * @return A future completed with the whole generated response once the stream ends.
+     */
+    private CompletableFuture<String> startStream(OkHttpClient http, String model, String requestBody, int estimatedTokens,
+                                                  String path, Consumer<String> onChunk) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+
+        long wait = rateLimiter.reserve(model, estimatedTokens);
+        if (wait < 0) {
+            leLogger.warn("Client-side rate limit reached for model '{}', rejecting the call", model);
+            future.completeExceptionally(new OpenAiException(buildError(path, OpenAiError.RATE_LIMIT_REACHED.getCode(), null)));
+        } else if (wait > 0) {
+            CompletableFuture.delayedExecutor(wait, TimeUnit.MILLISECONDS)
+                    .execute(() -> stream(http, model, requestBody, estimatedTokens, path, onChunk, future));
+        } else {
+            stream(http, model, requestBody, estimatedTokens, path, onChunk, future);
+        }
+
+        return future;
+    }
+
+    /**
+     * Send a streamed request once the rate limiter allows it. Streamed calls are not retried,
+     * part of the response may already have been handed out.
+     *
+     * @param http The HTTP client the request is sent with.
+     * @param model The model the request is made to.
+     * @param requestBody The serialized completion request.
+     * @param estimatedTokens The number of tokens reserved for the call.
+     * @param path The path of the request that triggered the call, used in error details.
+     * @param onChunk Receives every piece of the response as soon as it is generated.
+     * @param future The future completed with the whole generated response.
+     */
+    private void stream(OkHttpClient http, String model, String requestBody, int estimatedTokens, String path,
+                        Consumer<String> onChunk, CompletableFuture<String> future) {
+        if (future.isDone() || !circuitBreaker.tryAcquire()) {
+            rateLimiter.release(model, estimatedTokens);
+            if (!future.isDone()) {
+                leLogger.warn("OpenAI circuit breaker is {}, failing fast", circuitBreaker.getState());
+                future.completeExceptionally(new OpenAiException(buildError(path, OpenAiError.SERVICE_UNAVAILABLE.getCode(), null)));
+            }
+            return;
+        }
+
+        Call call = http.newCall(buildRequest(requestBody));
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                if (call.isCanceled()) {
+                    circuitBreaker.onIgnored();
+                    rateLimiter.release(model, estimatedTokens);
+                    return;
+                }
+
+                leLogger.error("Request failed: {} {}", e, e.getMessage());
+                circuitBreaker.onFailure();
+                rateLimiter.release(model, estimatedTokens);
+                future.completeExceptionally(
+                        new OpenAiException(buildError(path, OpenAiError.SERVER_HAD_AN_ERROR.getCode(), e.getMessage())));
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (response) {
+                    String result = readStream(response, path, onChunk);
+                    circuitBreaker.onSuccess();
+                    future.complete(result);
+                } catch (OpenAiException e) {
+                    if (OpenAiError.isRetryable(response.code())) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                    // Error responses are not streamed, nothing was generated.
+                    rateLimiter.release(model, estimatedTokens);
+                    future.completeExceptionally(e);
+                } catch (IOException e) {
+                    leLogger.error("Request failed: {} {}", e, e.getMessage());
+                    circuitBreaker.onFailure();
+                    future.completeExceptionally(
+                            new OpenAiException(buildError(path, OpenAiError.SERVER_HAD_AN_ERROR.getCode(), e.getMessage())));
+                } catch (RuntimeException e) {
+                    circuitBreaker.onIgnored();
+                    call.cancel();
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+    }
+
+    /**
+     * Read a streamed response from OpenAI's chat completion API, one server-sent event at a time.
+     *
+     * @param response The HTTP response.
+     * @param path The path of the request that triggered the call, used in error details.
+     * @param onChunk Receives every piece of the response.
+     * @return The whole generated response.
+     * @throws IOException If the stream cannot be read.
+     * @throws OpenAiException If the response is not successful.
+     */
+    private String readStream(Response response, String path, Consumer<String> onChunk) throws IOException {
+        ResponseBody responseBody = response.body();
+
+        if (!response.isSuccessful() || responseBody == null) {
+            // Error responses are not streamed, reuse the regular error handling.
+            readResponse(response, path);
+            throw new OpenAiException(buildError(path, response.code(), "Request failed"));
+        }
+
+        StringBuilder result = new StringBuilder();
+        BufferedSource source = responseBody.source();
+        String line;
+
+        while ((line = source.readUtf8Line()) != null) {
+            // Every event is a single "data: {...}" line, blank lines separate the events.
+            if (!line.startsWith(SSE_DATA_PREFIX)) {
+                continue;
+            }
+
+            String data = line.substring(SSE_DATA_PREFIX.length()).trim();
+            if (SSE_DONE.equals(data)) {
+                break;
+            }
+
+            OpenAiCompletionResponse chunk = objectMapper.readValue(data, OpenAiCompletionResponse.class);
+            for (OpenAiCompletionResponse.Choice choice : chunk.getChoices()) {
+                if (choice.getDelta() != null && choice.getDelta().getContent() != null) {
+                    result.append(choice.getDelta().getContent());
+                    onChunk.accept(choice.getDelta().getContent());
+                }
+            }
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Build the HTTP request for OpenAI's chat completion API.
+     *
+     * @param requestBody The completion request serialized into JSON, see {@link #buildRequestBody}.
+     * @return The HTTP request with the necessary headers and request body.
+     */
+    private Request buildRequest(String requestBody) {
+        RequestBody body = RequestBody.create(requestBody, MediaType.get("application/json; charset=utf-8"));
 
         // Build the HTTP request with the necessary headers and request body.
-        Request request = new Request.Builder()
+        return new Request.Builder()
                 .url(openAiHost)
                 .header("Authorization", "Bearer " + openAiApi)
                 .post(body)
                 .build();
+    }
 
-        try (Response response = client.newCall(request).execute()) {
-            // Check if the response from OpenAI's API is successful.
-            if (!response.isSuccessful()) {
-                if (response.body() == null) {
-                    // If the response is not successful and there's no response body, log a warning and throw an OpenAiException.
-                    leLogger.warn("Request failed: {}, please try again", response.message());
-                    throw new OpenAiException(buildError(response.code(), "Request failed"));
-                } else {
-                    // If the response is not successful and there's a response body, log a warning, and throw an OpenAiException with error details.
-                    leLogger.warn("Request failed: {}, please try again", response.body().string());
-                    throw new OpenAiException(buildError(response.code(), response.body().string()));
-                }
+    /**
+     * Read an HTTP response from OpenAI's chat completion API.
+     *
+     * @param response The HTTP response.
+     * @param path The path of the request that triggered the call, used in error details.
+     * @return An OpenAiCompletionResponse object parsed from the response body.
+     * @throws IOException If the response body cannot be read.
+     * @throws OpenAiException If the response is not successful.
+     */
+    private OpenAiCompletionResponse readResponse(Response response, String path) throws IOException {
+        ResponseBody responseBody = response.body();
+
+        // Check if the response from OpenAI's API is successful.
+        if (!response.isSuccessful()) {
+            if (responseBody == null) {
+                // If the response is not successful and there's no response body, log a warning and throw an OpenAiException.
+                leLogger.warn("Request failed: {}, please try again", response.message());
+                throw new OpenAiException(buildError(path, response.code(), "Request failed"));
             } else {
-                // If the response is successful, read the response body and parse it into an OpenAiCompletionResponse object.
-                assert response.body() != null;
-                String bodyString = response.body().string();
-                return objectMapper.readValue(bodyString, OpenAiCompletionResponse.class);
+                // If the response is not successful and there's a response body, log a warning, and throw an OpenAiException with error details.
+                String error = responseBody.string();
+                leLogger.warn("Request failed: {}, please try again", error);
+                throw new OpenAiException(buildError(path, response.code(), error));
             }
-        } catch (IOException e) {
-            // If an IOException occurs during the request, log an error and throw an OpenAiException with error details.
-            leLogger.error("Request failed: {} {}",e , e.getMessage());
-            throw new OpenAiException(buildError(OpenAiError.SERVER_HAD_AN_ERROR.getCode(), e.getMessage()));
+        }
+
+        // If the response is successful, parse the response body into an OpenAiCompletionResponse object.
+        // The body is parsed straight from the socket stream, it is never held as a whole String.
+        assert responseBody != null;
+        try (InputStream body = responseBody.byteStream()) {
+            return objectMapper.readValue(body, OpenAiCompletionResponse.class);
         }
     }
 
-    private String buildRequestBody(String model, List<OpenAiMessage> messages) {
+    /**
+     * Concatenate the content of every choice in a completion response.
+     *
+     * @param response The completion response.
+     * @return The generated response as a string, empty if no choice has content.
+     */
+    private String joinChoices(OpenAiCompletionResponse response) {
+        List<OpenAiCompletionResponse.Choice> choices = response.getChoices();
+        if (choices.size() == 1) {
+            // The usual case, the content is returned as parsed without copying it.
+            return contentOf(choices.get(0));
+        }
+
+        StringBuilder result = new StringBuilder();
+
+        for (OpenAiCompletionResponse.Choice choice : choices) {
+            result.append(contentOf(choice));
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Read the content of a choice. OpenAI sends `null` content, e.g. for a completion stopped by its content filter,
+     * which is read as an empty answer so callers never have to deal with `null`.
+     */
+    private static String contentOf(OpenAiCompletionResponse.Choice choice) {
+        if (choice.getMessage() == null || choice.getMessage().getContent() == null) {
+            return "";
+        }
+        return choice.getMessage().getContent();
+    }
+
+    /**
+     * Copy the options of a call, asking OpenAI to answer with a JSON object.
+     */
+    private OpenAiOptions jsonMode(OpenAiOptions options) {
+        return (options != null ? options.toBuilder() : OpenAiOptions.builder()).json(true).build();
+    }
+
+    /**
+     * Bind the content of a completion, a JSON object, to the given type.
+     *
+     * @param content The generated content.
+     * @param type The type the content is bound to.
+     * @param path The path of the request that triggered the call, used in error details.
+     * @return The content bound to the given type.
+     * @throws OpenAiException If the content is not valid JSON or does not match the given type.
+     */
+    private <T> T readContent(String content, Class<T> type, String path) {
+        try {
+            return objectMapper.readValue(content, type);
+        } catch (JsonProcessingException e) {
+            leLogger.warn("OpenAI answer cannot be bound to {}: {}", type.getSimpleName(), e.getOriginalMessage());
+            throw new OpenAiException(buildError(path, HttpStatus.BAD_GATEWAY.value(),
+                    "OpenAI did not answer in the expected format, please try again"));
+        }
+    }
+
+    /**
+     * Compute the cache key of a call: the hash of the request body OpenAI would receive.
+     *
+     * @return The cache key, or `null` if the call must not be cached.
+     */
+    private String cacheKey(String model, List<OpenAiMessage> messages, OpenAiOptions options) {
+        if (responseCache == null || options == null || !options.isCacheable()) {
+            return null;
+        }
+        return sha256(buildRequestBody(model, messages, options, false));
+    }
+
+    /**
+     * Look up a cached response. A failing cache is treated as a miss, it must never fail the call.
+     */
+    private String getCached(String key) {
+        if (key == null) {
+            return null;
+        }
+
+        try {
+            String cached = responseCache.get(key);
+            if (cached != null) {
+                leLogger.debug("Serving OpenAI response from the cache");
+            }
+            return cached;
+        } catch (RuntimeException e) {
+            leLogger.warn("OpenAI response cache lookup failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store a generated response, if the call is cacheable. Failing to store only costs a future cache miss.
+     *
+     * @return The response, unchanged.
+     */
+    private String putCached(String key, String response) {
+        if (key != null && response != null && !response.isBlank()) {
+            try {
+                responseCache.put(key, response);
+            } catch (RuntimeException e) {
+                leLogger.warn("Storing OpenAI response in the cache failed: {}", e.getMessage());
+            }
+        }
+        return response;
+    }
+
+    private String buildRequestBody(String model, List<OpenAiMessage> messages, OpenAiOptions options, boolean stream) {
         try {
             OpenAiCompletionRequest requestBody = OpenAiCompletionRequest.builder()
                     .model(model)
                     .messages(messages)
                     .temperature(0.2f)
                     .presencePenalty(0.2f)
+                    .stream(stream ? Boolean.TRUE : null)
+                    .maxTokens(routingPolicy.maxTokensFor(options))
+                    .responseFormat(options != null && options.isJson() && OpenAiModel.supportsJsonMode(model)
+                            ? OpenAiCompletionRequest.ResponseFormat.JSON_OBJECT : null)
                     .build();
             return objectMapper.writeValueAsString(requestBody);
 
         } catch (JsonProcessingException e) {
             throw new InvalidWritingException(ApiError.builder()
-                    .path(getCurrentRequest())
+                    .path(findCurrentRequest())
                     .error("Failed to serialize the request body to JSON: " + e.getMessage())
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .timestamp(LocalDateTime.now())
@@ -165,13 +1161,13 @@ public class OpenAi {
         }
     }
 
-    private ApiError buildError(Integer statusCode, String message){
+    private ApiError buildError(String path, Integer statusCode, String message){
         OpenAiError openAiError = getOpenAiErrorByStatusCode(statusCode);
         String error = openAiError != null ? openAiError.getMsg() : message;
         leLogger.warn("Building error response: {}", error);
 
         return ApiError.builder()
-                .path(getCurrentRequest())
+                .path(path)
                 .error(error)
                 .status(HttpStatus.valueOf(statusCode))
                 .timestamp(LocalDateTime.now())
@@ -186,4 +1182,12 @@ public class OpenAi {
         }
         return null;
     }
+
+    /**
+     * A call to the chat completion API and the state shared by all of its attempts.
+     */
+    private record PendingCall(OkHttpClient http, String model, OpenAiRoute route, String requestBody, int promptTokens,
+                               int estimatedTokens, String username, String path,
+                               CompletableFuture<OpenAiCompletionResponse> future) {
+    }
 }
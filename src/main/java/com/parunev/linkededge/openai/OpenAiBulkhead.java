@@ -0,0 +1,193 @@
+package com.parunev.linkededge.openai;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * @Description: Bulkhead limiting the number of concurrent OpenAI calls of one use case.
+ * <p>
+ * At most `maxConcurrent` calls run at the same time. Further calls wait in a queue of at most `maxQueue` calls,
+ * for at most `maxWait`; a call that finds the queue full, or waits too long, is rejected. A running call that takes
+ * longer than `timeout` is cancelled. Waiting calls do not hold a thread, they are started by the call that frees
+ * their slot.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public class OpenAiBulkhead {
+
+    /**
+     * The limits of a bulkhead.
+     *
+     * @param maxConcurrent The maximum number of calls running at the same time.
+     * @param maxQueue The maximum number of calls waiting for a slot.
+     * @param maxWait The longest a call may wait for a slot.
+     * @param timeout The longest a call may run.
+     */
+    public record Limits(int maxConcurrent, int maxQueue, Duration maxWait, Duration timeout) {
+    }
+
+    /**
+     * The reasons a call fails in the bulkhead instead of in OpenAI.
+     */
+    public enum Rejection {
+        QUEUE_FULL, QUEUE_TIMEOUT, CALL_TIMEOUT
+    }
+
+    private final Limits limits;
+    private final Deque<Waiter<?>> queue = new ArrayDeque<>();
+    private final AtomicLong rejected = new AtomicLong();
+    private int active;
+
+    /**
+     * Constructor for the OpenAiBulkhead class.
+     *
+     * @param limits The limits of the bulkhead.
+     */
+    public OpenAiBulkhead(Limits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * Run a call in the bulkhead.
+     *
+     * @param call Starts the call.
+     * @param errors Creates the exception a call fails with when it is rejected or times out.
+     * @param <T> The type of the call result.
+     * @return A future completed with the result of the call. Cancelling it cancels the call, or removes it from the queue.
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call, Function<Rejection, RuntimeException> errors) {
+        Waiter<T> waiter = new Waiter<>(call, errors);
+
+        synchronized (this) {
+            if (active < limits.maxConcurrent()) {
+                active++;
+            } else if (queue.size() < limits.maxQueue()) {
+                queue.addLast(waiter);
+                CompletableFuture.delayedExecutor(limits.maxWait().toMillis(), TimeUnit.MILLISECONDS)
+                        .execute(() -> expire(waiter));
+                waiter.result.whenComplete((result, throwable) -> {
+                    if (waiter.result.isCancelled()) {
+                        remove(waiter);
+                    }
+                });
+                return waiter.result;
+            } else {
+                rejected.incrementAndGet();
+                return CompletableFuture.failedFuture(errors.apply(Rejection.QUEUE_FULL));
+            }
+        }
+
+        start(waiter);
+        return waiter.result;
+    }
+
+    /**
+     * @return The number of calls running.
+     */
+    public synchronized int getActive() {
+        return active;
+    }
+
+    /**
+     * @return The number of calls waiting for a slot.
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return The number of calls rejected or timed out so far.
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    private <T> void start(Waiter<T> waiter) {
+        CompletableFuture<T> upstream;
+        try {
+            upstream = waiter.call.get();
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<T> call = upstream;
+        call.whenComplete((result, throwable) -> {
+            release();
+            if (throwable != null) {
+                waiter.result.completeExceptionally(throwable);
+            } else {
+                waiter.result.complete(result);
+            }
+        });
+
+        // Cancelling the result, or running out of time, cancels the call.
+        waiter.result.whenComplete((result, throwable) -> {
+            if (!call.isDone()) {
+                call.cancel(true);
+            }
+        });
+        CompletableFuture.delayedExecutor(limits.timeout().toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (!waiter.result.isDone()) {
+                reject(waiter, Rejection.CALL_TIMEOUT);
+            }
+        });
+    }
+
+    /**
+     * Hand the slot of a finished call to the next waiting call, or free it.
+     */
+    private void release() {
+        Waiter<?> next;
+        synchronized (this) {
+            next = queue.pollFirst();
+            if (next == null) {
+                active--;
+                return;
+            }
+        }
+        start(next);
+    }
+
+    private void expire(Waiter<?> waiter) {
+        if (remove(waiter)) {
+            reject(waiter, Rejection.QUEUE_TIMEOUT);
+        }
+    }
+
+    /**
+     * Fail a call with the error of the rejection. The rejection is counted before the caller is woken up, so the
+     * count already includes it once the caller sees the error.
+     */
+    private void reject(Waiter<?> waiter, Rejection rejection) {
+        rejected.incrementAndGet();
+        if (!waiter.result.completeExceptionally(waiter.errors.apply(rejection))) {
+            // The call completed or was cancelled in the meantime.
+            rejected.decrementAndGet();
+        }
+    }
+
+    private synchronized boolean remove(Waiter<?> waiter) {
+        return queue.remove(waiter);
+    }
+
+    /**
+     * A call and the future its caller holds.
+     */
+    private static final class Waiter<T> {
+        private final Supplier<CompletableFuture<T>> call;
+        private final Function<Rejection, RuntimeException> errors;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Waiter(Supplier<CompletableFuture<T>> call, Function<Rejection, RuntimeException> errors) {
+            this.call = call;
+            this.errors = errors;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.parunev.linkededge.openai;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * @Description: Circuit breaker for OpenAI calls.
+ * <p>
+ * The outcome of the last `windowSize` calls is recorded. Once at least `minimumCalls` calls have been recorded and
+ * the share of failed ones reaches `failureRateThreshold` percent, the breaker opens and calls fail immediately
+ * instead of waiting for a degraded upstream. After `openDuration` a single trial call is let through: if it succeeds
+ * the breaker closes again, otherwise it stays open for another `openDuration`.
+ * <p>
+ * Only failures that say something about the health of OpenAI count as failures, client errors such as an invalid
+ * API key count as successful calls.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public class OpenAiCircuitBreaker {
+
+    /**
+     * The states of the breaker. The ordinal is published as the `openai.circuit.state` metric.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] window; // Ring buffer of recent outcomes, `true` for a failure
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationMillis;
+
+    @Getter
+    private volatile State state = State.CLOSED;
+    private int position;
+    private int calls;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    /**
+     * Constructor for the OpenAiCircuitBreaker class.
+     *
+     * @param windowSize The number of recent calls the failure rate is computed over.
+     * @param minimumCalls The number of calls that must be recorded before the breaker can open.
+     * @param failureRateThreshold The failure rate, in percent, at which the breaker opens.
+     * @param openDuration How long the breaker stays open before a trial call is let through.
+     */
+    public OpenAiCircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, Duration openDuration) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMillis = openDuration.toMillis();
+    }
+
+    /**
+     * Creates a breaker with the default settings: a window of 20 calls, at least 10 calls, a 50% threshold
+     * and 30 seconds open.
+     *
+     * @return A new circuit breaker.
+     */
+    public static OpenAiCircuitBreaker withDefaults() {
+        return new OpenAiCircuitBreaker(20, 10, 50, Duration.ofSeconds(30));
+    }
+
+    /**
+     * Ask for permission to make a call. Every granted call must be followed by exactly one of
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     *
+     * @return `true` if the call may be made, `false` if it must fail immediately.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+
+        return true;
+    }
+
+    /**
+     * Record a successful call.
+     */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else {
+            record(false);
+        }
+    }
+
+    /**
+     * Record a failed call.
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+
+        record(true);
+        if (state == State.CLOSED && calls >= minimumCalls && failures * 100 >= failureRateThreshold * calls) {
+            open();
+        }
+    }
+
+    /**
+     * Record a call whose outcome says nothing about OpenAI, for example because it was cancelled.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    private void record(boolean failure) {
+        if (calls == window.length) {
+            // The window is full, forget the oldest outcome.
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        trialInFlight = false;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        position = 0;
+        calls = 0;
+        failures = 0;
+        trialInFlight = false;
+    }
+}
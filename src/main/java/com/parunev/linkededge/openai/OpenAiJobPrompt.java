@@ -13,8 +13,11 @@ import com.parunev.linkededge.util.LELogger;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import static com.parunev.linkededge.openai.OpenAiPromptBuilder.Priority.*;
+
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class OpenAiJobPrompt {
 
@@ -23,6 +26,23 @@ public class OpenAiJobPrompt {
     private static final String ROLE_USER = "user";
     private static final LELogger leLogger = new LELogger(OpenAiPrompts.class);
 
+    // Templates of the user message about a job-seeker's profile
+    private static final OpenAiPromptTemplate COMPANY = OpenAiPromptTemplate.compile("""
+            I'm seeking an interview preparation and coaching for a job at {companyName}.
+            The company employs {companyStaff} staff and specializes in:
+            """);
+    private static final OpenAiPromptTemplate JOB_DESCRIPTION = OpenAiPromptTemplate.compile("Job Description: {description}\n\n");
+    private static final OpenAiPromptTemplate JOB_FUNCTIONS = OpenAiPromptTemplate.compile(
+            "The job description for the position of {jobTitle} as {employmentStatus} includes the following functions:\n");
+    private static final OpenAiPromptTemplate EDUCATION = OpenAiPromptTemplate.compile(
+            "Degree: {degree}, Field of Study: {fieldOfStudy}, Institution name: {institution}\n");
+    private static final OpenAiPromptTemplate EXPERIENCE = OpenAiPromptTemplate.compile(
+            "Date Started: {dateStarted}, Date Ended: {dateEnded}, Job Title: {title}, Description: {description}\n");
+    private static final OpenAiPromptTemplate ITEM = OpenAiPromptTemplate.compile(" -{item}.\n");
+    private static final OpenAiPromptTemplate ORGANISATION = OpenAiPromptTemplate.compile(" - {organisation}.\n");
+    private static final OpenAiPromptTemplate SKILL = OpenAiPromptTemplate.compile("- {skill}.\n");
+    private static final OpenAiPromptTemplate LINE = OpenAiPromptTemplate.compile("{line}\n");
+
     // Generates a system message that sets the context for interview preparation.
     public final static OpenAiMessage SYSTEM_PREPARE_AND_COACH_FOR_INTERVIEW = OpenAiMessage.builder()
             .role(ROLE_SYSTEM)
@@ -77,63 +97,72 @@ public class OpenAiJobPrompt {
                     """)
             .build();
 
-    // Generates a user message with dynamic content about a job-seeker's profile.
+    /**
+     * Generates a user message with dynamic content about a job-seeker's profile.
+     * <p>
+     * Job descriptions, company descriptions and profiles have no size limit, so the message is built with an
+     * {@link OpenAiPromptBuilder} and trimmed to the token budget: company resolutions and organisations go first,
+     * then education, functions, specialties and industries, then the job description, the person's description,
+     * experience and skills. The sentences framing each part are always kept.
+     */
     public static OpenAiMessage userPrepareAndCoachForInterview(String companyName, Integer companyStaff,
                                                                 List<CompanySpecialty> companySpecialties, List<CompanyResolution> companyResolutions,
                                                                 String jobDescription, String employmentStatus,
                                                                 String jobTitle, List<JobFunction> jobFunctions,
                                                                 List<JobIndustry> jobIndustries, String personDescription,
                                                                 List<Organisation> personRelatedOrganisation, List<Education> personEducation,
-                                                                List<Experience> personExperience, List<Skill> personSkills){
+                                                                List<Experience> personExperience, List<Skill> personSkills,
+                                                                int tokenBudget){
 
-        StringBuilder promptBuilder = new StringBuilder();
-        promptBuilder.append("I'm seeking an interview preparation and coaching for a job at %s.%n".formatted(companyName));
-        promptBuilder.append("The company employs %d staff and specializes in:%n".formatted(companyStaff));
+        OpenAiPromptBuilder promptBuilder = new OpenAiPromptBuilder();
+        promptBuilder.text(REQUIRED, COMPANY.render(companyName, companyStaff));
 
         if (companySpecialties==null){
-            promptBuilder.append("I'm not sure at what they specialize. Sorry about that!\n");
+            promptBuilder.text(REQUIRED, "I'm not sure at what they specialize. Sorry about that!\n");
         } else {
-            for (CompanySpecialty specialty : companySpecialties){
-                promptBuilder.append(" -%s.%n".formatted(specialty.getSpecialtyName()));
-            }
+            promptBuilder.list(MEDIUM, companySpecialties.stream()
+                    .map(specialty -> ITEM.render(specialty.getSpecialtyName()))
+                    .toList());
         }
 
-        promptBuilder.append("The company has set the following resolutions in the");
+        StringBuilder industries = new StringBuilder("The company has set the following resolutions in the");
         if (jobIndustries==null){
-            promptBuilder.append("I'm not sure what industries the specialize in. Also sorry about that!\n");
+            industries.append("I'm not sure what industries the specialize in. Also sorry about that!\n");
         } else {
             for (JobIndustry industry : jobIndustries){
-                promptBuilder.append(" %s".formatted(industry.getJobIndustryName()));
+                industries.append(' ').append(industry.getJobIndustryName());
             }
         }
+        industries.append("industries:\n");
+        promptBuilder.text(REQUIRED, industries.toString());
 
-        promptBuilder.append("industries:\n");
         if (companyResolutions==null){
-            promptBuilder.append("I'm not quite sure what resolutions they provide. Again sorry!\n");
+            promptBuilder.text(REQUIRED, "I'm not quite sure what resolutions they provide. Again sorry!\n");
         } else {
-            for (CompanyResolution resolution : companyResolutions){
-                promptBuilder.append(" -%s.%n".formatted(resolution.getCompanyDescription()));
-            }
+            promptBuilder.list(LOW, companyResolutions.stream()
+                    .map(resolution -> ITEM.render(resolution.getCompanyDescription()))
+                    .toList());
         }
 
-        promptBuilder.append("The job description is the following:\n");
-        promptBuilder.append("Job Description: %s%n%n".formatted(jobDescription));
+        promptBuilder.text(REQUIRED, "The job description is the following:\n");
+        promptBuilder.text(HIGH, JOB_DESCRIPTION.render(jobDescription));
 
-        promptBuilder.append("The job description for the position of %s as %s includes the following functions:%n".formatted(jobTitle, employmentStatus));
+        promptBuilder.text(REQUIRED, JOB_FUNCTIONS.render(jobTitle, employmentStatus));
         if (jobFunctions==null){
-            promptBuilder.append("There were not functions presented in the job description, so I will skip this part.\n");
+            promptBuilder.text(REQUIRED, "There were not functions presented in the job description, so I will skip this part.\n");
         } else {
-            for (JobFunction function : jobFunctions){
-                promptBuilder.append(" -%s.%n".formatted(function.getJobFunctionName()));
-            }
+            promptBuilder.list(MEDIUM, jobFunctions.stream()
+                    .map(function -> ITEM.render(function.getJobFunctionName()))
+                    .toList());
         }
 
-        promptBuilder.append("Here is a brief description about me:\n");
-        promptBuilder.append("%s%n".formatted(personDescription));
-        promptBuilder.append("My educational background includes:\n");
+        promptBuilder.text(REQUIRED, "Here is a brief description about me:\n");
+        promptBuilder.text(HIGH, LINE.render(personDescription));
+        promptBuilder.text(REQUIRED, "My educational background includes:\n");
         if (personEducation==null){
-            promptBuilder.append("Currently I got no education background.\n");
+            promptBuilder.text(REQUIRED, "Currently I got no education background.\n");
         } else {
+            List<String> educationLines = new ArrayList<>();
             for (Education education : personEducation){
                 String degree;
                 String fieldOfStudy;
@@ -157,24 +186,25 @@ public class OpenAiJobPrompt {
                     institution = education.getInstitutionName();
                 }
 
-                promptBuilder.append("Degree: %s, Field of Study: %s, Institution name: %s%n"
-                        .formatted(degree, fieldOfStudy, institution));
+                educationLines.add(EDUCATION.render(degree, fieldOfStudy, institution));
             }
+            promptBuilder.list(MEDIUM, educationLines);
         }
 
-        promptBuilder.append("I've worked with the following organizations:\n");
+        promptBuilder.text(REQUIRED, "I've worked with the following organizations:\n");
         if (personRelatedOrganisation==null){
-            promptBuilder.append("I've not worked for any organization, mainly on my own\n");
+            promptBuilder.text(REQUIRED, "I've not worked for any organization, mainly on my own\n");
         } else {
-            for (Organisation organisation : personRelatedOrganisation){
-                promptBuilder.append(" - %s.%n".formatted(organisation.getName()));
-            }
+            promptBuilder.list(LOW, personRelatedOrganisation.stream()
+                    .map(organisation -> ORGANISATION.render(organisation.getName()))
+                    .toList());
         }
 
-        promptBuilder.append("My past experience include:\n");
+        promptBuilder.text(REQUIRED, "My past experience include:\n");
         if (personExperience==null){
-            promptBuilder.append("I currently got no experiences in any fields. I need to work on that!");
+            promptBuilder.text(REQUIRED, "I currently got no experiences in any fields. I need to work on that!");
         } else {
+            List<String> experienceLines = new ArrayList<>();
             for (Experience experience : personExperience){
                 String description;
                 if (experience.getDescription() == null){
@@ -183,27 +213,29 @@ public class OpenAiJobPrompt {
                     description = experience.getDescription();
                 }
 
-                promptBuilder.append("Date Started: %s, Date Ended: %s, Job Title: %s, Description: %s%n"
-                        .formatted(experience.getDateStarted(), experience.getDateEnded(), experience.getTitle(), description));
+                experienceLines.add(EXPERIENCE.render(experience.getDateStarted(), experience.getDateEnded(),
+                        experience.getTitle(), description));
             }
+            promptBuilder.list(HIGH, experienceLines);
         }
 
-        promptBuilder.append("My skills include:\n");
+        promptBuilder.text(REQUIRED, "My skills include:\n");
         if (personSkills==null){
-            promptBuilder.append("I don't know any skills of mine, so I didn't pass any here either. Sorry for that!");
+            promptBuilder.text(REQUIRED, "I don't know any skills of mine, so I didn't pass any here either. Sorry for that!");
         } else {
-            for (Skill skill : personSkills){
-                promptBuilder.append("- %s.%n".formatted(skill.getName()));
-            }
+            promptBuilder.list(HIGH, personSkills.stream()
+                    .map(skill -> SKILL.render(skill.getName()))
+                    .toList());
         }
 
-        promptBuilder.append("Please provide highly personalized and tailored interview preparation guidance based on the provided job description.\n");
-        promptBuilder.append("Additionally, I'd like to know why I may be a good fit for the position (in the 'doYouFit' field) and why I might not be a good fit (in the 'doYouNotFit' field).");
+        promptBuilder.text(REQUIRED, "Please provide highly personalized and tailored interview preparation guidance based on the provided job description.\n");
+        promptBuilder.text(REQUIRED, "Additionally, I'd like to know why I may be a good fit for the position (in the 'doYouFit' field) and why I might not be a good fit (in the 'doYouNotFit' field).");
 
-        leLogger.info("Prompt: {}", promptBuilder.toString());
+        String prompt = promptBuilder.build(tokenBudget);
+        leLogger.info("Prompt: {}", prompt);
         return OpenAiMessage.builder()
                 .role(ROLE_USER)
-                .content(promptBuilder.toString())
+                .content(prompt)
                 .build();
     }
 }
@@ -0,0 +1,226 @@
+package com.parunev.linkededge.openai;
+
+import com.parunev.linkededge.util.LELogger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Description: Builds a prompt from sections of different priority and fits it into a token budget.
+ * <p>
+ * Sections are rendered in the order they were added. When the prompt is over the budget, sections are trimmed from
+ * the lowest priority up, and within a priority from the last section up, until the prompt fits:
+ * text sections are cut at a word boundary and marked as truncated, list sections lose their last items, which are
+ * replaced by a note with the number of items left out. {@link Priority#REQUIRED} sections are never trimmed.
+ * Tokens are counted with the {@link OpenAiTokenEstimator}.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public class OpenAiPromptBuilder {
+
+    /**
+     * The priority of a section, lower priorities are trimmed first.
+     */
+    public enum Priority {
+        REQUIRED, HIGH, MEDIUM, LOW
+    }
+
+    private static final String TRUNCATED = " [...]";
+    private static final OpenAiPromptTemplate MORE_ITEMS = OpenAiPromptTemplate.compile(" - and {count} more.\n");
+    private static final int MIN_TEXT_TOKENS = 16; // Text cut shorter than this is dropped, it would carry no meaning
+
+    private final List<Section> sections = new ArrayList<>();
+    private final LELogger leLogger = new LELogger(OpenAiPromptBuilder.class);
+
+    /**
+     * Add a text section.
+     *
+     * @param priority The priority of the section.
+     * @param text The text, including its line breaks.
+     * @return This builder.
+     */
+    public OpenAiPromptBuilder text(Priority priority, String text) {
+        sections.add(new TextSection(priority, text));
+        return this;
+    }
+
+    /**
+     * Add a list section, rendered one item after another.
+     *
+     * @param priority The priority of the section.
+     * @param items The items, each including its line break.
+     * @return This builder.
+     */
+    public OpenAiPromptBuilder list(Priority priority, List<String> items) {
+        sections.add(new ListSection(priority, items));
+        return this;
+    }
+
+    /**
+     * Render the prompt, trimming sections until it fits the budget.
+     * If the required sections alone exceed the budget, the prompt is returned over the budget.
+     *
+     * @param budget The maximum number of tokens of the prompt.
+     * @return The prompt.
+     */
+    public String build(int budget) {
+        int initial = tokens();
+        int total = initial;
+
+        Priority[] priorities = Priority.values();
+        for (int p = priorities.length - 1; p > 0 && total > budget; p--) {
+            for (int s = sections.size() - 1; s >= 0 && total > budget; s--) {
+                Section section = sections.get(s);
+                if (section.priority == priorities[p]) {
+                    section.shrink(total - budget);
+                    total = tokens();
+                }
+            }
+        }
+
+        if (total > budget) {
+            leLogger.warn("Prompt of {} tokens is over the budget of {} tokens, even after trimming", total, budget);
+        } else if (total < initial) {
+            leLogger.info("Prompt trimmed from {} to {} tokens to fit the budget of {} tokens", initial, total, budget);
+        }
+
+        int length = 0;
+        for (Section section : sections) {
+            length += section.length();
+        }
+
+        StringBuilder prompt = new StringBuilder(length);
+        sections.forEach(section -> section.render(prompt));
+        return prompt.toString();
+    }
+
+    private int tokens() {
+        int tokens = 0;
+        for (Section section : sections) {
+            tokens += section.tokens;
+        }
+        return tokens;
+    }
+
+    /**
+     * A part of the prompt and its estimated number of tokens.
+     */
+    private abstract static class Section {
+        private final Priority priority;
+        protected int tokens;
+
+        private Section(Priority priority) {
+            this.priority = priority;
+        }
+
+        /**
+         * Trim the section, trying to free the given number of tokens.
+         */
+        protected abstract void shrink(int excess);
+
+        protected abstract void render(StringBuilder prompt);
+
+        /**
+         * @return The length of the rendered section, used to pre-size the prompt.
+         */
+        protected abstract int length();
+    }
+
+    private static final class TextSection extends Section {
+        private String text;
+
+        private TextSection(Priority priority, String text) {
+            super(priority);
+            this.text = text != null ? text : "";
+            this.tokens = OpenAiTokenEstimator.countTokens(this.text);
+        }
+
+        @Override
+        protected void shrink(int excess) {
+            int target = tokens - excess;
+            if (target < MIN_TEXT_TOKENS) {
+                text = "";
+                tokens = 0;
+                return;
+            }
+
+            String lineBreak = text.endsWith("\n") ? "\n" : "";
+            String cut = text.strip();
+            int cutTokens = tokens;
+            while (cutTokens > target && !cut.isEmpty()) {
+                // Tokens are not spread evenly over the text, cut proportionally until the estimate fits.
+                int end = (int) ((long) cut.length() * target / (cutTokens + 1));
+                int space = cut.lastIndexOf(' ', end);
+                cut = cut.substring(0, space > 0 ? space : end).strip();
+                cutTokens = OpenAiTokenEstimator.countTokens(cut + TRUNCATED + lineBreak);
+            }
+
+            text = cut.isEmpty() ? "" : cut + TRUNCATED + lineBreak;
+            tokens = OpenAiTokenEstimator.countTokens(text);
+        }
+
+        @Override
+        protected void render(StringBuilder prompt) {
+            prompt.append(text);
+        }
+
+        @Override
+        protected int length() {
+            return text.length();
+        }
+    }
+
+    private static final class ListSection extends Section {
+        private final List<String> items;
+        private final int[] itemTokens;
+        private int kept;
+
+        private ListSection(Priority priority, List<String> items) {
+            super(priority);
+            this.items = items != null ? List.copyOf(items) : List.of();
+            this.itemTokens = new int[this.items.size()];
+            for (int i = 0; i < itemTokens.length; i++) {
+                itemTokens[i] = OpenAiTokenEstimator.countTokens(this.items.get(i));
+                tokens += itemTokens[i];
+            }
+            this.kept = this.items.size();
+        }
+
+        @Override
+        protected void shrink(int excess) {
+            int target = tokens - excess;
+            int moreTokens = OpenAiTokenEstimator.countTokens(MORE_ITEMS.render(items.size()));
+
+            int kept = this.kept;
+            int keptTokens = tokens - (this.kept < items.size() ? moreTokens : 0);
+            while (kept > 0 && keptTokens + moreTokens > target) {
+                keptTokens -= itemTokens[--kept];
+            }
+
+            if (kept < this.kept) {
+                this.kept = kept;
+                this.tokens = keptTokens + moreTokens;
+            }
+        }
+
+        @Override
+        protected void render(StringBuilder prompt) {
+            for (int i = 0; i < kept; i++) {
+                prompt.append(items.get(i));
+            }
+            if (kept < items.size()) {
+                MORE_ITEMS.appendTo(prompt, items.size() - kept);
+            }
+        }
+
+        @Override
+        protected int length() {
+            int length = MORE_ITEMS.capacity();
+            for (int i = 0; i < kept; i++) {
+                length += items.get(i).length();
+            }
+            return length;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.parunev.linkededge.openai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Description: A prompt template compiled once into a pipeline of appenders.
+ * <p>
+ * Placeholders are written as `{name}`, the name only documents the value: values are bound in the order the
+ * placeholders appear in the template. Braces that do not enclose a name, such as those of a JSON example, are kept
+ * as they are. Compiling splits the template into literal and value appenders, so rendering appends straight into
+ * the target builder without parsing the template again or creating intermediate strings, unlike
+ * {@link String#formatted(Object...)}. Templates are immutable and meant to be kept in constants.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public final class OpenAiPromptTemplate {
+
+    private static final int EXPECTED_VALUE_LENGTH = 16; // Used to pre-size builders for the values of a template
+
+    private final Appender[] pipeline;
+    private final int placeholders;
+    private final int literalLength;
+
+    private OpenAiPromptTemplate(Appender[] pipeline, int placeholders, int literalLength) {
+        this.pipeline = pipeline;
+        this.placeholders = placeholders;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Compile a template.
+     *
+     * @param template The template, with placeholders written as `{name}`.
+     * @return The compiled template.
+     */
+    public static OpenAiPromptTemplate compile(String template) {
+        List<Appender> pipeline = new ArrayList<>();
+        int placeholders = 0;
+        int literalLength = 0;
+        int literalStart = 0;
+
+        int i = 0;
+        while (i < template.length()) {
+            int end = placeholderEnd(template, i);
+            if (end < 0) {
+                i++;
+                continue;
+            }
+
+            if (i > literalStart) {
+                String literal = template.substring(literalStart, i);
+                pipeline.add((target, values) -> target.append(literal));
+                literalLength += literal.length();
+            }
+            int index = placeholders++;
+            pipeline.add((target, values) -> appendValue(target, values[index]));
+            i = end + 1;
+            literalStart = i;
+        }
+
+        if (literalStart < template.length()) {
+            String literal = template.substring(literalStart);
+            pipeline.add((target, values) -> target.append(literal));
+            literalLength += literal.length();
+        }
+
+        return new OpenAiPromptTemplate(pipeline.toArray(Appender[]::new), placeholders, literalLength);
+    }
+
+    /**
+     * Render the template into a new string.
+     *
+     * @param values The values of the placeholders, in the order they appear in the template.
+     * @return The rendered template.
+     * @throws IllegalArgumentException If the number of values does not match the number of placeholders.
+     */
+    public String render(Object... values) {
+        return appendTo(new StringBuilder(capacity()), values).toString();
+    }
+
+    /**
+     * Render the template at the end of a builder.
+     *
+     * @param target The builder the template is rendered into.
+     * @param values The values of the placeholders, in the order they appear in the template.
+     * @return The target builder.
+     * @throws IllegalArgumentException If the number of values does not match the number of placeholders.
+     */
+    public StringBuilder appendTo(StringBuilder target, Object... values) {
+        if (values.length != placeholders) {
+            throw new IllegalArgumentException("Template expects " + placeholders + " values, got " + values.length);
+        }
+        for (Appender appender : pipeline) {
+            appender.append(target, values);
+        }
+        return target;
+    }
+
+    /**
+     * @return The expected length of the rendered template, used to pre-size builders.
+     */
+    public int capacity() {
+        return literalLength + placeholders * EXPECTED_VALUE_LENGTH;
+    }
+
+    /**
+     * Append a value without creating a string for numbers.
+     */
+    private static void appendValue(StringBuilder target, Object value) {
+        if (value instanceof Integer number) {
+            target.append(number.intValue());
+        } else if (value instanceof Long number) {
+            target.append(number.longValue());
+        } else if (value instanceof CharSequence text) {
+            target.append(text);
+        } else {
+            target.append(value);
+        }
+    }
+
+    /**
+     * @return The index of the closing brace if a placeholder starts at the given index, -1 otherwise.
+     */
+    private static int placeholderEnd(String template, int start) {
+        if (template.charAt(start) != '{') {
+            return -1;
+        }
+
+        int i = start + 1;
+        while (i < template.length() && Character.isJavaIdentifierPart(template.charAt(i))) {
+            i++;
+        }
+        return i > start + 1 && i < template.length() && template.charAt(i) == '}' ? i : -1;
+    }
+
+    /**
+     * A step of the rendering pipeline.
+     */
+    @FunctionalInterface
+    private interface Appender {
+        void append(StringBuilder target, Object[] values);
+    }
+}
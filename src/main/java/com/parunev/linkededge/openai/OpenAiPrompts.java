@@ -62,22 +62,32 @@ public class OpenAiPrompts {
             """)
             .build();
 
+    // Templates of the user message specifying criteria for generating interview questions
+    private static final OpenAiPromptTemplate INTERVIEW_QUESTIONS_CRITERIA = OpenAiPromptTemplate.compile("""
+            Generate 5 open-ended interview questions for each skill with the following criteria:
+            - Education: {education}
+            - Experience: {experience}
+            - Skills (with endorsements):
+            """);
+    private static final OpenAiPromptTemplate INTERVIEW_QUESTIONS_SKILL =
+            OpenAiPromptTemplate.compile("{index}. {skill} (Endorsement: {endorsements})\n");
+    private static final OpenAiPromptTemplate INTERVIEW_QUESTIONS_DIFFICULTY =
+            OpenAiPromptTemplate.compile("- Difficulty Level: {difficulty}");
+
     /**
      * User message specifying criteria for generating interview questions.
      */
     public static OpenAiMessage userInterviewQuestionsPrompt(String education, String experience, List<Skill> skills, QuestionDifficulty difficulty){
-        StringBuilder content = new StringBuilder();
-        content.append("Generate 5 open-ended interview questions for each skill with the following criteria:\n");
-        content.append("- Education: %s%n".formatted(education));
-        content.append("- Experience: %s%n".formatted(experience));
-        content.append("- Skills (with endorsements):\n");
+        StringBuilder content = new StringBuilder(INTERVIEW_QUESTIONS_CRITERIA.capacity()
+                + skills.size() * INTERVIEW_QUESTIONS_SKILL.capacity() + INTERVIEW_QUESTIONS_DIFFICULTY.capacity());
+        INTERVIEW_QUESTIONS_CRITERIA.appendTo(content, education, experience);
 
         for (int i = 1; i <= skills.size(); i++) {
-            content.append("%d. %s (Endorsement: %d)%n".formatted(i
+            INTERVIEW_QUESTIONS_SKILL.appendTo(content, i
                     ,skills.get(i-1).getName()
-                    ,skills.get(i-1).getNumOfEndorsement()));
+                    ,skills.get(i-1).getNumOfEndorsement());
         }
-        content.append("- Difficulty Level: %s".formatted(difficulty.toString()));
+        INTERVIEW_QUESTIONS_DIFFICULTY.appendTo(content, difficulty);
 
         leLogger.debug("Prompt: {}", content.toString());
 
@@ -117,14 +127,17 @@ public class OpenAiPrompts {
         - The question may cover a challenging topic related to various skills.
         """).build();
 
+    private static final OpenAiPromptTemplate SPECIALIZED_ANSWER = OpenAiPromptTemplate.compile(
+            "Imagine you are in an interview, and the interviewer asks you the following question: \"{question}?\".\n" +
+            "Now, provide an exceptionally creative and unique response that nobody has ever heard before.");
+
     /**
      * User message for generating a specialized answer to an interview question.
      */
     public static OpenAiMessage userGenerateSpecializedAnswer(String question) {
         return OpenAiMessage.builder()
                 .role(ROLE_USER)
-                .content(("Imagine you are in an interview, and the interviewer asks you the following question: \"%s?\".%n" +
-                        "Now, provide an exceptionally creative and unique response that nobody has ever heard before.").formatted(question))
+                .content(SPECIALIZED_ANSWER.render(question))
                 .build();
     }
 
@@ -140,13 +153,16 @@ public class OpenAiPrompts {
             """)
                 .build();
 
+    private static final OpenAiPromptTemplate IS_IT_VALID_SKILL =
+            OpenAiPromptTemplate.compile("Is '{skill}' a valid or can be considered as one skill?");
+
     /**
      * User message for validating a skill.
      */
     public static OpenAiMessage userIsItValidSkill(String skillToCheck){
         return OpenAiMessage.builder()
                 .role(ROLE_USER)
-                .content("Is '" + skillToCheck + "' a valid or can be considered as one skill?")
+                .content(IS_IT_VALID_SKILL.render(skillToCheck))
                 .build();
     }
 
@@ -162,13 +178,16 @@ public class OpenAiPrompts {
             """)
                     .build();
 
+    private static final OpenAiPromptTemplate IS_IT_VALID_EDUCATION =
+            OpenAiPromptTemplate.compile("Is '{education}' a valid education institution?");
+
     /**
      * User message for validating an education institution.
      */
     public static OpenAiMessage userIsItValidEducation(String educationToCheck){
         return OpenAiMessage.builder()
                 .role(ROLE_USER)
-                .content("Is '" + educationToCheck + "' a valid education institution?")
+                .content(IS_IT_VALID_EDUCATION.render(educationToCheck))
                 .build();
     }
 
@@ -186,13 +205,16 @@ public class OpenAiPrompts {
                             """)
                     .build();
 
+    private static final OpenAiPromptTemplate IS_IT_VALID_EXPERIENCE =
+            OpenAiPromptTemplate.compile("Is '{experience}' a valid experience?");
+
     /**
      * User message for validating a job experience.
      */
     public static OpenAiMessage userIsItValidExperience(String experienceToCheck){
         return OpenAiMessage.builder()
                 .role(ROLE_USER)
-                .content("Is '" + experienceToCheck + "' a valid experience?")
+                .content(IS_IT_VALID_EXPERIENCE.render(experienceToCheck))
                 .build();
     }
 }
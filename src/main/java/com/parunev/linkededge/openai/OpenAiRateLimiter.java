@@ -0,0 +1,181 @@
+package com.parunev.linkededge.openai;
+
+import com.parunev.linkededge.openai.model.OpenAiMessage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Description: Client-side rate limiter for OpenAI calls, keyed by model.
+ * <p>
+ * OpenAI limits every model by requests per minute and by tokens per minute. Each model gets a token bucket for both,
+ * refilled continuously at the configured rate. A call reserves one request and its estimated number of tokens;
+ * if the buckets do not hold enough yet, the call waits until they do, and if that wait would be longer than
+ * `maxWait` the call is rejected right away instead of tripping OpenAI's own rate limit. Once the actual usage of
+ * a call is known the token bucket is corrected by the difference to the estimate.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public class OpenAiRateLimiter {
+
+    /**
+     * The rate limits of a model.
+     *
+     * @param requestsPerMinute The number of requests allowed per minute.
+     * @param tokensPerMinute The number of prompt and completion tokens allowed per minute.
+     */
+    public record Limits(int requestsPerMinute, int tokensPerMinute) {
+    }
+
+    private static final int ESTIMATED_COMPLETION_TOKENS = 500;
+
+    private final long maxWaitMillis;
+    private final Limits defaults;
+    private final Map<String, Limits> limits;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for the OpenAiRateLimiter class.
+     *
+     * @param maxWait The longest a call may wait for capacity before it is rejected.
+     * @param defaults The limits of models without limits of their own.
+     * @param limits The limits per model name.
+     */
+    public OpenAiRateLimiter(Duration maxWait, Limits defaults, Map<String, Limits> limits) {
+        this.maxWaitMillis = maxWait.toMillis();
+        this.defaults = defaults;
+        this.limits = limits != null ? Map.copyOf(limits) : Map.of();
+    }
+
+    /**
+     * Creates a limiter with OpenAI's default limits for pay-as-you-go accounts, waiting at most 2 seconds.
+     *
+     * @return A new rate limiter.
+     */
+    public static OpenAiRateLimiter withDefaults() {
+        return new OpenAiRateLimiter(Duration.ofSeconds(2), new Limits(3500, 90000), Map.of());
+    }
+
+    /**
+     * Reserve capacity for a call.
+     *
+     * @param model The model the call is made to.
+     * @param estimatedTokens The estimated number of tokens the call will use.
+     * @return The number of milliseconds to wait before making the call, or -1 if the call must be rejected.
+     * Nothing is reserved for a rejected call.
+     */
+    public long reserve(String model, int estimatedTokens) {
+        return bucket(model).reserve(estimatedTokens, maxWaitMillis);
+    }
+
+    /**
+     * Correct the reservation of a completed call with the tokens it actually used.
+     *
+     * @param model The model the call was made to.
+     * @param estimatedTokens The number of tokens reserved for the call.
+     * @param actualTokens The number of tokens reported in the `usage` block of the response.
+     */
+    public void correct(String model, int estimatedTokens, int actualTokens) {
+        bucket(model).giveBack(estimatedTokens - actualTokens);
+    }
+
+    /**
+     * Give back the tokens reserved for a call that was not made.
+     *
+     * @param model The model the call would have been made to.
+     * @param estimatedTokens The number of tokens reserved for the call.
+     */
+    public void release(String model, int estimatedTokens) {
+        bucket(model).giveBack(estimatedTokens);
+    }
+
+    /**
+     * Estimate the number of tokens a call will use: the prompt, counted locally, and an allowance for the completion.
+     *
+     * @param messages The messages of the call.
+     * @return The estimated number of tokens.
+     */
+    public static int estimateTokens(List<OpenAiMessage> messages) {
+        return estimateTokens(OpenAiTokenEstimator.countTokens(messages));
+    }
+
+    /**
+     * Estimate the number of tokens a call will use from the estimated number of its prompt tokens.
+     *
+     * @param promptTokens The estimated number of prompt tokens, see {@link OpenAiTokenEstimator}.
+     * @return The estimated number of tokens, including an allowance for the completion.
+     */
+    public static int estimateTokens(int promptTokens) {
+        return estimateTokens(promptTokens, null);
+    }
+
+    /**
+     * Estimate the number of tokens a call will use from the estimated number of its prompt tokens and its completion cap.
+     *
+     * @param promptTokens The estimated number of prompt tokens, see {@link OpenAiTokenEstimator}.
+     * @param maxTokens The `max_tokens` cap of the call, or `null` if it is not capped.
+     * @return The estimated number of tokens, including an allowance for the completion no larger than the cap.
+     */
+    public static int estimateTokens(int promptTokens, Integer maxTokens) {
+        int completionTokens = maxTokens != null ? Math.min(maxTokens, ESTIMATED_COMPLETION_TOKENS) : ESTIMATED_COMPLETION_TOKENS;
+        return promptTokens + completionTokens;
+    }
+
+    private Bucket bucket(String model) {
+        return buckets.computeIfAbsent(model, name -> new Bucket(limits.getOrDefault(name, defaults)));
+    }
+
+    /**
+     * The request and token buckets of a single model. Both start full and are refilled continuously.
+     */
+    private static final class Bucket {
+        private final double requestCapacity;
+        private final double tokenCapacity;
+        private final double requestsPerMilli;
+        private final double tokensPerMilli;
+        private double requests;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        private Bucket(Limits limits) {
+            this.requestCapacity = limits.requestsPerMinute();
+            this.tokenCapacity = limits.tokensPerMinute();
+            this.requestsPerMilli = requestCapacity / 60000d;
+            this.tokensPerMilli = tokenCapacity / 60000d;
+            this.requests = requestCapacity;
+            this.tokens = tokenCapacity;
+        }
+
+        private synchronized long reserve(int estimatedTokens, long maxWaitMillis) {
+            refill();
+            // A single call can never need more than the whole bucket, or it would never be let through.
+            double needed = Math.min(estimatedTokens, tokenCapacity);
+            double wait = Math.max(Math.max((1 - requests) / requestsPerMilli, (needed - tokens) / tokensPerMilli), 0);
+
+            if (wait > maxWaitMillis) {
+                return -1;
+            }
+
+            // The buckets may go negative, the next callers then wait for the calls queued before them.
+            requests -= 1;
+            tokens -= needed;
+            return (long) Math.ceil(wait);
+        }
+
+        private synchronized void giveBack(int tokenCount) {
+            refill();
+            tokens = Math.min(tokenCapacity, tokens + tokenCount);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            double elapsedMillis = (now - lastRefill) / 1_000_000d;
+            lastRefill = now;
+            requests = Math.min(requestCapacity, requests + elapsedMillis * requestsPerMilli);
+            tokens = Math.min(tokenCapacity, tokens + elapsedMillis * tokensPerMilli);
+        }
+    }
+}
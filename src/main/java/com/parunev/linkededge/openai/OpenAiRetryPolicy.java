@@ -0,0 +1,72 @@
+package com.parunev.linkededge.openai;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @Description: Retry policy for failed OpenAI calls.
+ * <p>
+ * Retryable failures (see {@link com.parunev.linkededge.openai.model.enums.OpenAiError#isRetryable(Integer)}) are
+ * retried up to `maxAttempts` times in total. The delay between attempts grows exponentially from `initialBackoff`
+ * up to `maxBackoff`, and a random part is added so that callers failing together do not retry together.
+ * When OpenAI answers with a `Retry-After` header, that delay is used instead; if it is longer than `maxBackoff`
+ * the call is not retried at all.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class OpenAiRetryPolicy {
+
+    /**
+     * The maximum number of attempts, including the first one.
+     */
+    @Builder.Default
+    private final int maxAttempts = 3;
+
+    /**
+     * The delay before the first retry.
+     */
+    @Builder.Default
+    private final Duration initialBackoff = Duration.ofMillis(500);
+
+    /**
+     * The longest delay between two attempts.
+     */
+    @Builder.Default
+    private final Duration maxBackoff = Duration.ofSeconds(10);
+
+    /**
+     * The factor the delay grows with after every attempt.
+     */
+    @Builder.Default
+    private final double multiplier = 2.0;
+
+    /**
+     * Compute the delay before the next attempt.
+     *
+     * @param attempt The number of the attempt that just failed, starting at 1.
+     * @param retryAfter The delay requested by OpenAI, or `null` if none was requested.
+     * @return The delay in milliseconds, or -1 if the call must not be retried.
+     */
+    public long delayMillis(int attempt, Duration retryAfter) {
+        if (attempt >= maxAttempts) {
+            return -1;
+        }
+
+        if (retryAfter != null) {
+            return retryAfter.compareTo(maxBackoff) <= 0 ? retryAfter.toMillis() : -1;
+        }
+
+        double backoff = Math.min(initialBackoff.toMillis() * Math.pow(multiplier, attempt - 1.0), maxBackoff.toMillis());
+        // Equal jitter: wait at least half of the backoff, and a random part of the other half.
+        long half = (long) (backoff / 2);
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+}
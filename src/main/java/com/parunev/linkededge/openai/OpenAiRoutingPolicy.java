@@ -0,0 +1,77 @@
+package com.parunev.linkededge.openai;
+
+import com.parunev.linkededge.openai.model.OpenAiOptions;
+import com.parunev.linkededge.openai.model.enums.OpenAiDefaults;
+import com.parunev.linkededge.openai.model.enums.OpenAiModel;
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * @Description: Maps every kind of prompt to the model it is sent to and the number of tokens it may generate.
+ * <p>
+ * Calls made without a specific model are routed by the {@link OpenAiRoute} of their options. Routes without a
+ * target, or with a target without a model, use {@link OpenAiDefaults#DEFAULT_MODEL}; routes without a `max_tokens`
+ * cap let the model generate until it stops on its own.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public class OpenAiRoutingPolicy {
+
+    /**
+     * The model and the completion cap of a route.
+     *
+     * @param model The model the prompts of the route are sent to, the default model when null.
+     * @param maxTokens The maximum number of tokens OpenAI may generate, not capped when null.
+     */
+    public record Target(OpenAiModel model, Integer maxTokens) {
+    }
+
+    private final Map<OpenAiRoute, Target> targets;
+
+    /**
+     * Constructor for the OpenAiRoutingPolicy class.
+     *
+     * @param targets The target of every route, routes that are not listed use the default model without a cap.
+     */
+    public OpenAiRoutingPolicy(Map<OpenAiRoute, Target> targets) {
+        this.targets = targets != null && !targets.isEmpty() ? new EnumMap<>(targets) : Map.of();
+    }
+
+    /**
+     * @return A policy sending every prompt to the default model without a cap.
+     */
+    public static OpenAiRoutingPolicy withDefaults() {
+        return new OpenAiRoutingPolicy(Map.of());
+    }
+
+    /**
+     * Select the model of a call.
+     *
+     * @param options The options of the call, holding its route.
+     * @return The name of the model the call is sent to.
+     */
+    public String modelFor(OpenAiOptions options) {
+        Target target = targetFor(options);
+        return target != null && target.model() != null
+                ? target.model().getName()
+                : OpenAiDefaults.DEFAULT_MODEL.getValue();
+    }
+
+    /**
+     * Select the completion cap of a call.
+     *
+     * @param options The options of the call, holding its route.
+     * @return The maximum number of tokens OpenAI may generate, or `null` if the route is not capped.
+     */
+    public Integer maxTokensFor(OpenAiOptions options) {
+        Target target = targetFor(options);
+        return target != null ? target.maxTokens() : null;
+    }
+
+    private Target targetFor(OpenAiOptions options) {
+        return targets.get(options != null ? options.getRoute() : OpenAiRoute.GENERAL);
+    }
+}
@@ -0,0 +1,99 @@
+package com.parunev.linkededge.openai;
+
+import com.parunev.linkededge.openai.model.OpenAiMessage;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @Description: Local estimator of the number of tokens OpenAI counts for a prompt.
+ * <p>
+ * The text is split the way the GPT tokenizers pre-tokenize it: runs of letters, runs of digits, runs of punctuation
+ * and whitespace. Every piece is then priced from its length instead of being looked up in the vocabulary:
+ * a common word is a single token and only long words are split, a single space is merged into the word following it,
+ * digits are grouped by three and characters outside the Latin scripts are roughly a token each.
+ * The estimate is close enough for prompt budgets and rate limiting without calling OpenAI; the actual count is
+ * reported back in the usage of every completion.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE) // This class should not be instantiated as it contains only static utility methods.
+public class OpenAiTokenEstimator {
+
+    private static final int TOKENS_PER_MESSAGE = 3; // Role and separators added by the chat format
+    private static final int TOKENS_PER_REPLY = 3; // Every reply is primed with the assistant role
+    private static final int CHARS_PER_WORD_TOKEN = 6; // Longer words are split into pieces of about this length
+    private static final int DIGITS_PER_TOKEN = 3;
+    private static final int WIDE_CHARACTERS_START = 0x2E80; // CJK and other scripts without word separators
+
+    /**
+     * Estimate the number of prompt tokens of a chat conversation.
+     *
+     * @param messages The messages of the conversation.
+     * @return The estimated number of prompt tokens.
+     */
+    public static int countTokens(List<OpenAiMessage> messages) {
+        int tokens = TOKENS_PER_REPLY;
+        for (OpenAiMessage message : messages) {
+            tokens += TOKENS_PER_MESSAGE + countTokens(message.getRole()) + countTokens(message.getContent());
+        }
+        return tokens;
+    }
+
+    /**
+     * Estimate the number of tokens of a text.
+     *
+     * @param text The text, may be `null`.
+     * @return The estimated number of tokens, 0 for `null` or empty text.
+     */
+    public static int countTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+
+        int tokens = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            int start = i;
+
+            if (c >= WIDE_CHARACTERS_START && Character.isLetter(c)) {
+                tokens++;
+                i++;
+            } else if (Character.isLetter(c)) {
+                while (i < length && Character.isLetter(text.charAt(i)) && text.charAt(i) < WIDE_CHARACTERS_START) {
+                    i++;
+                }
+                tokens += (i - start + CHARS_PER_WORD_TOKEN - 1) / CHARS_PER_WORD_TOKEN;
+            } else if (Character.isDigit(c)) {
+                while (i < length && Character.isDigit(text.charAt(i))) {
+                    i++;
+                }
+                tokens += (i - start + DIGITS_PER_TOKEN - 1) / DIGITS_PER_TOKEN;
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(text.charAt(i))) {
+                    i++;
+                }
+                // A single space is part of the next word, other whitespace is a token of its own.
+                boolean singleSpace = i - start == 1 && c == ' ';
+                if (!singleSpace || i == length || !Character.isLetterOrDigit(text.charAt(i))) {
+                    tokens++;
+                }
+            } else {
+                while (i < length && isPunctuation(text.charAt(i))) {
+                    i++;
+                }
+                // Common runs such as "..." or "**" are merged, roughly two characters per token.
+                tokens += Math.max(1, (i - start + 1) / 2);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isPunctuation(char c) {
+        return !Character.isLetterOrDigit(c) && !Character.isWhitespace(c);
+    }
+}
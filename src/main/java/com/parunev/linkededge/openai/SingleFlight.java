@@ -0,0 +1,144 @@
+package com.parunev.linkededge.openai;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * @Description: Coalesces concurrent identical calls into a single call.
+ * <p>
+ * While a call for a key is in flight, further calls for the same key do not start a new call, they wait for the one
+ * already running. Every caller receives its own future, so a caller cancelling its future, or completing it with a
+ * timeout, does not affect the others. The shared call itself is cancelled only once every caller has given up on it.
+ * A key is forgotten as soon as its call completes, later calls for it start a new call.
+ *
+ * @param <K> The type of the keys identifying identical calls.
+ * @param <V> The type of the call results.
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Run the call for the given key, or join the call for that key that is already in flight.
+     *
+     * @param key The key identifying identical calls.
+     * @param call Starts the call, invoked only if no call for the key is in flight.
+     * @return A future owned by the caller, completed with the result of the shared call.
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        Flight<V> created = new Flight<>();
+        Flight<V> flight = flights.compute(key, (k, existing) ->
+                existing != null && existing.subscribe() ? existing : created.subscribeFirst());
+
+        if (flight == created) {
+            start(key, created, call);
+        }
+
+        return flight.newSubscriber(() -> {
+            if (flight.unsubscribe()) {
+                flights.remove(key, flight);
+            }
+        });
+    }
+
+    /**
+     * @return The number of keys with a call in flight.
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    private void start(K key, Flight<V> flight, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> upstream;
+        try {
+            upstream = call.get();
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+
+        flight.upstream = upstream;
+        upstream.whenComplete((result, throwable) -> {
+            // Forget the key before publishing the result, so a caller reacting to it starts a fresh call.
+            flights.remove(key, flight);
+            if (throwable != null) {
+                flight.result.completeExceptionally(throwable);
+            } else {
+                flight.result.complete(result);
+            }
+        });
+
+        if (flight.isAbandoned()) {
+            upstream.cancel(true);
+        }
+    }
+
+    /**
+     * A call in flight and the number of callers still waiting for it.
+     */
+    private static final class Flight<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile CompletableFuture<V> upstream;
+        private int subscribers;
+        private boolean abandoned;
+
+        private synchronized Flight<V> subscribeFirst() {
+            subscribers = 1;
+            return this;
+        }
+
+        /**
+         * @return `false` if every caller has already given up on this call, so it must not be joined.
+         */
+        private synchronized boolean subscribe() {
+            if (abandoned) {
+                return false;
+            }
+            subscribers++;
+            return true;
+        }
+
+        /**
+         * @return `true` if this was the last caller, in which case the call is cancelled.
+         */
+        private boolean unsubscribe() {
+            synchronized (this) {
+                if (abandoned || result.isDone() || --subscribers > 0) {
+                    return false;
+                }
+                abandoned = true;
+            }
+
+            CompletableFuture<V> call = upstream;
+            if (call != null) {
+                call.cancel(true);
+            }
+            return true;
+        }
+
+        private synchronized boolean isAbandoned() {
+            return abandoned;
+        }
+
+        private CompletableFuture<V> newSubscriber(Runnable onGiveUp) {
+            CompletableFuture<V> subscriber = new CompletableFuture<>();
+            result.whenComplete((value, throwable) -> {
+                if (throwable != null) {
+                    subscriber.completeExceptionally(throwable);
+                } else {
+                    subscriber.complete(value);
+                }
+            });
+            subscriber.whenComplete((value, throwable) -> {
+                // Completed before the shared call, the caller cancelled or timed out.
+                if (!result.isDone()) {
+                    onGiveUp.run();
+                }
+            });
+            return subscriber;
+        }
+    }
+}
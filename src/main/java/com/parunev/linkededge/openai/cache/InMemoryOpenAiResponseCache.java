@@ -0,0 +1,65 @@
+package com.parunev.linkededge.openai.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description: In-memory implementation of {@link OpenAiResponseCache}, bounded by size and evicting entries
+ * a fixed time after they were written. Hit and miss counts are published under the `openai.responses` cache metrics.
+ * This is the default implementation, selected with `openai.cache.type=memory`.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Component
+@ConditionalOnProperty(name = "openai.cache.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOpenAiResponseCache implements OpenAiResponseCache, MeterBinder {
+
+    static final String CACHE_NAME = "openai.responses";
+
+    private final Cache<String, String> cache; // Generated responses keyed by the hash of the request
+
+    /**
+     * Constructor for the InMemoryOpenAiResponseCache class.
+     *
+     * @param maximumSize The maximum number of responses kept in memory.
+     * @param ttl         How long a response is kept, in milliseconds.
+     */
+    public InMemoryOpenAiResponseCache(@Value("${openai.cache.maximum-size}") long maximumSize,
+                                       @Value("${openai.cache.ttl}") long ttl) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(String key, String response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * Registers the cache statistics (hits, misses, evictions, size) with the meter registry.
+     *
+     * @param registry The meter registry to bind to.
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+}
@@ -0,0 +1,93 @@
+package com.parunev.linkededge.openai.cache;
+
+import com.parunev.linkededge.model.OpenAiCachedResponse;
+import com.parunev.linkededge.repository.OpenAiCachedResponseRepository;
+import com.parunev.linkededge.util.LELogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * @Description: Database backed implementation of {@link OpenAiResponseCache}, so cached responses survive restarts
+ * and are shared between nodes. Entries live in the `OPENAI_CACHED_RESPONSES` table until they expire, expired rows
+ * are deleted periodically. Hits and misses are counted with the same `cache.gets` meters the in-memory cache publishes.
+ * Selected with `openai.cache.type=jdbc`.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Component
+@ConditionalOnProperty(name = "openai.cache.type", havingValue = "jdbc")
+public class JdbcOpenAiResponseCache implements OpenAiResponseCache {
+
+    private final OpenAiCachedResponseRepository repository;
+    private final long ttl;
+    private final Counter hits;
+    private final Counter misses;
+    private final LELogger leLogger = new LELogger(JdbcOpenAiResponseCache.class);
+
+    /**
+     * Constructor for the JdbcOpenAiResponseCache class.
+     *
+     * @param repository    The repository for cached responses.
+     * @param meterRegistry The registry the hit and miss counters are registered with.
+     * @param ttl           How long a response is kept, in milliseconds.
+     */
+    public JdbcOpenAiResponseCache(OpenAiCachedResponseRepository repository, MeterRegistry meterRegistry,
+                                   @Value("${openai.cache.ttl}") long ttl) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.hits = Counter.builder("cache.gets")
+                .tag("cache", InMemoryOpenAiResponseCache.CACHE_NAME)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets")
+                .tag("cache", InMemoryOpenAiResponseCache.CACHE_NAME)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String get(String key) {
+        String response = repository.findByCacheKeyAndExpiresAtAfter(key, LocalDateTime.now())
+                .map(OpenAiCachedResponse::getResponse)
+                .orElse(null);
+
+        (response != null ? hits : misses).increment();
+        return response;
+    }
+
+    @Override
+    public void put(String key, String response) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl, ChronoUnit.MILLIS);
+        OpenAiCachedResponse entry = repository.findByCacheKey(key)
+                .orElseGet(() -> OpenAiCachedResponse.builder().cacheKey(key).build());
+        entry.setResponse(response);
+        entry.setExpiresAt(expiresAt);
+
+        try {
+            repository.save(entry);
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored the same response in the meantime, keep theirs.
+            leLogger.debug("Response already cached by another node");
+        }
+    }
+
+    /**
+     * Delete expired entries.
+     */
+    @Scheduled(fixedRateString = "${openai.cache.ttl}")
+    public void purgeExpired() {
+        int deleted = repository.deleteAllByExpiresAtBefore(LocalDateTime.now());
+        if (deleted > 0) {
+            leLogger.info("Deleted {} expired OpenAI responses from the cache", deleted);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.parunev.linkededge.openai.cache;
+
+/**
+ * @Description: Cache for generated OpenAI responses.
+ * <p>
+ * Entries are keyed by the SHA-256 hash of the serialized completion request, which contains the model, the messages
+ * and every generation parameter, so two calls share an entry only if OpenAI would receive exactly the same request.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public interface OpenAiResponseCache {
+
+    /**
+     * Returns the cached response for the given key.
+     *
+     * @param key The hash of the completion request.
+     * @return The cached response, or `null` if there is none or it has expired.
+     */
+    String get(String key);
+
+    /**
+     * Stores a generated response.
+     *
+     * @param key      The hash of the completion request.
+     * @param response The generated response.
+     */
+    void put(String key, String response);
+}
@@ -0,0 +1,54 @@
+package com.parunev.linkededge.openai.model;
+
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
+import com.parunev.linkededge.openai.model.enums.OpenAiUseCase;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * @Description: Data class holding per-call options for OpenAI chat completions.
+ * <p>
+ * The options change how a single call is handled by {@link com.parunev.linkededge.openai.OpenAi}. Apart from the
+ * response format, and the model and completion cap selected by the route, they do not change the request that is
+ * sent to OpenAI. The options are immutable, so they can be shared as constants: a call that needs other options
+ * derives them with {@link #toBuilder()}.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Value
+@Builder(toBuilder = true)
+public class OpenAiOptions {
+
+    /**
+     * The options used when none are given.
+     */
+    public static final OpenAiOptions DEFAULT = OpenAiOptions.builder().build();
+
+    /**
+     * Whether the response may be served from, and stored in, the response cache.
+     * Only calls whose answer depends on nothing but the prompt should opt in.
+     */
+    @Builder.Default
+    private boolean cacheable = false;
+
+    /**
+     * The kind of prompt, selecting the model, the completion cap and the use case of the call.
+     */
+    @Builder.Default
+    private OpenAiRoute route = OpenAiRoute.GENERAL;
+
+    /**
+     * Whether OpenAI must answer with a JSON object, sent as the `response_format` of the request to models that
+     * support JSON mode. Other models rely on the prompt to produce JSON.
+     */
+    @Builder.Default
+    private boolean json = false;
+
+    /**
+     * @return The use case of the call, selecting the bulkhead and the timeouts the call runs with.
+     */
+    public OpenAiUseCase getUseCase() {
+        return route.getUseCase();
+    }
+}
@@ -49,7 +49,12 @@ public enum OpenAiError {
     /**
      * Server error.
      */
-    SERVER_HAD_AN_ERROR(500, "The server had an error while processing your request");
+    SERVER_HAD_AN_ERROR(500, "The server had an error while processing your request"),
+
+    /**
+     * OpenAI is unavailable, or calls are failing fast while the circuit breaker is open.
+     */
+    SERVICE_UNAVAILABLE(503, "OpenAI is currently unavailable, please try again later");
 
     /**
      * The error code.
@@ -60,4 +65,15 @@ public enum OpenAiError {
      * The descriptive error message.
      */
     private final String msg;
+
+    /**
+     * Check whether a failed call may succeed when retried: rate limits, overload and server errors are transient,
+     * authentication and other client errors are not. These are also the failures counted by the circuit breaker.
+     *
+     * @param statusCode The HTTP status code of the failed call.
+     * @return `true` if the call may be retried, `false` otherwise.
+     */
+    public static boolean isRetryable(Integer statusCode) {
+        return statusCode != null && (statusCode == 408 || statusCode == 429 || statusCode >= 500);
+    }
 }
@@ -3,12 +3,16 @@ package com.parunev.linkededge.openai.model.enums;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.util.Arrays;
+
 /**
  * @Description: Enumeration of OpenAI language models.
  * <p>
  * This enum defines language models available for use with OpenAI. It provides an easy way to specify the desired model
  * for generating natural language text. Currently, it includes the "gpt-3.5-turbo" model (GPT-3.5 Turbo) and a "gpt-4" model
  * (which is currently not available).
+ * <p>
+ * Not every model accepts JSON mode, the `response_format` of a request: gpt-4 answers such a request with a 400.
  *
  * @author Martin Parunev
  * @date October 12, 2023
@@ -20,15 +24,31 @@ public enum OpenAiModel {
     /**
      * GPT-4 model (currently not available).
      */
-    GPT_4("gpt-4"),
+    GPT_4("gpt-4", false),
 
     /**
      * GPT-3.5 Turbo model.
      */
-    GPT_3_5_TURBO("gpt-3.5-turbo");
+    GPT_3_5_TURBO("gpt-3.5-turbo", true);
 
     /**
      * The name of the OpenAI language model.
      */
     private final String name;
+
+    /**
+     * Whether the model accepts JSON mode.
+     */
+    private final boolean jsonMode;
+
+    /**
+     * Check whether a model accepts JSON mode. Models that are not listed here are assumed not to, their JSON answers
+     * then rely on the prompt alone.
+     *
+     * @param name The name of the OpenAI language model.
+     * @return `true` if JSON mode can be requested from the model.
+     */
+    public static boolean supportsJsonMode(String name) {
+        return Arrays.stream(values()).anyMatch(model -> model.name.equals(name) && model.jsonMode);
+    }
 }
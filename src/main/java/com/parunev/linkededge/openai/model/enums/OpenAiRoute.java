@@ -0,0 +1,50 @@
+package com.parunev.linkededge.openai.model.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * @Description: Enumeration of the kinds of prompts the application sends to OpenAI.
+ * <p>
+ * Every route is mapped to a model and a `max_tokens` cap by the {@link com.parunev.linkededge.openai.OpenAiRoutingPolicy},
+ * so that quick checks can run on a cheap model while generation runs on a larger one. A route also selects the
+ * {@link OpenAiUseCase}, and with it the bulkhead and the timeouts, of its calls.
+ * In properties the routes are written in kebab case, e.g. `openai.routes.interview-questions.model`.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Getter
+@RequiredArgsConstructor
+public enum OpenAiRoute {
+
+    /**
+     * Yes/no checks of education, experience and skills added to a profile.
+     */
+    VALIDATION(OpenAiUseCase.VALIDATION),
+
+    /**
+     * Generating interview questions for a set of skills.
+     */
+    INTERVIEW_QUESTIONS(OpenAiUseCase.INTERVIEW),
+
+    /**
+     * Generating a specialized answer to an interview question.
+     */
+    SPECIALIZED_ANSWER(OpenAiUseCase.INTERVIEW),
+
+    /**
+     * Coaching for a job from its job description.
+     */
+    JOB_COACHING(OpenAiUseCase.JOB_PREPARATION),
+
+    /**
+     * Any other prompt.
+     */
+    GENERAL(OpenAiUseCase.GENERAL);
+
+    /**
+     * The use case the calls of this route run in.
+     */
+    private final OpenAiUseCase useCase;
+}
@@ -0,0 +1,33 @@
+package com.parunev.linkededge.openai.model.enums;
+
+/**
+ * @Description: Enumeration of the kinds of OpenAI calls the application makes.
+ * <p>
+ * Each use case gets its own bulkhead, so that slow and heavy calls cannot take the capacity needed by quick ones.
+ * In properties the use cases are written in kebab case, e.g. `openai.bulkheads.job-preparation.max-concurrent`.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public enum OpenAiUseCase {
+
+    /**
+     * Quick yes/no checks of education, experience and skills added to a profile.
+     */
+    VALIDATION,
+
+    /**
+     * Generating interview questions and answers.
+     */
+    INTERVIEW,
+
+    /**
+     * Preparing for a job from its, possibly very long, job description.
+     */
+    JOB_PREPARATION,
+
+    /**
+     * Any other call.
+     */
+    GENERAL
+}
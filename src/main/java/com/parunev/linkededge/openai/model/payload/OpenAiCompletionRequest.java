@@ -59,9 +59,45 @@ public class OpenAiCompletionRequest {
     @JsonProperty(value = "frequency_penalty")
     private Float frequencyPenalty;
 
+    /**
+     * Optional: Defaults to the space left in the context window. The maximum number of tokens to generate,
+     * the completion is cut off with `finish_reason` set to "length" when it is reached.
+     */
+    @JsonProperty(value = "max_tokens")
+    private Integer maxTokens;
+
     /**
      * Optional: A unique identifier representing your end-user, which can help OpenAI to monitor and detect abuse.
      * @see <a href="https://platform.openai.com/docs/guides/safety-best-practices/end-user-ids">End-User IDs</a>
      */
     private String user;
+
+    /**
+     * Optional: Defaults to false. If set, partial message deltas are sent as server-sent events as they become available,
+     * the stream is terminated by a `data: [DONE]` message.
+     * @see <a href="https://platform.openai.com/docs/api-reference/chat/create#chat-create-stream">Streaming</a>
+     */
+    @JsonProperty(value = "stream")
+    private Boolean stream;
+
+    /**
+     * Optional: Defaults to text. The format the model must answer in, {@link ResponseFormat#JSON_OBJECT} guarantees
+     * that the message content is a valid JSON object. The messages must still instruct the model to produce JSON.
+     * @see <a href="https://platform.openai.com/docs/guides/text-generation/json-mode">JSON Mode</a>
+     */
+    @JsonProperty(value = "response_format")
+    private ResponseFormat responseFormat;
+
+    /**
+     * A nested record to represent the format of the response. It is immutable, so its constants can be shared.
+     *
+     * @param type The type of the response format, either "text" or "json_object".
+     */
+    public record ResponseFormat(@JsonProperty(value = "type") String type) {
+
+        /**
+         * Makes the model answer with a valid JSON object.
+         */
+        public static final ResponseFormat JSON_OBJECT = new ResponseFormat("json_object");
+    }
 }
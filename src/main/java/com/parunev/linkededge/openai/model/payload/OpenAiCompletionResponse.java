@@ -78,6 +78,12 @@ public class OpenAiCompletionResponse {
         @JsonProperty(value = "message")
         public OpenAiMessage message;
 
+        /**
+         * The part of the generated message carried by a streamed chunk.
+         */
+        @JsonProperty(value = "delta")
+        public OpenAiMessage delta;
+
         /**
          * The reason for finishing the choice (e.g., "stop" or "max_tokens").
          */
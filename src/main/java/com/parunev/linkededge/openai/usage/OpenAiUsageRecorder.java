@@ -0,0 +1,27 @@
+package com.parunev.linkededge.openai.usage;
+
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
+
+/**
+ * @Description: Interface for recording the tokens every OpenAI call used.
+ * <p>
+ * {@link com.parunev.linkededge.openai.OpenAi} calls the recorder once per completed call, on the thread that
+ * completed it, so implementations must be thread-safe and must not block.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public interface OpenAiUsageRecorder {
+
+    /**
+     * Record the usage of a completed call.
+     *
+     * @param username The username of the user the call was made for, or `null` if it was made without a user.
+     * @param endpoint The path of the request that triggered the call, or `null` if it was made outside a request.
+     * @param model The model the call was made to.
+     * @param route The route of the call.
+     * @param promptTokens The number of prompt tokens.
+     * @param completionTokens The number of completion tokens.
+     */
+    void record(String username, String endpoint, String model, OpenAiRoute route, int promptTokens, int completionTokens);
+}
@@ -2,6 +2,7 @@ package com.parunev.linkededge.repository;
 
 import com.parunev.linkededge.model.ConfirmationToken;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -19,6 +20,9 @@ public interface ConfirmationTokenRepository extends JpaRepository<ConfirmationT
 
     Optional<ConfirmationToken> findByTokenValue(String token);
 
+    @Query("SELECT c.id FROM CONFIRMATION_TOKENS c WHERE c.expires < ?1")
+    List<UUID> findExpiredIds(LocalDateTime now, Pageable pageable);
+
     @Transactional
     @Modifying
     @Query("UPDATE CONFIRMATION_TOKENS c SET c.confirmed = ?2 WHERE c.tokenValue = ?1")
@@ -1,21 +1,58 @@
 package com.parunev.linkededge.repository;
 
 import com.parunev.linkededge.model.JwtToken;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface JwtTokenRepository extends JpaRepository<JwtToken, UUID> {
-    Optional<JwtToken> findByTokenValue(String token);
+    Optional<JwtToken> findByTokenHash(String tokenHash);
 
     @Query("""
-        SELECT J FROM JWT_TOKENS J INNER JOIN EDGE_USERS U ON J.user.id = U.id
-        WHERE U.id = :id AND (J.expired = false OR J.revoked = false)
+        SELECT J FROM JWT_TOKENS J JOIN FETCH J.user
+        WHERE J.tokenHash = :tokenHash
     """)
-    List<JwtToken> findAllValidTokenByUserId(UUID id);
+    Optional<JwtToken> findWithUserByTokenHash(String tokenHash);
+
+    Slice<JwtToken> findAllByTokenHashIsNull(Pageable pageable);
+
+    @Query("""
+        SELECT J.id FROM JWT_TOKENS J
+        WHERE J.revoked = true OR J.expired = true OR J.creationTimestamp < :createdBefore
+    """)
+    List<UUID> findReclaimableIds(LocalDate createdBefore, Pageable pageable);
+
+    @Query("""
+        SELECT J.tokenValue FROM JWT_TOKENS J
+        WHERE J.user.id = :id AND J.revoked = false
+    """)
+    List<String> findAllUnrevokedTokenValuesByUserId(UUID id);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE JWT_TOKENS J SET J.expired = true, J.revoked = true
+        WHERE J.user.id = :id AND J.revoked = false
+    """)
+    int revokeAllByUserId(UUID id);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        DELETE FROM JWT_TOKENS J
+        WHERE J.user.id = :id AND J.revoked = false
+    """)
+    int deleteAllUnrevokedByUserId(UUID id);
+
+    List<JwtToken> findAllByRevokedTrueAndCreationTimestampGreaterThanEqual(LocalDate since);
 }
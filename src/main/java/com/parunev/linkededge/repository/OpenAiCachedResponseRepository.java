@@ -0,0 +1,25 @@
+package com.parunev.linkededge.repository;
+
+import com.parunev.linkededge.model.OpenAiCachedResponse;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface OpenAiCachedResponseRepository extends JpaRepository<OpenAiCachedResponse, UUID> {
+
+    Optional<OpenAiCachedResponse> findByCacheKey(String cacheKey);
+
+    Optional<OpenAiCachedResponse> findByCacheKeyAndExpiresAtAfter(String cacheKey, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OPENAI_CACHED_RESPONSES R WHERE R.expiresAt < :now")
+    int deleteAllByExpiresAtBefore(LocalDateTime now);
+}
@@ -0,0 +1,37 @@
+package com.parunev.linkededge.repository;
+
+import com.parunev.linkededge.model.OpenAiUsage;
+import com.parunev.linkededge.model.payload.metering.OpenAiProfileUsage;
+import com.parunev.linkededge.model.payload.metering.OpenAiUsageTotals;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OpenAiUsageRepository extends JpaRepository<OpenAiUsage, UUID> {
+
+    @Query("SELECT new com.parunev.linkededge.model.payload.metering.OpenAiUsageTotals(U.endpoint, SUM(U.calls), " +
+            "SUM(U.promptTokens), SUM(U.completionTokens), SUM(U.totalTokens)) FROM OPENAI_USAGE U " +
+            "WHERE U.periodEnd > :since GROUP BY U.endpoint ORDER BY SUM(U.totalTokens) DESC")
+    List<OpenAiUsageTotals> findTotalsByEndpoint(LocalDateTime since);
+
+    @Query("SELECT new com.parunev.linkededge.model.payload.metering.OpenAiUsageTotals(U.model, SUM(U.calls), " +
+            "SUM(U.promptTokens), SUM(U.completionTokens), SUM(U.totalTokens)) FROM OPENAI_USAGE U " +
+            "WHERE U.periodEnd > :since GROUP BY U.model ORDER BY SUM(U.totalTokens) DESC")
+    List<OpenAiUsageTotals> findTotalsByModel(LocalDateTime since);
+
+    @Query("SELECT new com.parunev.linkededge.model.payload.metering.OpenAiUsageTotals(U.endpoint, SUM(U.calls), " +
+            "SUM(U.promptTokens), SUM(U.completionTokens), SUM(U.totalTokens)) FROM OPENAI_USAGE U " +
+            "WHERE U.profileId = :profileId AND U.periodEnd > :since GROUP BY U.endpoint ORDER BY SUM(U.totalTokens) DESC")
+    List<OpenAiUsageTotals> findTotalsByEndpointForProfile(UUID profileId, LocalDateTime since);
+
+    @Query("SELECT new com.parunev.linkededge.model.payload.metering.OpenAiProfileUsage(P.id, P.credits, P.jobCredits, " +
+            "SUM(U.calls), SUM(U.totalTokens)) FROM OPENAI_USAGE U JOIN EDGE_PROFILE P ON P.id = U.profileId " +
+            "WHERE U.periodEnd > :since GROUP BY P.id, P.credits, P.jobCredits ORDER BY SUM(U.totalTokens) DESC")
+    List<OpenAiProfileUsage> findTopProfiles(LocalDateTime since, Pageable pageable);
+}
@@ -1,13 +1,20 @@
 package com.parunev.linkededge.repository;
 
 import com.parunev.linkededge.model.PasswordToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PasswordTokenRepository extends JpaRepository<PasswordToken, UUID> {
     Optional<PasswordToken> findByTokenValue(String token);
+
+    @Query("SELECT p.id FROM PASSWORD_RESET_TOKENS p WHERE p.expires < ?1")
+    List<UUID> findExpiredIds(LocalDateTime now, Pageable pageable);
 }
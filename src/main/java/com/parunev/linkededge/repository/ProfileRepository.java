@@ -4,10 +4,14 @@ import com.parunev.linkededge.model.Profile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ProfileRepository extends JpaRepository<Profile, UUID> {
     Optional<Profile> findByUserId(UUID id);
+
+    List<Profile> findAllByUserUsernameIn(Collection<String> usernames);
 }
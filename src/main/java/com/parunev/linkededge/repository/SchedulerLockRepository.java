@@ -0,0 +1,33 @@
+package com.parunev.linkededge.repository;
+
+import com.parunev.linkededge.model.SchedulerLock;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, UUID> {
+
+    boolean existsByName(String name);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE SCHEDULER_LOCKS L SET L.lockedUntil = :lockedUntil, L.lockedBy = :lockedBy
+        WHERE L.name = :name AND L.lockedUntil <= :now
+    """)
+    int acquire(String name, String lockedBy, LocalDateTime now, LocalDateTime lockedUntil);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE SCHEDULER_LOCKS L SET L.lockedUntil = :now
+        WHERE L.name = :name AND L.lockedBy = :lockedBy
+    """)
+    int release(String name, String lockedBy, LocalDateTime now);
+}
@@ -45,4 +45,17 @@ public class CurrentUser {
                 .status(HttpStatus.UNAUTHORIZED)
                 .build());
     }
+
+    /**
+     * Finds the username of the currently authenticated user, without failing when there is none.
+     *
+     * @return The username of the currently authenticated user, or `null` if no user is authenticated.
+     */
+    public static String findCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            return userDetails.getUsername();
+        }
+        return null;
+    }
 }
@@ -0,0 +1,121 @@
+package com.parunev.linkededge.security.jwt;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.parunev.linkededge.util.LELogger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static com.parunev.linkededge.util.TokenHashUtil.sha256;
+
+/**
+ * @Description: The `JwtCache` class keeps a bounded, expiry-aware cache of already verified JWTs.
+ * Decoding a token means verifying its RS256 signature, which is expensive, and a single authenticated request
+ * used to decode the same token several times. Entries are keyed by the SHA-256 hash of the token value,
+ * so the raw tokens are never kept as keys, and an entry is never returned after the token's own `exp` claim.
+ * Hit and miss counts are published under the `jwt.verified` cache metrics.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Component
+public class JwtCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "jwt.verified";
+
+    private final Cache<String, Jwt> cache; // Verified tokens keyed by the SHA-256 hash of the token value
+    private final LELogger leLogger = new LELogger(JwtCache.class);
+
+    /**
+     * Constructor for the JwtCache class.
+     *
+     * @param maximumSize The maximum number of verified tokens kept in memory.
+     * @param maxLifetime The longest lifetime of any issued token in milliseconds (the refresh token expiration).
+     */
+    public JwtCache(@Value("${application.security.jwt.cache.maximum-size}") long maximumSize,
+                    @Value("${application.security.jwt.refresh-token.expiration}") long maxLifetime) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxLifetime, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the verified JWT for the given token, if present and not yet expired.
+     *
+     * @param token The raw JWT token value.
+     * @return The cached verified JWT, or `null` if the token has not been verified yet or has expired.
+     */
+    public Jwt get(String token) {
+        String key = sha256(token);
+        Jwt jwt = cache.getIfPresent(key);
+
+        if (jwt != null && isExpired(jwt)) {
+            // Never serve an expired token from the cache, let the decoder reject it instead
+            leLogger.debug("Cached token has expired, removing it from the cache");
+            cache.invalidate(key);
+            return null;
+        }
+
+        return jwt;
+    }
+
+    /**
+     * Stores a verified JWT. Tokens without an expiration are not cached.
+     *
+     * @param token The raw JWT token value.
+     * @param jwt   The verified JWT produced by the decoder.
+     */
+    public void put(String token, Jwt jwt) {
+        if (jwt.getExpiresAt() == null || isExpired(jwt)) {
+            return;
+        }
+        cache.put(sha256(token), jwt);
+    }
+
+    /**
+     * Removes the given token from the cache.
+     *
+     * @param token The raw JWT token value.
+     */
+    public void evict(String token) {
+        cache.invalidate(sha256(token));
+    }
+
+    /**
+     * @return The number of lookups answered from the cache.
+     */
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * @return The number of lookups that required a full decode and signature verification.
+     */
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * Registers the cache statistics (hits, misses, evictions, size) with the meter registry.
+     *
+     * @param registry The meter registry to bind to.
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private boolean isExpired(Jwt jwt) {
+        return jwt.getExpiresAt() != null && jwt.getExpiresAt().isBefore(Instant.now());
+    }
+}
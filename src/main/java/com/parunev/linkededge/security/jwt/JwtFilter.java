@@ -1,12 +1,12 @@
 package com.parunev.linkededge.security.jwt;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parunev.linkededge.model.JwtToken;
 import com.parunev.linkededge.model.User;
 import com.parunev.linkededge.repository.JwtTokenRepository;
 import com.parunev.linkededge.repository.UserRepository;
 import com.parunev.linkededge.security.exceptions.ResourceNotFoundException;
 import com.parunev.linkededge.security.payload.ApiError;
-import com.parunev.linkededge.service.UserService;
 import com.parunev.linkededge.util.LELogger;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.security.SignatureException;
@@ -20,20 +20,25 @@ import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
-import static com.parunev.linkededge.util.RequestUtil.getCurrentRequest;
+import static com.parunev.linkededge.util.TokenHashUtil.sha256;
 
 /**
  * @Description: This class represents a custom filter for handling JWT-based authentication in the LinkedEdge application.
  * It is responsible for processing JWT tokens, authenticating users, and enforcing security measures.
  * This filter is invoked on each incoming HTTP request to secure the application.
+ * <p>
+ * Tokens already confirmed as active skip the `JWT_TOKENS` lookup, but their owner is still loaded by primary key on
+ * every request. This is deliberate: the query is cheap, and it is what makes a user who is disabled, locked or has
+ * changed their details take effect on their very next request instead of after a cache expiry. A cached principal
+ * would also have to be evicted from every path that changes a user, not only when a token is revoked.
  *
  * @author Martin Parunev
  * @date October 12, 2023
@@ -43,9 +48,9 @@ import static com.parunev.linkededge.util.RequestUtil.getCurrentRequest;
 @RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
     private final JwtService jwtService; // Service for JWT token operations
-    private final UserService userService; // Service for user-related operations
     private final JwtTokenRepository jwTokenRepository; // Repository for JWT tokens
-    private final UserRepository userRepository; // Repository for user information
+    private final JwtRevocationIndex revocationIndex; // In-memory revocation state of issued tokens
+    private final UserRepository userRepository; // Repository for the owners of tokens confirmed as active
     private final ObjectMapper objectMapper; // ObjectMapper for JSON serialization/deserialization
     private final LELogger leLogger = new LELogger(JwtFilter.class); // Logger for monitoring filter activity
     private static final String CORRELATION_ID = "correlationId"; // Mapped Diagnostic Context key for correlation ID
@@ -96,21 +101,15 @@ public class JwtFilter extends OncePerRequestFilter {
             email = jwtService.extractEmail(jwt); // Extract email from the JWT token
 
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Retrieve user details based on the email
-                User user = findUserByEmail(email);
-                UserDetails userDetails = this.userService.loadUserByUsername(user.getUsername());
+                // Resolve the owner of the token from the revocation index, falling back to the database
+                User user = resolveUser(jwt, email);
 
-                // Check if the JWT token is valid and not revoked
-                boolean isTokenValid = jwTokenRepository.findByTokenValue(jwt)
-                        .map(jwToken -> !jwToken.isExpired() && !jwToken.isRevoked())
-                        .orElse(false);
-
-                if (jwtService.isTokenValid(jwt, userDetails) && isTokenValid) {
+                if (user != null && jwtService.isTokenValid(jwt, user)) {
                     // User authentication is successful
-                    leLogger.info("User {} authenticated successfully.", userDetails.getUsername());
+                    leLogger.info("User {} authenticated successfully.", user.getUsername());
 
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities()
+                            user, null, user.getAuthorities()
                     );
 
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -118,10 +117,10 @@ public class JwtFilter extends OncePerRequestFilter {
                     // Set the user's authentication details in the security context
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
-
-                // Continue with the filter chain
-                filterChain.doFilter(request, response);
             }
+
+            // Continue with the filter chain
+            filterChain.doFilter(request, response);
         } catch (SignatureException | ExpiredJwtException | ResourceNotFoundException exception) {
             // Handle authentication failures
             leLogger.error("Authentication failed: {}", exception, exception.getMessage());
@@ -142,23 +141,40 @@ public class JwtFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Find a user by email and throw a ResourceNotFoundException if not found.
+     * Resolve the user a token was issued to. Revoked tokens are rejected and tokens already confirmed as active are
+     * answered from the revocation index, loading only their owner by primary key on every request (see the class
+     * documentation for why the owner is not cached). Only tokens unknown to this node are looked up in the database,
+     * together with their owner, in a single query. Disabled or locked owners are rejected either way.
      *
-     * @param email The email address of the user
-     * @return The user with the given email
-     * @throws ResourceNotFoundException if the user is not found
+     * @param jwt   The JWT token from the request
+     * @param email The email from the token's subject
+     * @return The owner of the token, or `null` if the token is revoked, expired or unknown, or its owner is disabled
      */
-    private User findUserByEmail(String email){
-        return userRepository.findByEmail(email).orElseThrow(
-                () -> {
-                    leLogger.warn("User with the provided email not found: {}", email);
-                    throw new ResourceNotFoundException(ApiError.builder()
-                            .path(getCurrentRequest())
-                            .error("User with the provided email not found. Please ensure you have created an account")
-                            .timestamp(LocalDateTime.now())
-                            .status(HttpStatus.NOT_FOUND)
-                            .build());
-                }
-        );
+    private User resolveUser(String jwt, String email) {
+        String tokenId = jwtService.extractTokenId(jwt);
+
+        if (revocationIndex.isRevoked(tokenId)) {
+            leLogger.warn("Rejected revoked token for: {}", email);
+            return null;
+        }
+
+        UUID userId = revocationIndex.getActive(tokenId);
+        if (userId != null) {
+            return userRepository.findById(userId).filter(this::isActive).orElse(null);
+        }
+
+        // Check if the JWT token is known, not revoked and issued to the user in its subject
+        JwtToken jwtToken = jwTokenRepository.findWithUserByTokenHash(sha256(jwt)).orElse(null);
+        if (jwtToken == null || jwtToken.isExpired() || jwtToken.isRevoked()
+                || !email.equals(jwtToken.getUser().getEmail()) || !isActive(jwtToken.getUser())) {
+            return null;
+        }
+
+        revocationIndex.registerActive(tokenId, jwtToken.getUser().getId());
+        return jwtToken.getUser();
+    }
+
+    private boolean isActive(User user) {
+        return user.isEnabled() && user.isAccountNonLocked();
     }
 }
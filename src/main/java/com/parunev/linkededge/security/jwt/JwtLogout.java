@@ -9,6 +9,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.stereotype.Service;
 
+import static com.parunev.linkededge.util.TokenHashUtil.sha256;
+
 /**
  * @Description: The `JwtLogout` class is responsible for handling user logout actions,
  * particularly for invalidating or revoking JWT tokens during logout. It implements the `LogoutHandler`
@@ -22,6 +24,7 @@ import org.springframework.stereotype.Service;
 public class JwtLogout implements LogoutHandler {
 
     private final JwtTokenRepository jwtTokenRepository; // Repository for JWT tokens
+    private final JwtRevocationIndex revocationIndex; // In-memory revocation state of issued tokens
 
     /**
      * This method performs the user logout by invalidating and revoking the JWT token associated with the user's session. It is invoked when a user logs out.
@@ -41,7 +44,7 @@ public class JwtLogout implements LogoutHandler {
         }
 
         jwt = authHeader.substring(7); // Extract the JWT token from the Authorization header
-        JwtToken storedToken = jwtTokenRepository.findByTokenValue(jwt)
+        JwtToken storedToken = jwtTokenRepository.findByTokenHash(sha256(jwt))
                 .orElse(null);
 
         if (storedToken != null) {
@@ -49,6 +52,7 @@ public class JwtLogout implements LogoutHandler {
             storedToken.setExpired(true);
             storedToken.setRevoked(true);
             jwtTokenRepository.save(storedToken); // Update the token in the repository
+            revocationIndex.revoke(jwt); // Reject the token on this node without a database lookup
         }
     }
 }
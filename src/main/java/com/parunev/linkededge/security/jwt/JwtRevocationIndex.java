@@ -0,0 +1,154 @@
+package com.parunev.linkededge.security.jwt;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.JWTParser;
+import com.parunev.linkededge.repository.JwtTokenRepository;
+import com.parunev.linkededge.util.LELogger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description: The `JwtRevocationIndex` class keeps the revocation state of issued JWTs in memory, so that
+ * authenticating a request does not require a lookup in the `JWT_TOKENS` table.
+ * Tokens are identified by their `jti` claim. The index holds two structures:
+ * <p>
+ * 1. The ids of revoked tokens that have not expired yet, together with their expiration. This set is authoritative
+ * and is rebuilt at startup from `JWT_TOKENS`, then kept up to date on logout, login and email change.
+ * <p>
+ * 2. The ids of tokens already confirmed as active against the database, mapped to the id of their owner, so the
+ * token does not have to be looked up again for every request made with it. Only the id is kept, the owner itself is
+ * loaded by the caller, so a disabled or changed user is noticed on the next request.
+ * <p>
+ * Tokens unknown to both structures fall back to the database once per node. The index is per node: a token revoked
+ * on another node is only rejected here once its entry in the second structure expires, after at most
+ * `application.security.jwt.cache.ttl`.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Component
+public class JwtRevocationIndex {
+
+    private final JwtTokenRepository jwtTokenRepository;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>(); // Revoked token ids and their expiration
+    private final Cache<String, UUID> active; // Token ids confirmed as active against the database, and their owner
+    private final LELogger leLogger = new LELogger(JwtRevocationIndex.class);
+
+    /**
+     * Constructor for the JwtRevocationIndex class.
+     *
+     * @param jwtTokenRepository The repository for JWT tokens.
+     * @param maximumSize        The maximum number of active tokens kept in memory.
+     * @param ttl                How long a token is trusted as active before it is checked again, in milliseconds.
+     * @param jwtExpiration      The lifetime of an access token in milliseconds.
+     */
+    public JwtRevocationIndex(JwtTokenRepository jwtTokenRepository,
+                              @Value("${application.security.jwt.cache.maximum-size}") long maximumSize,
+                              @Value("${application.security.jwt.cache.ttl}") long ttl,
+                              @Value("${application.security.jwt.expiration}") long jwtExpiration) {
+        this.jwtTokenRepository = jwtTokenRepository;
+        this.active = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Math.min(ttl, jwtExpiration), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Rebuild the revoked set from the database once the application has started. Only access tokens are stored,
+     * so rows created before yesterday cannot belong to a token that is still within its lifetime.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        jwtTokenRepository.findAllByRevokedTrueAndCreationTimestampGreaterThanEqual(LocalDate.now().minusDays(1))
+                .forEach(jwtToken -> revoke(jwtToken.getTokenValue()));
+        leLogger.info("Revocation index loaded with {} revoked tokens", revoked.size());
+    }
+
+    /**
+     * Check whether a token has been revoked.
+     *
+     * @param tokenId The `jti` claim of the token.
+     * @return `true` if the token has been revoked, `false` otherwise.
+     */
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Return the owner of a token already confirmed as active.
+     *
+     * @param tokenId The `jti` claim of the token.
+     * @return The id of the owner of the token, or `null` if the token still has to be checked against the database.
+     */
+    public UUID getActive(String tokenId) {
+        return tokenId == null ? null : active.getIfPresent(tokenId);
+    }
+
+    /**
+     * Remember a token as active after it has been confirmed against the database.
+     *
+     * @param tokenId The `jti` claim of the token.
+     * @param userId  The id of the owner of the token.
+     */
+    public void registerActive(String tokenId, UUID userId) {
+        if (tokenId != null && userId != null && !isRevoked(tokenId)) {
+            active.put(tokenId, userId);
+        }
+    }
+
+    /**
+     * Mark a token as revoked. The signature is not verified, the value comes from our own database or from a request
+     * that is being logged out, and the token must be revoked even when it can no longer be verified.
+     *
+     * @param tokenValue The raw JWT token value.
+     */
+    public void revoke(String tokenValue) {
+        try {
+            JWTClaimsSet claims = JWTParser.parse(tokenValue).getJWTClaimsSet();
+            if (claims.getJWTID() == null || claims.getExpirationTime() == null) {
+                return;
+            }
+
+            Instant expiresAt = claims.getExpirationTime().toInstant();
+            if (expiresAt.isAfter(Instant.now())) {
+                revoked.put(claims.getJWTID(), expiresAt);
+            }
+            active.invalidate(claims.getJWTID());
+        } catch (ParseException e) {
+            leLogger.warn("Unable to parse token for revocation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Mark all given tokens as revoked.
+     *
+     * @param tokenValues The raw JWT token values to revoke.
+     */
+    public void revokeAll(Collection<String> tokenValues) {
+        tokenValues.forEach(this::revoke);
+    }
+
+    /**
+     * Drop revoked ids whose tokens have expired. An expired token is rejected by the decoder anyway,
+     * so keeping its id around only wastes memory.
+     */
+    @Scheduled(fixedRate = 60000)
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    }
+}
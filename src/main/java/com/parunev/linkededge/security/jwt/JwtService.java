@@ -10,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
@@ -44,6 +45,7 @@ public class JwtService {
     private final UserRepository userRepository;
     private final JwtEncoder jwtEncoder;
     private final JwtDecoder jwtDecoder;
+    private final JwtCache jwtCache;
 
     private static final String SCOPE = "scope";
 
@@ -56,7 +58,33 @@ public class JwtService {
      * @return The email address associated with the token
      */
     public String extractEmail(String token) {
-        return jwtDecoder.decode(token).getSubject();
+        return decode(token).getSubject();
+    }
+
+    /**
+     * Extract the token id (`jti` claim) from a given JWT token.
+     *
+     * @param token The JWT token from which to extract the id
+     * @return The id of the token
+     */
+    public String extractTokenId(String token) {
+        return decode(token).getId();
+    }
+
+    /**
+     * Decode and verify a JWT token. A token is verified only once, subsequent calls are answered
+     * from the {@link JwtCache} until the token expires.
+     *
+     * @param token The JWT token to decode
+     * @return The verified JWT
+     */
+    public Jwt decode(String token) {
+        Jwt jwt = jwtCache.get(token);
+        if (jwt == null) {
+            jwt = jwtDecoder.decode(token);
+            jwtCache.put(token, jwt);
+        }
+        return jwt;
     }
 
     /**
@@ -163,7 +191,7 @@ public class JwtService {
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver){
         final Claims claims = Jwts.claims(extractClaim(token));
-        claims.setExpiration(Date.from(Objects.requireNonNull(jwtDecoder.decode(token).getExpiresAt())));
+        claims.setExpiration(Date.from(Objects.requireNonNull(decode(token).getExpiresAt())));
         return claimsResolver.apply(claims);
     }
 
@@ -174,7 +202,7 @@ public class JwtService {
      * @return The JWT claims as a map of key-value pairs
      */
     public Map<String, Object> extractClaim(String token) {
-        return jwtDecoder.decode(token).getClaims();
+        return decode(token).getClaims();
     }
 
     /**
@@ -185,7 +213,8 @@ public class JwtService {
      * @return `true` if the token is valid, `false` otherwise
      */
     public boolean isTokenValid(String token, UserDetails userDetails){
-        User user = findUserByUsername(userDetails.getUsername());
+        // The filter already resolves the user entity together with the token, no need to load it again
+        User user = userDetails instanceof User resolved ? resolved : findUserByUsername(userDetails.getUsername());
         return (extractEmail(token).equals(user.getEmail())) && !isTokenExpired(token);
     }
 
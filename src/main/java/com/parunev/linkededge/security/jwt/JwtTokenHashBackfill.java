@@ -0,0 +1,54 @@
+package com.parunev.linkededge.security.jwt;
+
+import com.parunev.linkededge.model.JwtToken;
+import com.parunev.linkededge.repository.JwtTokenRepository;
+import com.parunev.linkededge.util.LELogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import static com.parunev.linkededge.util.TokenHashUtil.sha256;
+
+/**
+ * @Description: The `JwtTokenHashBackfill` class fills the `TOKEN_HASH` column for `JWT_TOKENS` rows created before
+ * tokens were looked up by hash. It runs once at startup, in batches, and does nothing when every row already has a hash.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtTokenHashBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JwtTokenRepository jwtTokenRepository; // Repository for JWT tokens
+    private final LELogger leLogger = new LELogger(JwtTokenHashBackfill.class);
+
+    /**
+     * Hash the token value of every row without a hash. Updated rows drop out of the query,
+     * so the first page is always requested until no rows are left.
+     *
+     * @param args The application arguments (unused)
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        long migrated = 0;
+        Slice<JwtToken> batch = jwtTokenRepository.findAllByTokenHashIsNull(PageRequest.of(0, BATCH_SIZE));
+
+        while (batch.hasContent()) {
+            batch.forEach(jwtToken -> jwtToken.setTokenHash(sha256(jwtToken.getTokenValue())));
+            jwtTokenRepository.saveAll(batch.getContent());
+            migrated += batch.getNumberOfElements();
+
+            batch = jwtTokenRepository.findAllByTokenHashIsNull(PageRequest.of(0, BATCH_SIZE));
+        }
+
+        if (migrated > 0) {
+            leLogger.info("Backfilled token hash for {} JWT tokens", migrated);
+        }
+    }
+}
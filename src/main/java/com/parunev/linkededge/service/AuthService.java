@@ -10,6 +10,7 @@ import com.parunev.linkededge.model.payload.registration.RegistrationResponse;
 import com.parunev.linkededge.model.payload.registration.ResendTokenRequest;
 import com.parunev.linkededge.repository.*;
 import com.parunev.linkededge.security.exceptions.*;
+import com.parunev.linkededge.security.jwt.JwtRevocationIndex;
 import com.parunev.linkededge.security.jwt.JwtService;
 import com.parunev.linkededge.security.mfa.Email2FA;
 import com.parunev.linkededge.security.mfa.Google2FA;
@@ -38,6 +39,7 @@ import java.util.UUID;
 
 import static com.parunev.linkededge.util.ConfirmationTokenUtil.isValidToken;
 import static com.parunev.linkededge.util.RequestUtil.getCurrentRequest;
+import static com.parunev.linkededge.util.TokenHashUtil.sha256;
 import static com.parunev.linkededge.util.email.EmailPatterns.confirmationEmail;
 import static com.parunev.linkededge.util.email.EmailPatterns.forgotPasswordEmail;
 
@@ -62,6 +64,7 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final JwtRevocationIndex revocationIndex;
     private final ExtractionService extractionService;
     private final Google2FA google2FA;
     private final Email2FA email2FA;
@@ -582,6 +585,7 @@ public class AuthService {
         JwtToken token = JwtToken.builder()
                 .user(user)
                 .tokenValue(accessToken)
+                .tokenHash(sha256(accessToken))
                 .tokenType(TokenType.BEARER)
                 .expired(false)
                 .revoked(false)
@@ -675,6 +679,7 @@ public class AuthService {
                 token = JwtToken.builder()
                         .user(user)
                         .tokenValue(accessToken)
+                        .tokenHash(sha256(accessToken))
                         .tokenType(TokenType.BEARER)
                         .expired(false)
                         .revoked(false)
@@ -731,30 +736,30 @@ public class AuthService {
     }
 
     /**
-     * Revokes and saves JWT tokens associated with a user. It marks valid tokens as expired and revoked in the repository.
+     * Revokes JWT tokens associated with a user. It marks the tokens that are not revoked yet as expired and revoked
+     * with a single bulk update.
      *
      * @param user The user for whom tokens need to be revoked.
+     * @return The number of revoked tokens.
      */
-    private void revokeAndSaveTokens(User user) {
+    private int revokeAndSaveTokens(User user) {
         leLogger.info("Revoking and saving tokens for user: {}", user.getUsername());
 
-        // Retrieve all valid tokens associated with the user
-        List<JwtToken> validTokens = jwtTokenRepository.findAllValidTokenByUserId(user.getId());
+        // Retrieve the values of the tokens about to be revoked, so they can be rejected without a database lookup
+        List<String> tokenValues = jwtTokenRepository.findAllUnrevokedTokenValuesByUserId(user.getId());
 
         // If no valid tokens are found, log a message and exit
-        if (validTokens.isEmpty()){
+        if (tokenValues.isEmpty()){
             leLogger.info("No valid tokens found to revoke");
-            return;
+            return 0;
         }
 
-        // Mark each valid token as expired and revoked
-        validTokens.forEach(jwtToken -> {
-            jwtToken.setExpired(true);
-            jwtToken.setRevoked(true);
-        });
+        // Mark every token that is not revoked yet as expired and revoked
+        int revoked = jwtTokenRepository.revokeAllByUserId(user.getId());
+        revocationIndex.revokeAll(tokenValues);
 
-        // Save the updated token information in the repository
-        jwtTokenRepository.saveAll(validTokens);
+        leLogger.info("Revoked {} tokens for user: {}", revoked, user.getUsername());
+        return revoked;
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.parunev.linkededge.service;
 
 import com.nimbusds.jose.util.Pair;
+import com.parunev.linkededge.config.OpenAiPromptBudgetConfiguration;
 import com.parunev.linkededge.model.*;
 import com.parunev.linkededge.model.enums.QuestionDifficulty;
 import com.parunev.linkededge.model.job.CompanyResolution;
@@ -8,6 +9,8 @@ import com.parunev.linkededge.model.job.Job;
 import com.parunev.linkededge.model.payload.interview.*;
 import com.parunev.linkededge.openai.OpenAi;
 import com.parunev.linkededge.openai.model.OpenAiMessage;
+import com.parunev.linkededge.openai.model.OpenAiOptions;
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
 import com.parunev.linkededge.repository.*;
 import com.parunev.linkededge.security.exceptions.*;
 import com.parunev.linkededge.security.payload.ApiError;
@@ -17,17 +20,20 @@ import com.parunev.linkededge.util.UserProfileUtils;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
-import org.springframework.boot.configurationprocessor.json.JSONException;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
-import org.springframework.boot.configurationprocessor.json.JSONObject;
-import org.springframework.boot.configurationprocessor.json.JSONArray;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,6 +41,7 @@ import static com.parunev.linkededge.openai.OpenAiJobPrompt.SYSTEM_PREPARE_AND_C
 import static com.parunev.linkededge.openai.OpenAiJobPrompt.userPrepareAndCoachForInterview;
 import static com.parunev.linkededge.openai.OpenAiPrompts.*;
 import static com.parunev.linkededge.util.RequestUtil.getCurrentRequest;
+import static com.parunev.linkededge.util.RequestUtil.withCurrentContext;
 
 /**
  * The `InterviewService` class provides interview preparation services, question generation, coaching for job interviews,
@@ -48,6 +55,10 @@ import static com.parunev.linkededge.util.RequestUtil.getCurrentRequest;
 @RequiredArgsConstructor
 public class InterviewService {
 
+    private static final OpenAiOptions QUESTIONS_OPTIONS = OpenAiOptions.builder().route(OpenAiRoute.INTERVIEW_QUESTIONS).build();
+    private static final OpenAiOptions ANSWER_OPTIONS = OpenAiOptions.builder().route(OpenAiRoute.SPECIALIZED_ANSWER).build();
+    private static final OpenAiOptions JOB_PREPARATION_OPTIONS = OpenAiOptions.builder().route(OpenAiRoute.JOB_COACHING).build();
+
     private final EducationRepository educationRepository;
     private final ProfileRepository profileRepository;
     private final ExperienceRepository experienceRepository;
@@ -55,25 +66,54 @@ public class InterviewService {
     private final OrganisationRepository organisationRepository;
     private final QuestionRepository questionRepository;
     private final SpecializedAnswerRepository specializedAnswerRepository;
-    private final CompanyResolutionRepository companyResolutionRepository;
     private final CoachingRepository coachingRepository;
     private final PreparationRepository preparationRepository;
     private final InterviewPreparationRepository interviewPreparationRepository;
     private final UserProfileUtils upUtils;
     private final OpenAi openAi;
+    private final ThreadPoolTaskExecutor openAiTaskExecutor;
     private final ModelMapper modelMapper;
     private final ExtractionService extractionService;
+    private final OpenAiPromptBudgetConfiguration promptBudget;
     private final LELogger leLogger = new LELogger(InterviewService.class);
 
     /**
      * Prepares the user for a job interview by generating coaching and preparation content based on a provided job link.
      *
+     * The OpenAI call is made asynchronously, the request thread is released while the completion is generated.
+     *
      * @param request The {@link JobRequest} object containing the job link.
-     * @return A {@link JobResponse} with coaching and preparation content for the job interview.
+     * @return A future completed with a {@link JobResponse} with coaching and preparation content for the job interview.
      * @throws InvalidExtractException if job information cannot be extracted or is inappropriate/unrelated.
      * @throws ResourceNotFoundException if there are insufficient job credits.
      */
-    public JobResponse prepareMeForAJob(JobRequest request){
+    public CompletableFuture<JobResponse> prepareMeForAJob(JobRequest request){
+        return prepareMeForAJob(request, messages -> openAi.askForAsync(messages, JOB_PREPARATION_OPTIONS, GeneratedJobPreparation.class));
+    }
+
+    /**
+     * Prepares the user for a job interview like {@link #prepareMeForAJob(JobRequest)}, handing every piece of the
+     * generated content to `onChunk` as soon as OpenAI produces it.
+     *
+     * @param request The {@link JobRequest} object containing the job link.
+     * @param onChunk Receives the generated content while it is being streamed.
+     * @return A future completed with a {@link JobResponse} once the whole content has been generated and stored.
+     * @throws InvalidExtractException if job information cannot be extracted or is inappropriate/unrelated.
+     * @throws ResourceNotFoundException if there are insufficient job credits.
+     */
+    public CompletableFuture<JobResponse> streamPrepareMeForAJob(JobRequest request, Consumer<String> onChunk){
+        return prepareMeForAJob(request, messages -> openAi.askStreamFor(messages, JOB_PREPARATION_OPTIONS, GeneratedJobPreparation.class, onChunk));
+    }
+
+    /**
+     * Validates the job request, builds the preparation prompt and sends it to OpenAI with the given completion call.
+     *
+     * @param request The {@link JobRequest} object containing the job link.
+     * @param completion The OpenAI call used to generate the content.
+     * @return A future completed with a {@link JobResponse} with coaching and preparation content for the job interview.
+     */
+    private CompletableFuture<JobResponse> prepareMeForAJob(JobRequest request,
+                                                            Function<List<OpenAiMessage>, CompletableFuture<GeneratedJobPreparation>> completion){
         // Obtain the user and profile information using UserProfileUtils.
         Pair<User, Profile> pair = upUtils.getUserAndProfile();
 
@@ -90,7 +130,7 @@ public class InterviewService {
         Job job = extractionService.createJob(pair.getRight(), jobId);
 
         // Retrieve company resolution information associated with the job.
-        CompanyResolution companyResolution = companyResolutionRepository.findByJobId(job.getId())
+        CompanyResolution companyResolution = Optional.ofNullable(job.getCompanyResolution())
                 .orElseThrow(() -> {
                     leLogger.warn("No such company resolution found");
                     throw new InvalidExtractException(ApiError.builder()
@@ -105,18 +145,30 @@ public class InterviewService {
         List<OpenAiMessage> messages = new ArrayList<>();
         messages.add(SYSTEM_PREPARE_AND_COACH_FOR_INTERVIEW);
         messages.add(userPrepareAndCoachForInterview(companyResolution.getCompanyName(), companyResolution.getCompanyStaffCount()
-        ,companyResolution.getSpecialties(), companyResolutionRepository.findAllByJobId(job.getId()), job.getJobDescription(),
+        ,companyResolution.getSpecialties(), List.of(companyResolution), job.getJobDescription(),
                 job.getEmploymentStatus(),job.getJobTitle(), job.getFunctions(), job.getIndustries(), pair.getRight().getDescription(),
-                pair.getRight().getOrganisation(),pair.getRight().getEducation(), pair.getRight().getExperience(), pair.getRight().getSkill()));
-
-        // Ask the AI model for job interview preparation content.
-        String answer = openAi.ask(messages);
+                pair.getRight().getOrganisation(),pair.getRight().getEducation(), pair.getRight().getExperience(), pair.getRight().getSkill(),
+                promptBudget.budgetFor(openAi.modelFor(JOB_PREPARATION_OPTIONS), openAi.maxTokensFor(JOB_PREPARATION_OPTIONS),
+                        List.of(SYSTEM_PREPARE_AND_COACH_FOR_INTERVIEW))));
+
+        // Ask the AI model for job interview preparation content and continue once it is ready.
+        return completion.apply(messages)
+                .thenApplyAsync(answer -> completeJobPreparation(answer, job, pair.getRight()),
+                        withCurrentContext(openAiTaskExecutor));
+    }
 
-        // Build interview preparation content and coaching information.
-        Pair<List<Coaching>, Preparation> interviewPreparation;
-        try {
-            interviewPreparation = buildInterviewPreparation(answer, job, pair.getRight());
-        } catch (JSONException e){
+    /**
+     * Completes the job interview preparation once the AI-generated answer is available.
+     *
+     * @param answer  The AI-generated answer.
+     * @param job     The job details associated with the interview.
+     * @param profile The user's profile for which the preparation is being generated.
+     * @return A {@link JobResponse} with coaching and preparation content for the job interview.
+     * @throws InvalidExtractException if the answer does not contain any preparation content.
+     */
+    private JobResponse completeJobPreparation(GeneratedJobPreparation answer, Job job, Profile profile) {
+        // Check if the answer contains preparation content.
+        if (answer.preparation().isEmpty()){
             throw new InvalidExtractException(ApiError.builder()
                     .path(getCurrentRequest())
                     .error("Either nothing was extract or the operation " +
@@ -126,9 +178,12 @@ public class InterviewService {
                     .build());
         }
 
+        // Build interview preparation content and coaching information.
+        Pair<List<Coaching>, Preparation> interviewPreparation = buildInterviewPreparation(answer, job, profile);
+
         // Deduct job credits from the user's profile and update the profile.
-        pair.getRight().setCredits(pair.getRight().getJobCredits() - 1);
-        profileRepository.save(pair.getRight());
+        profile.setCredits(profile.getJobCredits() - 1);
+        profileRepository.save(profile);
 
         // Build the response with coaching and preparation content.
         return JobResponse.builder()
@@ -144,19 +199,13 @@ public class InterviewService {
     /**
      * Builds interview preparation content and coaching based on the AI-generated answer.
      *
-     * @param answer   The AI-generated answer in JSON format.
+     * @param answer   The AI-generated answer.
      * @param job      The job details associated with the interview.
      * @param profile  The user's profile for which the preparation is being generated.
      * @return A {@link Pair} containing a list of {@link Coaching} and a {@link Preparation} for interview preparation.
-     * @throws JSONException if there are issues with parsing the AI-generated answer.
      */
-    private Pair<List<Coaching>, Preparation> buildInterviewPreparation(String answer, Job job, Profile profile) throws JSONException {
-        // Parse the AI-generated answer into a JSON object.
-        JSONObject jsonObject = new JSONObject(answer);
-
-        // Extract coaching and preparation content from the JSON object.
-        JSONArray coachingArray = jsonObject.getJSONArray("coaching");
-        JSONArray preparationArray = jsonObject.getJSONArray("preparation");
+    private Pair<List<Coaching>, Preparation> buildInterviewPreparation(GeneratedJobPreparation answer, Job job, Profile profile) {
+        GeneratedJobPreparation.PreparationItem preparationItem = answer.preparation().get(0);
 
         // Create an InterviewPreparation entity to associate the content.
         InterviewPreparation interviewPreparation = InterviewPreparation.builder()
@@ -167,15 +216,13 @@ public class InterviewService {
 
         // Initialize a list to store coaching content.
         List<Coaching> coachingList = new ArrayList<>();
-        for (int i = 0; i < coachingArray.length() ; i++) {
-            JSONObject coachingObject = coachingArray.getJSONObject(i);
-
+        for (GeneratedJobPreparation.CoachingItem coachingItem : answer.coaching()) {
             // Create Coaching entities for each coaching item.
             Coaching coaching = Coaching.builder()
-                    .difficulty(QuestionDifficulty.valueOf(coachingObject.getString("difficulty")))
-                    .question(coachingObject.getString("question"))
-                    .insight(coachingObject.getString("insight"))
-                    .answer(coachingObject.getString("advice"))
+                    .difficulty(coachingItem.difficulty())
+                    .question(coachingItem.question())
+                    .insight(coachingItem.insight())
+                    .answer(coachingItem.advice())
                     .interview(interviewPreparation)
                     .build();
             coachingRepository.save(coaching);
@@ -184,8 +231,8 @@ public class InterviewService {
 
         // Create a Preparation entity for interview preparation.
         Preparation preparation = Preparation.builder()
-                .doYouFit(preparationArray.getJSONObject(0).getString("doYouFit"))
-                .doYouNotFit(preparationArray.getJSONObject(0).getString("doYouNotFit"))
+                .doYouFit(preparationItem.doYouFit())
+                .doYouNotFit(preparationItem.doYouNotFit())
                 .interview(interviewPreparation)
                 .build();
         preparationRepository.save(preparation);
@@ -198,37 +245,46 @@ public class InterviewService {
      * Generates an answer to a user's specialized interview question and stores it in the database.
      *
      * @param request The {@link AnswerRequest} containing the user's question.
-     * @return An {@link AnswerResponse} containing the AI-generated answer, example, and benefits.
+     * @return A future completed with an {@link AnswerResponse} containing the AI-generated answer, example, and benefits.
      * @throws UserProfileException if the AI-generated response is inappropriate or unrelated.
      * @throws InvalidExtractException if the AI response cannot be extracted or the operation is aborted.
      */
-    public AnswerResponse answerUserQuestion(@Valid AnswerRequest request){
+    public CompletableFuture<AnswerResponse> answerUserQuestion(@Valid AnswerRequest request){
         // Get the user and profile information.
         Pair<User, Profile> pair = upUtils.getUserAndProfile();
 
         // Check if the user has sufficient credits for the operation.
         checkForCreditAvailability(pair.getRight().getCredits());
 
+        // Create a list of OpenAI messages to request an answer.
+        List<OpenAiMessage> messages = new ArrayList<>();
+        messages.add(SYSTEM_ANSWER_SPECIALIZED_INTERVIEW_QUESTION_PROMPT);
+        messages.add(userGenerateSpecializedAnswer(request.getQuestion()));
+
+        // Request an answer from OpenAI and continue once it is ready.
+        return openAi.askForAsync(messages, ANSWER_OPTIONS, GeneratedAnswer.class)
+                .thenApplyAsync(answer -> completeUserAnswer(request, answer, pair.getRight()),
+                        withCurrentContext(openAiTaskExecutor));
+    }
+
+    /**
+     * Validates and stores the AI-generated answer to a user's specialized interview question.
+     *
+     * @param request The {@link AnswerRequest} containing the user's question.
+     * @param answer  The AI-generated answer.
+     * @param profile The user's profile.
+     * @return An {@link AnswerResponse} containing the AI-generated answer, example, and benefits.
+     * @throws UserProfileException if the AI-generated response is inappropriate or unrelated.
+     */
+    private AnswerResponse completeUserAnswer(AnswerRequest request, GeneratedAnswer answer, Profile profile) {
         // Deduct one credit from the user's balance.
-        pair.getRight().setCredits(pair.getRight().getCredits() - 1);
+        profile.setCredits(profile.getCredits() - 1);
 
-        AnswerResponse response;
-        try{
-            // Generate an answer to the user's question using AI.
-            response = generateAnswerForUserQuestion(request);
-        } catch (JSONException e) {
-            // Handle JSON parsing or extraction errors.
-            throw new InvalidExtractException(ApiError.builder()
-                    .path(getCurrentRequest())
-                    .error("Either nothing was extract or the operation " +
-                            "was aborted due to inappropriate or unrelated question.")
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .timestamp(LocalDateTime.now())
-                    .build());
-        }
+        // Build the answer to the user's question.
+        AnswerResponse response = buildAnswerForUserQuestion(request, answer);
 
         // Check if the response contains appropriate content.
-        if (response.getExample().equals("") || response.getBenefits().equals("")){
+        if (!StringUtils.hasLength(response.getExample()) || !StringUtils.hasLength(response.getBenefits())){
             throw new UserProfileException(ApiError.builder()
                     .path(getCurrentRequest())
                     .error("Operation was aborted due to inappropriate or unrelated question.")
@@ -238,8 +294,8 @@ public class InterviewService {
         }
 
         // Create a SpecializedAnswer entity to store the response in the database.
-        SpecializedAnswer answer = SpecializedAnswer.builder()
-                .profile(pair.getRight())
+        SpecializedAnswer specializedAnswer = SpecializedAnswer.builder()
+                .profile(profile)
                 .question(response.getQuestion())
                 .answer(response.getAnswer())
                 .example(response.getExample())
@@ -247,8 +303,8 @@ public class InterviewService {
                 .build();
 
         // Save the updated profile and the AI-generated answer.
-        profileRepository.save(pair.getRight());
-        specializedAnswerRepository.save(answer);
+        profileRepository.save(profile);
+        specializedAnswerRepository.save(specializedAnswer);
 
         return response;
     }
@@ -257,10 +313,36 @@ public class InterviewService {
      * Generates a list of random interview questions for the user based on their education, experience, skills, and desired difficulty.
      *
      * @param request The {@link QuestionRequest} containing the user's preferences for generating questions.
-     * @return A list of {@link QuestionResponse} objects, representing the generated interview questions.
+     * @return A future completed with a list of {@link QuestionResponse} objects, representing the generated interview questions.
      * @throws InvalidWritingException if there is an issue with generating questions, such as missing information or errors.
      */
-    public List<QuestionResponse> generateRandomInterviewQuestions(@Valid QuestionRequest request) {
+    public CompletableFuture<List<QuestionResponse>> generateRandomInterviewQuestions(@Valid QuestionRequest request) {
+        return generateRandomInterviewQuestions(request, messages -> openAi.askForAsync(messages, QUESTIONS_OPTIONS, GeneratedQuestions.class));
+    }
+
+    /**
+     * Generates interview questions like {@link #generateRandomInterviewQuestions(QuestionRequest)}, handing every piece
+     * of the generated text to `onChunk` as soon as OpenAI produces it.
+     *
+     * @param request The {@link QuestionRequest} containing the user's preferences for generating questions.
+     * @param onChunk Receives the generated text while it is being streamed.
+     * @return A future completed with the stored {@link QuestionResponse} objects once all questions have been generated.
+     * @throws InvalidWritingException if there is an issue with generating questions, such as missing information or errors.
+     */
+    public CompletableFuture<List<QuestionResponse>> streamRandomInterviewQuestions(@Valid QuestionRequest request,
+                                                                                    Consumer<String> onChunk) {
+        return generateRandomInterviewQuestions(request, messages -> openAi.askStreamFor(messages, QUESTIONS_OPTIONS, GeneratedQuestions.class, onChunk));
+    }
+
+    /**
+     * Validates the question request, builds the prompt and sends it to OpenAI with the given completion call.
+     *
+     * @param request The {@link QuestionRequest} containing the user's preferences for generating questions.
+     * @param completion The OpenAI call used to generate the questions.
+     * @return A future completed with a list of {@link QuestionResponse} objects, representing the generated interview questions.
+     */
+    private CompletableFuture<List<QuestionResponse>> generateRandomInterviewQuestions(QuestionRequest request,
+                                                                                      Function<List<OpenAiMessage>, CompletableFuture<GeneratedQuestions>> completion) {
         // Get the user and profile information.
         Pair<User, Profile> pair = upUtils.getUserAndProfile();
 
@@ -273,25 +355,50 @@ public class InterviewService {
         List<Skill> skills = isTheSkillsExistingOnes(request.getSkills());
         QuestionDifficulty difficulty = request.getDifficulty();
 
+        List<OpenAiMessage> messages;
+
+        try{
+            // Build the prompt for the interview questions based on user preferences.
+            messages = buildInterviewQuestionsMessages(education, experience, skills, difficulty);
+        } catch (Exception e){
+            // Handle exceptions related to question generation.
+            throw buildQuestionsGenerationError(e);
+        }
+
+        // Request interview questions from OpenAI and continue once they are ready.
+        leLogger.info("Asking open ai to generate the interview questions");
+        return completion.apply(messages)
+                .thenApplyAsync(questions -> completeInterviewQuestions(pair.getRight(), education, experience, skills, questions),
+                        withCurrentContext(openAiTaskExecutor));
+    }
+
+    /**
+     * Stores the generated interview questions and deducts a credit from the user's profile.
+     *
+     * @param profile The user's profile for which questions are generated.
+     * @param education The user's education details.
+     * @param experience The user's work experience details.
+     * @param skills The list of skills possessed by the user.
+     * @param answer The generated interview questions.
+     * @return A list of {@link QuestionResponse} objects, representing the generated interview questions.
+     * @throws InvalidWritingException if the generated questions cannot be processed.
+     */
+    private List<QuestionResponse> completeInterviewQuestions(Profile profile, Education education, Experience experience,
+                                                              List<Skill> skills, GeneratedQuestions answer) {
+        leLogger.info("Questions are ready to be sent to the end-client");
         List<Question> questions;
 
         try{
-            // Generate interview questions based on user preferences.
-            questions = generateInterviewQuestions(pair.getRight(), education, experience, skills, difficulty);
+            // Process the generated interview questions.
+            questions = returnQuestionsAfterProcessing(profile, education, experience, skills, answer);
         } catch (Exception e){
             // Handle exceptions related to question generation.
-            leLogger.error(e.getMessage() + "Exception: {} Cause: {}",e, e.getCause());
-            throw new InvalidWritingException(ApiError.builder()
-                    .path(getCurrentRequest())
-                    .error(e.getMessage())
-                    .status(HttpStatus.BAD_REQUEST)
-                    .timestamp(LocalDateTime.now())
-                    .build());
+            throw buildQuestionsGenerationError(e);
         }
 
         // Deduct one credit from the user's balance.
-        pair.getRight().setCredits(pair.getRight().getCredits() - 1);
-        profileRepository.save(pair.getRight());
+        profile.setCredits(profile.getCredits() - 1);
+        profileRepository.save(profile);
 
         // Convert the generated questions to QuestionResponse objects.
         leLogger.info("Questions generating operation successful, returning them to the user");
@@ -301,52 +408,38 @@ public class InterviewService {
     }
 
     /**
-     * Generates an answer for a user's specialized interview question using OpenAI's natural language processing.
+     * Builds the answer for a user's specialized interview question from OpenAI's response.
      *
      * @param request The {@link AnswerRequest} containing the user's question.
+     * @param answer The answer generated by OpenAI.
      * @return An {@link AnswerResponse} object containing the answer, example, and benefits for the user's question.
-     * @throws JSONException if there is an issue with parsing the JSON response from OpenAI.
      */
-    private AnswerResponse generateAnswerForUserQuestion(AnswerRequest request) throws JSONException {
-        // Create a list of OpenAI messages to request an answer.
-        List<OpenAiMessage> messages = new ArrayList<>();
-        messages.add(SYSTEM_ANSWER_SPECIALIZED_INTERVIEW_QUESTION_PROMPT);
-        messages.add(userGenerateSpecializedAnswer(request.getQuestion()));
-
-        // Request an answer from OpenAI.
-        String answer = openAi.ask(messages);
-
-        // Parse the JSON response from OpenAI.
-        JSONObject jsonObject = new JSONObject(answer);
-
+    private AnswerResponse buildAnswerForUserQuestion(AnswerRequest request, GeneratedAnswer answer) {
         // Build an AnswerResponse object with the question, answer, example, and benefits.
         return AnswerResponse.builder()
                 .question(request.getQuestion())
-                .answer(jsonObject.getString("answer"))
-                .example(jsonObject.getString("example"))
-                .benefits(jsonObject.getString("benefits"))
+                .answer(answer.answer())
+                .example(answer.example())
+                .benefits(answer.benefits())
                 .build();
     }
 
     /**
-     * Generates a list of interview questions for a user based on their profile, education, experience, skills, and question difficulty.
+     * Builds the OpenAI messages requesting interview questions based on the user's education, experience, skills, and question difficulty.
      *
-     * @param profile The user's profile for which questions are generated.
      * @param education The user's education details.
      * @param experience The user's work experience details.
      * @param skills The list of skills possessed by the user.
      * @param difficulty The desired difficulty level for the questions.
-     * @return A list of {@link Question} objects representing the generated interview questions.
-     * @throws JSONException if there is an issue with parsing the JSON response from OpenAI.
+     * @return A list of {@link OpenAiMessage} objects requesting the interview questions.
      */
-    private List<Question> generateInterviewQuestions(Profile profile, Education education, Experience experience, List<Skill> skills, QuestionDifficulty difficulty) throws JSONException {
+    private List<OpenAiMessage> buildInterviewQuestionsMessages(Education education, Experience experience, List<Skill> skills, QuestionDifficulty difficulty) {
         leLogger.info("Starting the generation of interview questions");
 
         // Generate prompts based on the user's education and experience.
         String educationPrompt = generateEducatePrompt(education);
         String experiencePrompt = generateExperiencePrompt(experience);
 
-        leLogger.info("Asking open ai to generate the interview questions");
         // Create a list of OpenAI messages to request interview questions.
         List<OpenAiMessage> messages = new ArrayList<>();
 
@@ -358,12 +451,23 @@ public class InterviewService {
                 difficulty
                 ));
 
-        // Request interview questions from OpenAI.
-        String questions = openAi.ask(messages);
-        leLogger.info("Questions are ready to be sent to the end-client");
+        return messages;
+    }
 
-        // Process and return the generated interview questions.
-        return returnQuestionsAfterProcessing(profile, education, experience, skills, questions);
+    /**
+     * Builds the exception raised when interview questions cannot be generated.
+     *
+     * @param e The cause of the failure.
+     * @return An {@link InvalidWritingException} with the error details.
+     */
+    private InvalidWritingException buildQuestionsGenerationError(Exception e) {
+        leLogger.error(e.getMessage() + "Exception: {} Cause: {}",e, e.getCause());
+        return new InvalidWritingException(ApiError.builder()
+                .path(getCurrentRequest())
+                .error(e.getMessage())
+                .status(HttpStatus.BAD_REQUEST)
+                .timestamp(LocalDateTime.now())
+                .build());
     }
 
     /**
@@ -411,21 +515,17 @@ public class InterviewService {
      * @param education The user's education information for context.
      * @param experience The user's experience information for context.
      * @param skill The list of skills to match with questions.
-     * @param questions The JSON string containing the extracted interview questions.
+     * @param questions The generated interview questions.
      * @return A list of saved interview questions.
-     * @throws JSONException if there are issues with parsing the JSON string.
      * @throws InvalidExtractException if no questions are extracted from the response.
      */
     private List<Question> returnQuestionsAfterProcessing(Profile profile, Education education,
-                                                          Experience experience, List<Skill> skill, String questions) throws JSONException {
+                                                          Experience experience, List<Skill> skill, GeneratedQuestions questions) {
         leLogger.info("Starting the questions processing");
-
-        // Parse the JSON string to extract interview questions.
-        JSONObject object = new JSONObject(questions);
-        JSONArray arrayOfQuestions = object.getJSONArray("questions");
+        List<GeneratedQuestions.QuestionItem> arrayOfQuestions = questions.questions();
 
         leLogger.info("Validating the array of questions");
-        if (arrayOfQuestions.length() == 0){
+        if (arrayOfQuestions.isEmpty()){
             // If no questions are extracted, log a warning and throw an exception.
             leLogger.warn("No questions were extracted from the response.");
             throw new InvalidExtractException(ApiError.builder()
@@ -438,10 +538,8 @@ public class InterviewService {
 
         leLogger.info("Extracting and saving each question to the database");
         List<Question> listToReturn = new ArrayList<>();
-        for (int i = 0; i < arrayOfQuestions.length(); i++) {
-            JSONObject questionObj = arrayOfQuestions.getJSONObject(i);
-
-            String skillName = questionObj.getString("skill");
+        for (GeneratedQuestions.QuestionItem questionItem : arrayOfQuestions) {
+            String skillName = questionItem.skill();
             Skill matchingSkill = null;
             for (Skill skillItem : skill) {
                 if (skillItem.getName().equalsIgnoreCase(skillName)) {
@@ -452,10 +550,10 @@ public class InterviewService {
 
             // Create and save a Question object with extracted data.
             Question question = Question.builder()
-                    .skillValue(questionObj.getString("skill"))
-                    .difficulty(QuestionDifficulty.valueOf(questionObj.getString("difficulty").toUpperCase()))
-                    .questionValue(questionObj.getString("question"))
-                    .exampleAnswer(questionObj.getString("answer"))
+                    .skillValue(questionItem.skill())
+                    .difficulty(questionItem.difficulty())
+                    .questionValue(questionItem.question())
+                    .exampleAnswer(questionItem.answer())
                     .experience(experience)
                     .education(education)
                     .skill(matchingSkill)
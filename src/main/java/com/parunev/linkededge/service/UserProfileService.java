@@ -21,9 +21,12 @@ import com.parunev.linkededge.model.payload.profile.skill.ProfileSkillRequest;
 import com.parunev.linkededge.model.payload.profile.skill.SkillResponse;
 import com.parunev.linkededge.openai.OpenAi;
 import com.parunev.linkededge.openai.model.OpenAiMessage;
+import com.parunev.linkededge.openai.model.OpenAiOptions;
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
 import com.parunev.linkededge.repository.*;
 import com.parunev.linkededge.security.exceptions.ResourceNotFoundException;
 import com.parunev.linkededge.security.exceptions.UserProfileException;
+import com.parunev.linkededge.security.jwt.JwtRevocationIndex;
 import com.parunev.linkededge.security.payload.ApiError;
 import com.parunev.linkededge.util.LELogger;
 import com.parunev.linkededge.util.UserProfileUtils;
@@ -36,6 +39,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
@@ -44,11 +48,13 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static com.parunev.linkededge.model.enums.ValidValue.*;
 import static com.parunev.linkededge.openai.OpenAiPrompts.*;
 import static com.parunev.linkededge.util.ConfirmationTokenUtil.isValidToken;
 import static com.parunev.linkededge.util.RequestUtil.getCurrentRequest;
+import static com.parunev.linkededge.util.RequestUtil.withCurrentContext;
 import static com.parunev.linkededge.util.email.EmailPatterns.changeEmailAddress;
 import static com.parunev.linkededge.util.email.EmailPatterns.changeUserPasswordEmail;
 
@@ -69,6 +75,13 @@ import static com.parunev.linkededge.util.email.EmailPatterns.changeUserPassword
 @Validated
 @RequiredArgsConstructor
 public class UserProfileService {
+
+    // Validation answers only depend on the checked value, so they are shared between users through the response cache.
+    private static final OpenAiOptions VALIDATION_OPTIONS = OpenAiOptions.builder()
+            .cacheable(true)
+            .route(OpenAiRoute.VALIDATION)
+            .build();
+
     private final UserRepository userRepository;
     private final ProfileRepository profileRepository;
     private final EducationRepository educationRepository;
@@ -77,10 +90,12 @@ public class UserProfileService {
     private final OrganisationRepository organisationRepository;
     private final QuestionRepository questionRepository;
     private final JwtTokenRepository jwtTokenRepository;
+    private final JwtRevocationIndex revocationIndex;
     private final ConfirmationTokenRepository confirmationTokenRepository;
     private final ModelMapper modelMapper;
     private final PasswordEncoder passwordEncoder;
     private final OpenAi openAi;
+    private final ThreadPoolTaskExecutor openAiTaskExecutor;
     private final UserProfileUtils upUtils;
     private final EmailSender emailSender;
     private final LELogger leLogger = new LELogger(UserProfileService.class);
@@ -289,20 +304,32 @@ public class UserProfileService {
      * Adds a new education entry to the user's profile.
      *
      * @param request The request containing the details of the education to be added.
-     * @return A response indicating the success of the education addition.
+     * @return A future completed with a response indicating the success of the education addition.
      */
-    public ProfileResponse addEducation(@Valid ProfileEducationRequest request){
+    public CompletableFuture<ProfileResponse> addEducation(@Valid ProfileEducationRequest request){
         // Retrieve the user and profile pair using the utility method
         Pair<User,Profile> pair = upUtils.getUserAndProfile();
         leLogger.info("Education creation started for user: {}", pair.getLeft().getUsername());
 
-        // Check the validity of the provided education details using AI validation
-        checkIfValid(VALID_EDUCATION, request.getInstitutionName() + ", " +
+        // Start checking the validity of the provided education details using AI validation
+        CompletableFuture<Void> validation = checkIfValid(VALID_EDUCATION, request.getInstitutionName() + ", " +
                request.getFieldOfStudy() + ", " + request.getDegree());
 
-        // Check if there is sufficient capacity to add additional education entries
+        // Check if there is sufficient capacity to add additional education entries while the validation runs
         checkForCreditsCapacity(pair.getRight().getEducationExtraCapacity());
 
+        // Save the education once it has been validated
+        return validation.thenApplyAsync(valid -> saveEducation(request, pair), withCurrentContext(openAiTaskExecutor));
+    }
+
+    /**
+     * Saves a validated education entry to the user's profile.
+     *
+     * @param request The request containing the details of the education to be added.
+     * @param pair    The user and their profile.
+     * @return A response indicating the success of the education addition.
+     */
+    private ProfileResponse saveEducation(ProfileEducationRequest request, Pair<User,Profile> pair){
         // Create an Education object with the provided details
         Education education = Education.builder()
                .profile(pair.getRight())
@@ -368,19 +395,33 @@ public class UserProfileService {
      * Adds a new work experience to the user's profile.
      *
      * @param request The request object containing information about the experience to be added.
-     * @return A response indicating the successful addition of the experience.
+     * @return A future completed with a response indicating the successful addition of the experience.
      * @throws UserProfileException if the operation fails or user exceeds their allowed capacity for experiences.
      */
-    public ProfileResponse addExperience(@Valid ProfileExperienceRequest request){
+    public CompletableFuture<ProfileResponse> addExperience(@Valid ProfileExperienceRequest request){
         // Retrieve the user and profile pair using the utility method
         Pair<User,Profile> pair = upUtils.getUserAndProfile();
         leLogger.info("Experience creation started for user: {}", pair.getLeft().getUsername());
 
-        // Check if the provided experience information is valid
-        checkIfValid(VALID_EXPERIENCE, "Job Title: " + request.getTitle() + ", " + request.getDescription());
+        // Start checking if the provided experience information is valid
+        CompletableFuture<Void> validation =
+                checkIfValid(VALID_EXPERIENCE, "Job Title: " + request.getTitle() + ", " + request.getDescription());
 
-        // Check if the user exceeds their allowed capacity for experiences
+        // Check if the user exceeds their allowed capacity for experiences while the validation runs
         checkForCreditsCapacity(pair.getRight().getExperienceExtraCapacity());
+
+        // Save the experience once it has been validated
+        return validation.thenApplyAsync(valid -> saveExperience(request, pair), withCurrentContext(openAiTaskExecutor));
+    }
+
+    /**
+     * Saves a validated work experience to the user's profile.
+     *
+     * @param request The request object containing information about the experience to be added.
+     * @param pair    The user and their profile.
+     * @return A response indicating the successful addition of the experience.
+     */
+    private ProfileResponse saveExperience(ProfileExperienceRequest request, Pair<User,Profile> pair){
         leLogger.info("Experience creation started for user {}", pair.getLeft().getUsername());
 
         // Create an Organisation object associated with the user's profile
@@ -452,10 +493,10 @@ public class UserProfileService {
      * Adds a new skill to the user's profile.
      *
      * @param request The request containing the skill information to be added.
-     * @return A response indicating the successful addition of the skill to the user's profile.
+     * @return A future completed with a response indicating the successful addition of the skill to the user's profile.
      * @throws UserProfileException if the skill is invalid, the user has exceeded their skill capacity, or if the skill already exists.
      */
-    public ProfileResponse addSkill(@Valid ProfileSkillRequest request){
+    public CompletableFuture<ProfileResponse> addSkill(@Valid ProfileSkillRequest request){
         // Retrieve the user and profile pair using the utility method
         Pair<User,Profile> pair = upUtils.getUserAndProfile();
         leLogger.info("ProfileSkillRequest received for user: {}", pair.getLeft().getUsername());
@@ -464,11 +505,23 @@ public class UserProfileService {
 
         // Check if the skill name is valid
         checkForCreditsCapacity(pair.getRight().getSkillExtraCapacity());
-        checkIfValid(VALID_SKILL, request.getName());
+        CompletableFuture<Void> validation = checkIfValid(VALID_SKILL, request.getName());
 
-        // Check if the skill already exists for the user
+        // Check if the skill already exists for the user while the validation runs
         checkForExistingSkill(pair.getRight(), request);
 
+        // Save the skill once it has been validated
+        return validation.thenApplyAsync(valid -> saveSkill(request, pair), withCurrentContext(openAiTaskExecutor));
+    }
+
+    /**
+     * Saves a validated skill to the user's profile.
+     *
+     * @param request The request containing the skill information to be added.
+     * @param pair    The user and their profile.
+     * @return A response indicating the successful addition of the skill to the user's profile.
+     */
+    private ProfileResponse saveSkill(ProfileSkillRequest request, Pair<User,Profile> pair){
         leLogger.info("Skill creation started for user {}", pair.getLeft().getUsername());
 
         // Create a new Skill object with the provided information and save it to the database
@@ -722,13 +775,14 @@ public class UserProfileService {
 
     /**
      * Check if a provided value is valid using OpenAI's GPT-3.5 Turbo model and predefined validation prompts.
+     * The check runs asynchronously, so the caller can carry on with its local checks in the meantime.
      *
      * @param value    The type of value to validate, e.g., skill, education, or experience.
      * @param toCheck  The value to be validated.
-     *
-     * @throws UserProfileException When the provided value is determined to be invalid.
+     * @return A future completed once the value is validated, or exceptionally with a {@link UserProfileException}
+     * when the provided value is determined to be invalid.
      */
-    private void checkIfValid(ValidValue value, String toCheck) {
+    private CompletableFuture<Void> checkIfValid(ValidValue value, String toCheck) {
         List<OpenAiMessage> messages = new ArrayList<>();
         String errorMessage = null;
 
@@ -751,35 +805,41 @@ public class UserProfileService {
         }
 
         // Use OpenAI's GPT-3.5 Turbo model to ask validation questions and retrieve the answer.
-        String answer = openAi.ask(messages);
-
-        // If the answer from the model is "no," it indicates validation failure.
-        if (answer.equals("no")) {
-            leLogger.warn("Validation failed: {}", errorMessage);
-            throw new UserProfileException(buildError(errorMessage, HttpStatus.BAD_REQUEST));
-        } else {
-            leLogger.info("Validation passed for: {}", toCheck);
-        }
+        final String validationError = errorMessage;
+        return openAi.askAsync(messages, VALIDATION_OPTIONS).thenAcceptAsync(answer -> {
+            // If the answer from the model is "no," it indicates validation failure.
+            if (answer.equals("no")) {
+                leLogger.warn("Validation failed: {}", validationError);
+                throw new UserProfileException(buildError(validationError, HttpStatus.BAD_REQUEST));
+            } else {
+                leLogger.info("Validation passed for: {}", toCheck);
+            }
+        }, withCurrentContext(openAiTaskExecutor));
     }
 
     /**
      * Delete and revoke all JWT tokens associated with a user.
      *
      * @param user The user for whom JWT tokens need to be revoked and deleted.
+     * @return The number of deleted tokens.
      */
-    private void deleteUserJwtTokens(User user) {
+    private int deleteUserJwtTokens(User user) {
         leLogger.warn("Revoking and deleting any tokens related to {}", user.getUsername());
 
-        // Retrieve all valid JWT tokens associated with the user.
-        List<JwtToken> tokens = jwtTokenRepository.findAllValidTokenByUserId(user.getId());
+        // Retrieve the values of all valid JWT tokens associated with the user.
+        List<String> tokenValues = jwtTokenRepository.findAllUnrevokedTokenValuesByUserId(user.getId());
 
-        if (tokens.isEmpty()){
+        if (tokenValues.isEmpty()){
             leLogger.info("No tokens found to delete");
-            return;
+            return 0;
         }
 
-        // Delete all tokens found, effectively revoking them.
-        jwtTokenRepository.deleteAll(tokens);
+        // Delete all tokens found with a single bulk delete, effectively revoking them.
+        int deleted = jwtTokenRepository.deleteAllUnrevokedByUserId(user.getId());
+        revocationIndex.revokeAll(tokenValues);
+
+        leLogger.info("Deleted {} tokens for user: {}", deleted, user.getUsername());
+        return deleted;
     }
 
     private ApiError buildError(String message, HttpStatus status){
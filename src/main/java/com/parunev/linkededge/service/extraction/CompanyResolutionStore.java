@@ -0,0 +1,170 @@
+package com.parunev.linkededge.service.extraction;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.parunev.linkededge.model.job.CompanyIndustry;
+import com.parunev.linkededge.model.job.CompanyResolution;
+import com.parunev.linkededge.model.job.CompanySpecialty;
+import com.parunev.linkededge.repository.CompanyResolutionRepository;
+import com.parunev.linkededge.util.LELogger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.parunev.linkededge.service.extraction.ExtractionConstants.NOT_PRESENT;
+
+/**
+ * @Description: Stores every company once per universal name and shares it between the jobs it posted.
+ * <p>
+ * Companies are looked up in a size bounded in-memory cache first, then in the database. A company fetched longer
+ * ago than `lix.company-cache.freshness` is refreshed in place from the job being extracted, a company seen for the
+ * first time is saved. Loads of the same company are serialized by the cache, so concurrent extractions of jobs of
+ * a new company save it once per instance. Companies without a universal name cannot be told apart and are saved
+ * per job. Hit and miss counts are published under the `lix.companies` cache metrics.
+ * <p>
+ * Cached companies are detached, with their specialties and industries loaded.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Component
+public class CompanyResolutionStore implements MeterBinder {
+
+    static final String CACHE_NAME = "lix.companies";
+
+    private final CompanyResolutionRepository companyResolutionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration freshness;
+    private final Cache<String, CompanyResolution> cache; // Companies keyed by their universal name
+    private final LELogger leLogger = new LELogger(CompanyResolutionStore.class);
+
+    /**
+     * Constructor for the CompanyResolutionStore class.
+     *
+     * @param companyResolutionRepository The repository the companies are stored in.
+     * @param transactionTemplate         The template the lookups and writes run in.
+     * @param maximumSize                 The maximum number of companies kept in memory.
+     * @param ttl                         How long a company is kept in memory, in milliseconds.
+     * @param freshness                   How long a fetched company is reused before it is refreshed, in milliseconds.
+     */
+    public CompanyResolutionStore(CompanyResolutionRepository companyResolutionRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${lix.company-cache.maximum-size}") long maximumSize,
+                                  @Value("${lix.company-cache.ttl}") long ttl,
+                                  @Value("${lix.company-cache.freshness}") long freshness) {
+        this.companyResolutionRepository = companyResolutionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.freshness = Duration.ofMillis(freshness);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Math.min(ttl, freshness), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the stored company with the given universal name, saving or refreshing it with the extracted one
+     * when it is missing or stale.
+     *
+     * @param universalName The universal name of the company.
+     * @param extractor     Extracts the company from the job being processed, called only when it has to be written.
+     * @return The stored company.
+     */
+    public CompanyResolution resolve(String universalName, Supplier<CompanyResolution> extractor) {
+        if (universalName == null || universalName.isBlank() || NOT_PRESENT.getValue().equals(universalName)) {
+            return transactionTemplate.execute(status -> save(extractor.get()));
+        }
+
+        CompanyResolution cached = cache.getIfPresent(universalName);
+        if (cached != null) {
+            if (isFresh(cached)) {
+                return cached;
+            }
+            cache.asMap().remove(universalName, cached);
+        }
+
+        try {
+            return cache.get(universalName, () -> transactionTemplate.execute(status -> load(universalName, extractor)));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Registers the cache statistics (hits, misses, evictions, size) with the meter registry.
+     *
+     * @param registry The meter registry to bind to.
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private CompanyResolution load(String universalName, Supplier<CompanyResolution> extractor) {
+        Optional<CompanyResolution> stored = companyResolutionRepository
+                .findFirstByCompanyUniversalNameOrderByFetchedAtDesc(universalName);
+
+        if (stored.isEmpty()) {
+            leLogger.info("Saving company {}", universalName);
+            return save(extractor.get());
+        }
+
+        CompanyResolution company = stored.get();
+        if (!isFresh(company)) {
+            leLogger.info("Refreshing company {}, fetched at {}", universalName, company.getFetchedAt());
+            refresh(company, extractor.get());
+        }
+
+        // Load the children while the session is open, the company is used detached afterwards.
+        Hibernate.initialize(company.getSpecialties());
+        Hibernate.initialize(company.getIndustries());
+        return company;
+    }
+
+    private CompanyResolution save(CompanyResolution company) {
+        company.setFetchedAt(LocalDateTime.now());
+        return companyResolutionRepository.save(company);
+    }
+
+    private void refresh(CompanyResolution company, CompanyResolution extracted) {
+        company.setCompanyName(extracted.getCompanyName());
+        company.setCompanyUrl(extracted.getCompanyUrl());
+        company.setCompanyDescription(extracted.getCompanyDescription());
+        company.setCompanyStaffCount(extracted.getCompanyStaffCount());
+        company.setCompanyHeadquarter(extracted.getCompanyHeadquarter());
+        company.setFetchedAt(LocalDateTime.now());
+
+        // The collections are replaced in place, so orphan removal deletes the previous rows.
+        company.getSpecialties().clear();
+        for (CompanySpecialty specialty : extracted.getSpecialties()) {
+            specialty.setCompanyResolution(company);
+            company.getSpecialties().add(specialty);
+        }
+        company.getIndustries().clear();
+        for (CompanyIndustry industry : extracted.getIndustries()) {
+            industry.setCompanyResolution(company);
+            company.getIndustries().add(industry);
+        }
+    }
+
+    private boolean isFresh(CompanyResolution company) {
+        return company.getFetchedAt() != null
+                && company.getFetchedAt().isAfter(LocalDateTime.now().minus(freshness));
+    }
+}
@@ -13,14 +13,16 @@ import lombok.Getter;
 public enum ExtractionConstants {
 
     /**
-     * Constant representing the URL for profile retrieval using the "profile_link" query parameter.
+     * Constant representing the path for profile retrieval using the "profile_link" query parameter,
+     * relative to `lix.base-url`.
      */
-    PROFILE_RETRIEVAL_URL("https://api.lix-it.com/v1/person?profile_link="),
+    PROFILE_RETRIEVAL_URL("/v1/person?profile_link="),
 
     /**
-     * Constant representing the URL for job retrieval using the "job_id" query parameter.
+     * Constant representing the path for job retrieval using the "job_id" query parameter,
+     * relative to `lix.base-url`.
      */
-    JOB_RETRIEVAL_URL("https://api.lix-it.com/v1/enrich/job?job_id="),
+    JOB_RETRIEVAL_URL("/v1/enrich/job?job_id="),
 
     /**
      * Default value for missing or unspecified data.
@@ -17,6 +17,7 @@ import org.springframework.boot.configurationprocessor.json.JSONException;
 import org.springframework.boot.configurationprocessor.json.JSONObject;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
@@ -46,7 +47,10 @@ public class ExtractionService {
 
     @Value("${lix.authorization.key}")
     private String lixKey;
+    @Value("${lix.base-url}")
+    private String lixBaseUrl;
     private final RestTemplate restTemplate;
+    private final TransactionTemplate transactionTemplate;
     private final ProfileRepository profileRepository;
 
     // PROFILE RELATED
@@ -56,12 +60,8 @@ public class ExtractionService {
     private final SkillRepository skillRepository;
 
     // JOB RELATED
-    private final CompanyIndustryRepository companyIndustryRepository;
-    private final CompanyResolutionRepository companyResolutionRepository;
-    private final CompanySpecialtyRepository companySpecialtyRepository;
+    private final CompanyResolutionStore companyResolutionStore;
     private final JobRepository jobRepository;
-    private final JobFunctionRepository jobFunctionRepository;
-    private final JobIndustryRepository jobIndustryRepository;
 
     private final LELogger leLogger = new LELogger(ExtractionService.class);
 
@@ -105,7 +105,10 @@ public class ExtractionService {
      * Proceeds with the creation of a Job object from JSON response data.
      * <p>
      * This method processes the JSON response data to create a Job object associated with the provided profile.
-     * It extracts relevant information from the JSON data, constructs a Job object, and saves it to the database.
+     * It extracts relevant information from the JSON data and builds the job with its functions and industries in
+     * memory. The company is resolved from the {@link CompanyResolutionStore} and shared with the other jobs of the
+     * same company. The job is then saved in one transaction, the cascades persist its children, and Hibernate sends
+     * the inserts as JDBC batches. Should any insert fail, nothing of the job is saved.
      *
      * @param jsonResponse The JSON response containing job-related information.
      * @param profile      The profile to which the job is associated.
@@ -129,109 +132,107 @@ public class ExtractionService {
                 .jobPostingId(rootNode.get("jobPostingId") != null ? rootNode.get("jobPostingId").asText() : NOT_PRESENT.getValue())
                 .build();
 
-        // Save the Job object to the database.
-        jobRepository.save(job);
-        leLogger.debug("Job created and saved successfully");
+        // Extract the associated JobFunctions, JobIndustries and the CompanyResolution.
+        job.setFunctions(extractFunctions(job, rootNode.path("formattedJobFunctions")));
+        job.setIndustries(extractIndustries(job, rootNode.path("formattedIndustries")));
+        CompanyResolution companyResolution = createCompanyResolution(rootNode);
+        job.setCompanyResolution(companyResolution);
 
-        // Extract and save associated JobFunctions and JobIndustries.
-        List<JobFunction> functions = extractAndSaveFunctions(job, rootNode.path("formattedJobFunctions"));
-        List<JobIndustry> industries = extractAndSaveIndustries(job, rootNode.path("formattedIndustries"));
-        createCompanyResolution(rootNode, job);
-
-        // Set the extracted functions and industries to the job.
-        if (!functions.isEmpty()){
-            job.setFunctions(functions);
-        }
-
-        if (!industries.isEmpty()){
-            job.setIndustries(industries);
-        }
-
-        // Save the updated Job object.
-        jobRepository.save(job);
+        // Save the job graph in one transaction, the cascades save the children.
+        transactionTemplate.execute(status -> jobRepository.save(job));
 
+        leLogger.info("Saved job {} with {} functions, {} industries and company {}", job.getId(),
+                job.getFunctions().size(), job.getIndustries().size(), companyResolution.getCompanyUniversalName());
         return job;
     }
 
     /**
-     * Extracts and saves JobIndustry objects associated with a job from a JSON node.
+     * Extracts JobIndustry objects associated with a job from a JSON node.
      * <p>
      * This method processes a JSON node containing information about job industries. For each industry in the JSON node,
-     * it creates a JobIndustry object, associates it with the provided job, and saves it to the database.
+     * it creates a JobIndustry object and associates it with the provided job. The industries are saved with the job.
      *
      * @param job     The job to which the job industries belong.
      * @param rootNode The JSON node containing information about job industries.
-     * @return A list of the saved JobIndustry objects.
+     * @return A list of the JobIndustry objects.
      */
-    private List<JobIndustry> extractAndSaveIndustries(Job job, JsonNode rootNode) {
+    private List<JobIndustry> extractIndustries(Job job, JsonNode rootNode) {
         List<JobIndustry> toReturn = new ArrayList<>();
         if (rootNode.isArray()){
             for (JsonNode industry : rootNode){
-                // Create a JobIndustry object, associate it with the job, and save it to the database.
-                JobIndustry jobIndustry = JobIndustry.builder()
+                // Create a JobIndustry object and associate it with the job.
+                toReturn.add(JobIndustry.builder()
                         .job(job)
                         .jobIndustryName(industry.asText())
-                        .build();
-                jobIndustryRepository.save(jobIndustry);
-                toReturn.add(jobIndustry);
+                        .build());
             }
         }
-        leLogger.info("Extracted and saved {} industries for job {}", toReturn.size(), job.getId());
         return toReturn;
     }
 
     /**
-     * Extracts and saves JobFunction objects associated with a job from a JSON node.
+     * Extracts JobFunction objects associated with a job from a JSON node.
      * <p>
      * This method processes a JSON node containing information about job functions. For each function in the JSON node,
-     * it creates a JobFunction object, associates it with the provided job, and saves it to the database.
+     * it creates a JobFunction object and associates it with the provided job. The functions are saved with the job.
      *
      * @param job     The job to which the job functions belong.
      * @param rootNode The JSON node containing information about job functions.
-     * @return A list of the saved JobFunction objects.
+     * @return A list of the JobFunction objects.
      */
-    private List<JobFunction> extractAndSaveFunctions(Job job, JsonNode rootNode) {
+    private List<JobFunction> extractFunctions(Job job, JsonNode rootNode) {
         List<JobFunction> toReturn = new ArrayList<>();
         if (rootNode.isArray()){
             for (JsonNode function : rootNode){
-
-                // Create a JobFunction object, associate it with the job, and save it to the database.
-                JobFunction jobFunction = JobFunction.builder()
+                // Create a JobFunction object and associate it with the job.
+                toReturn.add(JobFunction.builder()
                         .job(job)
                         .jobFunctionName(function.asText())
-                        .build();
-                jobFunctionRepository.save(jobFunction);
-                toReturn.add(jobFunction);
+                        .build());
             }
         }
-        leLogger.info("Extracted and saved {} functions for job {}", toReturn.size(), job.getId());
         return toReturn;
     }
 
     /**
-     * Creates and saves a CompanyResolution object associated with a job based on JSON node data.
+     * Resolves the CompanyResolution of a job based on JSON node data.
      * <p>
-     * This method processes JSON data related to company details and creates a CompanyResolution object for the given job.
-     * It extracts information about the company, including its name, URL, description, staff count, and headquarters.
-     * It also extracts and saves specialties and industries associated with the company.
+     * Companies are shared between jobs, keyed by their universal name. The stored company is reused as long as it is
+     * fresh, and only a new or stale company is extracted from the JSON data and written.
      *
      * @param rootNode The JSON node containing company details and resolution information.
-     * @param job      The job to which the company resolution belongs.
+     * @return The stored CompanyResolution object.
      */
-    private void createCompanyResolution(JsonNode rootNode, Job job) {
+    private CompanyResolution createCompanyResolution(JsonNode rootNode) {
         // Extract the company resolution result node.
         JsonNode companyResolutionResultNode = rootNode
                 .path("companyDetails")
                 .path("com.linkedin.voyager.deco.jobs.web.shared.WebJobPostingCompany")
                 .path("companyResolutionResult");
 
+        String universalName = companyResolutionResultNode.get("universalName") != null
+                ? companyResolutionResultNode.get("universalName").asText() : NOT_PRESENT.getValue();
+        return companyResolutionStore.resolve(universalName,
+                () -> extractCompanyResolution(companyResolutionResultNode, universalName));
+    }
+
+    /**
+     * Extracts a CompanyResolution object from JSON node data.
+     * <p>
+     * This method extracts information about the company, including its name, URL, description, staff count, and
+     * headquarters. It also extracts the specialties and industries associated with the company, which are saved with it.
+     *
+     * @param companyResolutionResultNode The JSON node containing the company resolution information.
+     * @param universalName               The universal name of the company.
+     * @return The CompanyResolution object.
+     */
+    private CompanyResolution extractCompanyResolution(JsonNode companyResolutionResultNode, String universalName) {
         // Create a formatted string representing the company's headquarters.
         String headquarters = createHeadquarters(companyResolutionResultNode.path("headquarter"));
 
-        // Build the CompanyResolution object and save it to the database.
+        // Build the CompanyResolution object.
         CompanyResolution companyResolution = CompanyResolution.builder()
-                .job(job)
-                .companyUniversalName(companyResolutionResultNode.get("universalName") != null ? companyResolutionResultNode.get("universalName").asText() : NOT_PRESENT.getValue())
+                .companyUniversalName(universalName)
                 .companyName(companyResolutionResultNode.get(NAME.getValue())!= null ? companyResolutionResultNode.get(NAME.getValue()).asText() : NOT_PRESENT.getValue())
                 .companyUrl(companyResolutionResultNode.get("url")!= null ? companyResolutionResultNode.get("url").asText() : NOT_PRESENT.getValue())
                 .companyDescription(companyResolutionResultNode.get(DESCRIPTION.getValue())!= null ? companyResolutionResultNode.get(DESCRIPTION.getValue()).asText() : NOT_PRESENT.getValue())
@@ -239,59 +240,58 @@ public class ExtractionService {
                 .companyHeadquarter(headquarters)
                 .build();
 
-        // Save the CompanyResolution object to the database.
-        companyResolutionRepository.save(companyResolution);
-
-        // Extract and save company specialties and industries.
-        extractCompanySpecialties(companyResolution, companyResolutionResultNode.path("specialities"));
-        extractCompanyIndustries(companyResolution, companyResolutionResultNode.path("industries"));
-        leLogger.info("Created and saved company resolutions for job {}", job.getId());
+        // Extract company specialties and industries.
+        companyResolution.setSpecialties(extractCompanySpecialties(companyResolution, companyResolutionResultNode.path("specialities")));
+        companyResolution.setIndustries(extractCompanyIndustries(companyResolution, companyResolutionResultNode.path("industries")));
+        return companyResolution;
     }
 
     /**
-     * Extracts and saves CompanyIndustry objects associated with a CompanyResolution from a JSON node.
+     * Extracts CompanyIndustry objects associated with a CompanyResolution from a JSON node.
      * <p>
      * This method processes a JSON node containing information about company industries. For each industry in the JSON node,
-     * it creates a CompanyIndustry object, associates it with the provided CompanyResolution, and saves it to the database.
+     * it creates a CompanyIndustry object and associates it with the provided CompanyResolution.
      *
      * @param companyResolution The CompanyResolution to which the company industries belong.
      * @param industries        The JSON node containing information about company industries.
+     * @return A list of the CompanyIndustry objects.
      */
-    private void extractCompanyIndustries(CompanyResolution companyResolution, JsonNode industries) {
+    private List<CompanyIndustry> extractCompanyIndustries(CompanyResolution companyResolution, JsonNode industries) {
+        List<CompanyIndustry> toReturn = new ArrayList<>();
         if (industries.isArray()){
             for (JsonNode industry : industries){
-                // Create a CompanyIndustry object, associate it with the CompanyResolution, and save it to the database.
-                CompanyIndustry companyIndustry = CompanyIndustry.builder()
+                // Create a CompanyIndustry object and associate it with the CompanyResolution.
+                toReturn.add(CompanyIndustry.builder()
                         .companyResolution(companyResolution)
                         .industryName(industry.asText())
-                        .build();
-                companyIndustryRepository.save(companyIndustry);
+                        .build());
             }
         }
-        leLogger.info("Extracted and saved {} industries for company resolution {}", industries.size(), companyResolution.getId());
+        return toReturn;
     }
 
     /**
-     * Extracts and saves CompanySpecialty objects associated with a CompanyResolution from a JSON node.
+     * Extracts CompanySpecialty objects associated with a CompanyResolution from a JSON node.
      * <p>
      * This method processes a JSON node containing information about company specialties. For each specialty in the JSON node,
-     * it creates a CompanySpecialty object, associates it with the provided CompanyResolution, and saves it to the database.
+     * it creates a CompanySpecialty object and associates it with the provided CompanyResolution.
      *
      * @param companyResolution The CompanyResolution to which the company specialties belong.
      * @param specialities      The JSON node containing information about company specialties.
+     * @return A list of the CompanySpecialty objects.
      */
-    private void extractCompanySpecialties(CompanyResolution companyResolution, JsonNode specialities) {
+    private List<CompanySpecialty> extractCompanySpecialties(CompanyResolution companyResolution, JsonNode specialities) {
+        List<CompanySpecialty> toReturn = new ArrayList<>();
         if (specialities.isArray()){
             for (JsonNode specialty : specialities){
-                // Create a CompanySpecialty object, associate it with the CompanyResolution, and save it to the database.
-                CompanySpecialty companySpecialty = CompanySpecialty.builder()
+                // Create a CompanySpecialty object and associate it with the CompanyResolution.
+                toReturn.add(CompanySpecialty.builder()
                         .companyResolution(companyResolution)
                         .specialtyName(specialty.asText())
-                        .build();
-                companySpecialtyRepository.save(companySpecialty);
+                        .build());
             }
         }
-        leLogger.info("Extracted and saved {} specialties for company resolution {}", specialities.size(), companyResolution.getId());
+        return toReturn;
     }
 
     /**
@@ -345,7 +345,9 @@ public class ExtractionService {
      * This method takes processed JSON data from a LinkedIn profile and creates a user profile object. It extracts
      * information about the user, including their name, location, description, image URL, sales navigation link, and
      * account link. The resulting user profile also includes details about the user's skills, experiences, and education.
-     * All of this information is saved to the database.
+     * The whole graph is built in memory first and then saved in one transaction with `saveAll`, so Hibernate sends
+     * the inserts of every entity type as JDBC batches. The UUID identifiers are generated in memory and do not need
+     * a round trip per row.
      *
      * @param obj  The JSON object containing processed profile information.
      * @param user The user for whom the profile is being created.
@@ -367,24 +369,38 @@ public class ExtractionService {
                 .salesNavLink(obj.has(SALES_NAV_LINK.getValue()) ? obj.getString(SALES_NAV_LINK.getValue()) : NOT_PRESENT.getValue())
                 .accountLink(obj.has(ACCOUNT_LINK.getValue()) ? obj.getString(ACCOUNT_LINK.getValue()) : NOT_PRESENT.getValue())
                 .build();
-        profileRepository.save(profile);
 
-        // Extract and save user's skills, experiences, and education.
+        // Extract user's skills, experiences, and education.
         List<Skill> skills = extractSkills(obj, profile);
         List<Experience> experiences = extractExperience(obj, profile);
         List<Education> educations = extractEducation(obj, profile);
+        List<Organisation> organisations = experiences.stream()
+                .map(Experience::getOrganisation)
+                .toList();
+
+        // Save the profile and its graph in one transaction, organisations before the experiences referencing them.
+        transactionTemplate.execute(status -> {
+            profileRepository.save(profile);
+            skillRepository.saveAll(skills);
+            organisationRepository.saveAll(organisations);
+            experienceRepository.saveAll(experiences);
+            educationRepository.saveAll(educations);
+            return profile;
+        });
+
         profile.setSkill(skills);
         profile.setExperience(experiences);
         profile.setEducation(educations);
-        profileRepository.save(profile);
+        leLogger.info("Saved profile with {} skills, {} experiences and {} educations",
+                skills.size(), experiences.size(), educations.size());
     }
 
     /**
-     * Extracts and saves Skill objects from processed JSON data.
+     * Extracts Skill objects from processed JSON data.
      * <p>
      * This method processes JSON data to extract information about a user's skills. It iterates through a JSON array of
      * skills, creates Skill objects for each skill, and associates them with the provided user profile. The Skill objects
-     * are then saved to the database.
+     * are saved together with the profile.
      *
      * @param jsonObject The JSON object containing processed user profile data.
      * @param profile    The user profile to which the skills belong.
@@ -408,7 +424,6 @@ public class ExtractionService {
                     .name(obj.has(NAME.getValue()) ? obj.getString(NAME.getValue()) : NOT_PRESENT.getValue())
                     .numOfEndorsement(obj.has("numOfEndorsement") ? Integer.parseInt(obj.getString("numOfEndorsement")) : 0)
                     .build();
-            skillRepository.save(skill);
             skillList.add(skill);
         }
 
@@ -416,12 +431,12 @@ public class ExtractionService {
     }
 
     /**
-     * Extracts and saves Experience objects from processed JSON data.
+     * Extracts Experience objects from processed JSON data.
      * <p>
      * This method processes JSON data to extract information about a user's professional experiences. It iterates through
      * a JSON array of experiences, creates Experience objects for each experience, and associates them with the provided
      * user profile. Additionally, it extracts and associates details about the organization where the user gained
-     * experience. The Experience and Organization objects are then saved to the database.
+     * experience. The Experience and Organization objects are saved together with the profile.
      *
      * @param jsonObject The JSON object containing processed user profile data.
      * @param profile    The user profile to which the experiences belong.
@@ -448,7 +463,6 @@ public class ExtractionService {
                     .salesNavLink(orgObj.has(SALES_NAV_LINK.getValue())
                             ? orgObj.getString(SALES_NAV_LINK.getValue()) : NOT_PRESENT.getValue())
                     .build();
-            organisationRepository.save(organisation);
 
             Experience experience = Experience.builder()
                     .profile(profile)
@@ -459,7 +473,6 @@ public class ExtractionService {
                     .location(expObj.has(LOCATION.getValue()) ? expObj.getString(LOCATION.getValue()) : NOT_PRESENT.getValue())
                     .organisation(organisation)
                     .build();
-            experienceRepository.save(experience);
             experienceList.add(experience);
         }
 
@@ -467,12 +480,12 @@ public class ExtractionService {
     }
 
     /**
-     * Extracts and saves Education objects from processed JSON data.
+     * Extracts Education objects from processed JSON data.
      * <p>
      * This method processes JSON data to extract information about a user's educational background. It iterates through a
      * JSON array of education records, creates Education objects for each record, and associates them with the provided
      * user profile. The Education objects represent details such as institution name, degree, field of study, and dates
-     * of study. These Education objects are then saved to the database.
+     * of study. These Education objects are saved together with the profile.
      *
      * @param jsonObject The JSON object containing processed user profile data.
      * @param profile    The user profile to which the education records belong.
@@ -498,7 +511,6 @@ public class ExtractionService {
                     .dateStarted(eduObj.has(DATE_STARTED.getValue()) ? eduObj.getString(DATE_STARTED.getValue()) : NOT_PRESENT.getValue())
                     .dateEnded(eduObj.has(DATE_ENDED.getValue()) ? eduObj.getString(DATE_ENDED.getValue()) : NOT_PRESENT.getValue())
                     .build();
-            educationRepository.save(education);
             educationList.add(education);
         }
 
@@ -515,7 +527,7 @@ public class ExtractionService {
      * @see <a href="https://lix-it.com">LixApi - Scrapes various pages from LinkedIn</a>
      *
      * @param link     The link or path to the specific data resource.
-     * @param endpoint The base endpoint URL to which the link is appended.
+     * @param endpoint The endpoint path, appended to `lix.base-url`, to which the link is appended.
      * @return A Pair containing the HTTP status code and the response body.
      */
     private Pair<HttpStatusCode, String> collectedData(String link, String endpoint){
@@ -527,7 +539,7 @@ public class ExtractionService {
 
         try {
             ResponseEntity<String> response = restTemplate.exchange(
-                    endpoint + link,
+                    lixBaseUrl + endpoint + link,
                     HttpMethod.GET,
                     entity,
                     String.class
@@ -0,0 +1,261 @@
+package com.parunev.linkededge.service.metering;
+
+import com.parunev.linkededge.model.OpenAiUsage;
+import com.parunev.linkededge.model.Profile;
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
+import com.parunev.linkededge.openai.usage.OpenAiUsageRecorder;
+import com.parunev.linkededge.repository.OpenAiUsageRepository;
+import com.parunev.linkededge.repository.ProfileRepository;
+import com.parunev.linkededge.util.LELogger;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Description: The `OpenAiUsageMeter` class meters the tokens OpenAI calls use, per user, endpoint, model and route.
+ * <p>
+ * Recording a call only adds to {@link LongAdder} counters, so the threads completing OpenAI calls never wait for
+ * the database. The counters are flushed periodically: the usage recorded since the previous flush
+ * is written to the `OPENAI_USAGE` table in batches, one row per user, endpoint, model and route, with the profile
+ * of the user resolved once per flush. Usage that could not be written is kept and written with the next flush.
+ * Keys idle for a whole interval are forgotten; a call recorded while its key is forgotten goes to a new key instead.
+ * Every node writes its own rows, totals are the sums over the rows, see {@link OpenAiUsageRepository}.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Service
+@RequiredArgsConstructor
+public class OpenAiUsageMeter implements OpenAiUsageRecorder {
+
+    @Value("${openai.usage.batch-size}")
+    private int batchSize;
+
+    @Value("${openai.usage.max-pending}")
+    private int maxPending;
+
+    private final OpenAiUsageRepository openAiUsageRepository;
+    private final ProfileRepository profileRepository;
+    private final Map<UsageKey, Counters> counters = new ConcurrentHashMap<>();
+    private final Deque<OpenAiUsage> pending = new ArrayDeque<>(); // Rows a failed flush could not write, guarded by `this`
+    private LocalDateTime periodStart = LocalDateTime.now(); // Guarded by `this`
+    private final LELogger leLogger = new LELogger(OpenAiUsageMeter.class);
+
+    @Override
+    public void record(String username, String endpoint, String model, OpenAiRoute route, int promptTokens, int completionTokens) {
+        UsageKey key = new UsageKey(username, endpoint, model, route);
+        while (true) {
+            Counters usage = counters.get(key);
+            if (usage == null) {
+                usage = counters.computeIfAbsent(key, k -> new Counters());
+            }
+
+            if (!usage.enter()) {
+                // Retired by a flush that found the key idle, record the call in the counters that replace them.
+                counters.remove(key, usage);
+                continue;
+            }
+            try {
+                // Tokens first: a flush that sees the call sees its tokens as well.
+                usage.promptTokens.add(promptTokens);
+                usage.completionTokens.add(completionTokens);
+                usage.calls.increment();
+            } finally {
+                usage.exit();
+            }
+            return;
+        }
+    }
+
+    /**
+     * Write the usage recorded since the previous flush.
+     */
+    @Scheduled(fixedDelayString = "${openai.usage.flush-interval}", initialDelayString = "${openai.usage.flush-interval}")
+    public synchronized void flush() {
+        LocalDateTime periodEnd = LocalDateTime.now();
+        List<OpenAiUsage> rows = new ArrayList<>();
+
+        counters.forEach((key, usage) -> {
+            Delta delta = usage.drain();
+            if (delta.isEmpty() && usage.retire()) {
+                // Idle since the previous flush, forget the key. Once retired no call can be added to the counters,
+                // so reading them once more picks up every call recorded since the read above.
+                counters.remove(key, usage);
+                delta = usage.drain();
+            }
+            if (!delta.isEmpty()) {
+                rows.add(toRow(key, delta, periodEnd));
+            }
+        });
+        periodStart = periodEnd;
+
+        if (rows.isEmpty() && pending.isEmpty()) {
+            return;
+        }
+
+        resolveProfiles(rows);
+        pending.addAll(rows);
+        write();
+    }
+
+    /**
+     * Write the remaining usage before the application shuts down.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Write the pending rows in batches, keeping the rows that could not be written for the next flush.
+     */
+    private void write() {
+        int written = 0;
+        try {
+            while (!pending.isEmpty()) {
+                List<OpenAiUsage> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+                Iterator<OpenAiUsage> iterator = pending.iterator();
+                while (iterator.hasNext() && batch.size() < batchSize) {
+                    batch.add(iterator.next());
+                }
+
+                openAiUsageRepository.saveAll(batch);
+                batch.forEach(row -> pending.pollFirst());
+                written += batch.size();
+            }
+        } catch (DataAccessException e) {
+            leLogger.warn("Writing OpenAI usage failed, {} rows are kept for the next flush: {}", pending.size(), e.getMessage());
+            while (pending.size() > maxPending) {
+                pending.pollFirst();
+            }
+        }
+
+        if (written > 0) {
+            leLogger.debug("Wrote {} OpenAI usage rows", written);
+        }
+    }
+
+    /**
+     * Set the profile of every row made for a user, with a single query.
+     */
+    private void resolveProfiles(List<OpenAiUsage> rows) {
+        Set<String> usernames = new HashSet<>();
+        for (OpenAiUsage row : rows) {
+            if (row.getUsername() != null) {
+                usernames.add(row.getUsername());
+            }
+        }
+        if (usernames.isEmpty()) {
+            return;
+        }
+
+        Map<String, UUID> profileIds = new HashMap<>();
+        try {
+            for (Profile profile : profileRepository.findAllByUserUsernameIn(usernames)) {
+                profileIds.put(profile.getUser().getUsername(), profile.getId());
+            }
+        } catch (DataAccessException e) {
+            // The usage is still written, only without the profile.
+            leLogger.warn("Resolving the profiles of OpenAI usage failed: {}", e.getMessage());
+        }
+        rows.forEach(row -> row.setProfileId(profileIds.get(row.getUsername())));
+    }
+
+    private OpenAiUsage toRow(UsageKey key, Delta delta, LocalDateTime periodEnd) {
+        return OpenAiUsage.builder()
+                .username(key.username())
+                .endpoint(key.endpoint())
+                .model(key.model())
+                .route(key.route())
+                .calls(delta.calls())
+                .promptTokens(delta.promptTokens())
+                .completionTokens(delta.completionTokens())
+                .totalTokens(delta.promptTokens() + delta.completionTokens())
+                .periodStart(periodStart)
+                .periodEnd(periodEnd)
+                .build();
+    }
+
+    /**
+     * What the usage is metered by.
+     */
+    private record UsageKey(String username, String endpoint, String model, OpenAiRoute route) {
+    }
+
+    /**
+     * Usage recorded between two flushes.
+     */
+    private record Delta(long calls, long promptTokens, long completionTokens) {
+
+        private boolean isEmpty() {
+            return calls == 0 && promptTokens == 0 && completionTokens == 0;
+        }
+    }
+
+    /**
+     * The usage of a key. The adders only ever grow, a flush writes the difference to the sums it saw last time,
+     * so calls recorded while a flush reads the adders are written with the next flush instead of being lost.
+     * <p>
+     * Calls are recorded between {@link #enter()} and {@link #exit()}. A flush retires the counters only while no
+     * call is being recorded, after that no call can enter them anymore.
+     */
+    private static final class Counters {
+        private static final int RETIRED = -1;
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+        private final AtomicInteger recording = new AtomicInteger(); // Calls being recorded, or RETIRED
+        private long flushedCalls; // Only read and written by the flush
+        private long flushedPromptTokens;
+        private long flushedCompletionTokens;
+
+        private Delta drain() {
+            // Calls are read first, calls are recorded after their tokens: a call counted here has its tokens counted as well.
+            long callSum = calls.sum();
+            long promptSum = promptTokens.sum();
+            long completionSum = completionTokens.sum();
+
+            Delta delta = new Delta(callSum - flushedCalls, promptSum - flushedPromptTokens,
+                    completionSum - flushedCompletionTokens);
+            flushedCalls = callSum;
+            flushedPromptTokens = promptSum;
+            flushedCompletionTokens = completionSum;
+            return delta;
+        }
+
+        /**
+         * @return Whether a call may be recorded, false if the counters are retired.
+         */
+        private boolean enter() {
+            int current;
+            do {
+                current = recording.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+            } while (!recording.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        private void exit() {
+            recording.decrementAndGet();
+        }
+
+        /**
+         * @return Whether the counters were retired, false if a call is being recorded.
+         */
+        private boolean retire() {
+            return recording.compareAndSet(0, RETIRED);
+        }
+    }
+}
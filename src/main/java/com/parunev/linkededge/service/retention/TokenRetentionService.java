@@ -0,0 +1,144 @@
+package com.parunev.linkededge.service.retention;
+
+import com.parunev.linkededge.model.SchedulerLock;
+import com.parunev.linkededge.repository.ConfirmationTokenRepository;
+import com.parunev.linkededge.repository.JwtTokenRepository;
+import com.parunev.linkededge.repository.PasswordTokenRepository;
+import com.parunev.linkededge.repository.SchedulerLockRepository;
+import com.parunev.linkededge.util.LELogger;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * @Description: The `TokenRetentionService` class periodically deletes tokens that can no longer be used:
+ * revoked or expired JWTs and expired confirmation and password reset tokens. Rows are deleted in bounded batches
+ * so a single run never holds long locks on the token tables, and a database lock ensures that only one node
+ * runs the job at a time. The number of reclaimed rows is logged and counted in the `tokens.retention.reclaimed` metric.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenRetentionService {
+
+    private static final String LOCK_NAME = "token-retention";
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(30);
+    private static final String RECLAIMED_METRIC = "tokens.retention.reclaimed";
+
+    @Value("${application.security.jwt.expiration}")
+    private long jwtExpiration;
+
+    @Value("${application.security.token.retention.batch-size}")
+    private int batchSize;
+
+    @Value("${application.security.token.retention.max-batches}")
+    private int maxBatches;
+
+    private final JwtTokenRepository jwtTokenRepository;
+    private final ConfirmationTokenRepository confirmationTokenRepository;
+    private final PasswordTokenRepository passwordTokenRepository;
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString(); // Identifies this node as the lock owner
+    private final LELogger leLogger = new LELogger(TokenRetentionService.class);
+
+    /**
+     * Delete every token that can no longer be used, if no other node is already doing so.
+     */
+    @Scheduled(cron = "${application.security.token.retention.cron}")
+    public void purgeTokens() {
+        if (!tryLock()) {
+            leLogger.debug("Token retention is running on another node, skipping");
+            return;
+        }
+
+        try {
+            // JWT_TOKENS only keeps a creation date, a row created before this date is past the token's lifetime
+            LocalDate createdBefore = LocalDate.now().minusDays(Duration.ofMillis(jwtExpiration).toDays() + 1);
+            LocalDateTime now = LocalDateTime.now();
+
+            long jwtTokens = purge("JWT_TOKENS", jwtTokenRepository,
+                    pageable -> jwtTokenRepository.findReclaimableIds(createdBefore, pageable));
+            long confirmationTokens = purge("CONFIRMATION_TOKENS", confirmationTokenRepository,
+                    pageable -> confirmationTokenRepository.findExpiredIds(now, pageable));
+            long passwordTokens = purge("PASSWORD_RESET_TOKENS", passwordTokenRepository,
+                    pageable -> passwordTokenRepository.findExpiredIds(now, pageable));
+
+            leLogger.info("Token retention reclaimed {} rows (JWT: {}, confirmation: {}, password reset: {})",
+                    jwtTokens + confirmationTokens + passwordTokens, jwtTokens, confirmationTokens, passwordTokens);
+        } finally {
+            schedulerLockRepository.release(LOCK_NAME, nodeId, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Delete the rows returned by the given query in batches, until no rows are left or the batch limit is reached.
+     * Deleted rows drop out of the query, so the first page is always requested.
+     *
+     * @param table      The name of the table, used for logging and metrics.
+     * @param repository The repository to delete from.
+     * @param findIds    The query returning the ids of the rows to delete.
+     * @return The number of deleted rows.
+     */
+    private long purge(String table, JpaRepository<?, UUID> repository, Function<Pageable, List<UUID>> findIds) {
+        long reclaimed = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<UUID> ids = findIds.apply(PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            repository.deleteAllByIdInBatch(ids);
+            reclaimed += ids.size();
+
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+
+        meterRegistry.counter(RECLAIMED_METRIC, "table", table).increment(reclaimed);
+        return reclaimed;
+    }
+
+    /**
+     * Try to acquire the database lock for this job. The lock row is created on first use; if another node creates it
+     * at the same time, the unique lock name makes one of the inserts fail.
+     *
+     * @return `true` if this node now holds the lock, `false` otherwise.
+     */
+    private boolean tryLock() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = now.plus(LOCK_AT_MOST_FOR);
+
+        if (!schedulerLockRepository.existsByName(LOCK_NAME)) {
+            try {
+                schedulerLockRepository.saveAndFlush(SchedulerLock.builder()
+                        .name(LOCK_NAME)
+                        .lockedUntil(lockedUntil)
+                        .lockedBy(nodeId)
+                        .build());
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                return false;
+            }
+        }
+
+        return schedulerLockRepository.acquire(LOCK_NAME, nodeId, now, lockedUntil) == 1;
+    }
+}
@@ -1,10 +1,16 @@
 package com.parunev.linkededge.util;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.concurrent.Executor;
+
 /**
  * Utility class for retrieving information about the current HTTP request, such as the request URI.
  * @author Martin Parunev
@@ -22,4 +28,41 @@ public class RequestUtil {
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
         return attributes.getRequest().getRequestURI();
     }
+
+    /**
+     * Gets the current HTTP request's URI, or `null` when called outside a request.
+     *
+     * @return A string representing the request URI, or `null` if there is no current request.
+     */
+    public static String findCurrentRequest() {
+        return RequestContextHolder.getRequestAttributes() == null ? null : getCurrentRequest();
+    }
+
+    /**
+     * Wraps an executor so that tasks run with the request attributes, security context and logger properties of the
+     * calling thread. This lets work that continues after an asynchronous call resolve the current user, build
+     * errors with the request path and log with the request's correlation ID.
+     *
+     * @param delegate The executor that runs the tasks.
+     * @return An executor that propagates the current request context to the delegate.
+     */
+    public static Executor withCurrentContext(Executor delegate) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        String correlationId = LELogger.getCorrelationId();
+        HttpServletRequest request = LELogger.getRequest();
+
+        return task -> delegate.execute(() -> {
+            RequestContextHolder.setRequestAttributes(attributes);
+            SecurityContextHolder.setContext(securityContext);
+            LELogger.setLoggerProperties(correlationId, request);
+            try {
+                task.run();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+                SecurityContextHolder.clearContext();
+                LELogger.clearLoggerProperties();
+            }
+        });
+    }
 }
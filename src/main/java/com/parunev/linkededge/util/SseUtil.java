@@ -0,0 +1,116 @@
+package com.parunev.linkededge.util;
+
+import com.parunev.linkededge.openai.exception.OpenAiException;
+import com.parunev.linkededge.security.exceptions.InvalidExtractException;
+import com.parunev.linkededge.security.exceptions.InvalidWritingException;
+import com.parunev.linkededge.security.exceptions.ResourceNotFoundException;
+import com.parunev.linkededge.security.payload.ApiError;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.parunev.linkededge.util.RequestUtil.findCurrentRequest;
+
+/**
+ * Utility class for streaming generated content to the client as server-sent events.
+ * <p>
+ * Every piece of generated text is sent as a `chunk` event holding a JSON object `{"text": "..."}`, so line breaks and
+ * leading spaces of the text reach the client intact. Once the generation is complete, the stored result is sent
+ * as a `result` event, or an {@link ApiError} is sent as an `error` event if the generation failed.
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE) // This class should not be instantiated as it contains only static utility methods.
+public class SseUtil {
+
+    public static final String CHUNK_EVENT = "chunk";
+    public static final String RESULT_EVENT = "result";
+    public static final String ERROR_EVENT = "error";
+    public static final String TEXT_FIELD = "text";
+
+    private static final long TIMEOUT = 300000L; // Matches the read timeout of the OpenAI client
+    private static final LELogger leLogger = new LELogger(SseUtil.class);
+
+    /**
+     * Starts a streamed generation and returns the emitter the events are sent through.
+     * Validation errors raised before the generation starts are thrown to the caller, so they are answered as regular errors.
+     *
+     * @param generation Starts the generation with the consumer that receives the generated text.
+     * @param <T> The type of the final result.
+     * @return The emitter to return from the controller.
+     */
+    public static <T> SseEmitter stream(Function<Consumer<String>, CompletableFuture<T>> generation) {
+        String path = findCurrentRequest();
+        SseEmitter emitter = new SseEmitter(TIMEOUT);
+
+        CompletableFuture<T> future = generation.apply(chunk -> send(emitter, CHUNK_EVENT, chunk));
+        emitter.onTimeout(() -> future.cancel(true));
+
+        future.whenComplete((result, throwable) -> {
+            try {
+                if (throwable == null) {
+                    emitter.send(SseEmitter.event().name(RESULT_EVENT).data(result, MediaType.APPLICATION_JSON));
+                } else {
+                    leLogger.warn("Streamed generation failed: {}", throwable.getMessage());
+                    emitter.send(SseEmitter.event().name(ERROR_EVENT).data(toApiError(throwable, path), MediaType.APPLICATION_JSON));
+                }
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // The client is gone, nothing left to send.
+                emitter.completeWithError(e);
+            }
+        });
+
+        return emitter;
+    }
+
+    /**
+     * Sends a single piece of generated text. Failing to send means the client went away, the exception stops the generation.
+     * <p>
+     * The text is JSON encoded: sent as is, a line break would end the `data` line and SSE clients would drop the
+     * rest, and a leading space would be stripped as the separator after `data:`.
+     */
+    private static void send(SseEmitter emitter, String name, String text) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(Map.of(TEXT_FIELD, text), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Maps the failure of a generation to the error sent to the client.
+     */
+    private static ApiError toApiError(Throwable throwable, String path) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+
+        if (cause instanceof OpenAiException e) {
+            return e.getApiError();
+        } else if (cause instanceof InvalidWritingException e) {
+            return e.getApiError();
+        } else if (cause instanceof InvalidExtractException e) {
+            return e.getApiError();
+        } else if (cause instanceof ResourceNotFoundException e) {
+            return e.getError();
+        }
+
+        return ApiError.builder()
+                .path(path)
+                .error(cause.getMessage())
+                .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.parunev.linkededge.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utility class for producing fixed-size digests of token values, so that tokens can be used as cache or lookup keys
+ * without keeping the full signed value around.
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE) // This class should not be instantiated as it contains only static utility methods.
+public class TokenHashUtil {
+
+    private static final String ALGORITHM = "SHA-256";
+
+    /**
+     * Computes the SHA-256 digest of the given token and returns it as a lower-case hex string (64 characters).
+     *
+     * @param token The token value to hash.
+     * @return The hex encoded SHA-256 digest of the token.
+     */
+    public static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256, so this should never happen.
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
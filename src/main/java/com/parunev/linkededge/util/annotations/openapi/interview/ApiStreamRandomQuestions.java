@@ -0,0 +1,21 @@
+package com.parunev.linkededge.util.annotations.openapi.interview;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Operation(summary = "Stream Random Questions", description = "Generates random interview questions like the generate endpoint, streaming the generated text as 'chunk' server-sent events of the form {\"text\": \"...\"} followed by a 'result' or 'error' event.")
+@ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successful request, streams the questions as they are generated"),
+        @ApiResponse(responseCode = "400", description = "If an error occurs before the generation starts"),
+        @ApiResponse(responseCode = "401", description = "User is not authorized to access this endpoint")
+})
+public @interface ApiStreamRandomQuestions {
+}
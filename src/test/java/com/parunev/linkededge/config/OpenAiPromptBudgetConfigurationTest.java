@@ -0,0 +1,38 @@
+package com.parunev.linkededge.config;
+
+import com.parunev.linkededge.openai.OpenAiTokenEstimator;
+import com.parunev.linkededge.openai.model.OpenAiMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OpenAiPromptBudgetConfigurationTest {
+
+    private static final List<OpenAiMessage> SYSTEM =
+            List.of(OpenAiMessage.builder().role("system").content("Hello world").build());
+
+    private final OpenAiPromptBudgetConfiguration budget =
+            new OpenAiPromptBudgetConfiguration(4096, Map.of("gpt-4", 8192), 1000);
+
+    @Test
+    void budgetFor_CappedRoute_LeavesTheWindowMinusCompletionAndSystemPrompt() {
+        int framing = OpenAiTokenEstimator.countTokens(List.of(
+                SYSTEM.get(0), OpenAiMessage.builder().role("user").content("").build()));
+
+        assertEquals(4096 - 1500 - framing, budget.budgetFor("gpt-3.5-turbo", 1500, SYSTEM));
+        assertEquals(8192 - 1500 - framing, budget.budgetFor("gpt-4", 1500, SYSTEM));
+    }
+
+    @Test
+    void budgetFor_UncappedRoute_AssumesTheUncappedCompletion() {
+        assertEquals(budget.budgetFor("gpt-3.5-turbo", 1000, SYSTEM), budget.budgetFor("gpt-3.5-turbo", null, SYSTEM));
+    }
+
+    @Test
+    void budgetFor_CompletionLargerThanWindow_IsZero() {
+        assertEquals(0, budget.budgetFor("gpt-3.5-turbo", 5000, SYSTEM));
+    }
+}
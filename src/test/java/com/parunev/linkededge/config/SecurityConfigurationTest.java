@@ -0,0 +1,151 @@
+package com.parunev.linkededge.config;
+
+import com.parunev.linkededge.controller.InterviewController;
+import com.parunev.linkededge.controller.ProfileController;
+import com.parunev.linkededge.model.User;
+import com.parunev.linkededge.model.enums.Authority;
+import com.parunev.linkededge.model.payload.interview.AnswerResponse;
+import com.parunev.linkededge.model.payload.interview.JobResponse;
+import com.parunev.linkededge.model.payload.interview.QuestionResponse;
+import com.parunev.linkededge.model.payload.profile.ProfileResponse;
+import com.parunev.linkededge.repository.JwtTokenRepository;
+import com.parunev.linkededge.repository.UserRepository;
+import com.parunev.linkededge.security.jwt.JwtLogout;
+import com.parunev.linkededge.security.jwt.JwtRevocationIndex;
+import com.parunev.linkededge.security.jwt.JwtService;
+import com.parunev.linkededge.service.InterviewService;
+import com.parunev.linkededge.service.UserProfileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = {InterviewController.class, ProfileController.class})
+@Import(SecurityConfiguration.class)
+class SecurityConfigurationTest {
+
+    private static final String JWT = "valid-jwt-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private InterviewService interviewService;
+
+    @MockBean
+    private UserProfileService userProfileService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private JwtTokenRepository jwtTokenRepository;
+
+    @MockBean
+    private JwtRevocationIndex revocationIndex;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private JwtLogout jwtLogout;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .username("user")
+                .email("user@example.com")
+                .authority(Authority.AUTHORITY_USER)
+                .isEnabled(true)
+                .build();
+        ReflectionTestUtils.setField(user, "id", UUID.randomUUID());
+
+        when(jwtService.extractEmail(JWT)).thenReturn(user.getEmail());
+        when(jwtService.extractTokenId(JWT)).thenReturn("token-id");
+        when(revocationIndex.getActive("token-id")).thenReturn(user.getId());
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(jwtService.isTokenValid(JWT, user)).thenReturn(true);
+    }
+
+    @Test
+    void testAsyncDispatch_AnswersInterviewEndpointsToTheAuthenticatedUser() throws Exception {
+        when(interviewService.generateRandomInterviewQuestions(any()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(QuestionResponse.builder().questionValue("What is a closure?").build())));
+        when(interviewService.answerUserQuestion(any()))
+                .thenReturn(CompletableFuture.completedFuture(AnswerResponse.builder().answer("A function").build()));
+        when(interviewService.prepareMeForAJob(any()))
+                .thenReturn(CompletableFuture.completedFuture(JobResponse.builder().build()));
+
+        performAsync(get("/edge-api/v1/interview/generate"), 200);
+        performAsync(get("/edge-api/v1/interview/answer-me"), 200);
+        performAsync(get("/edge-api/v1/interview/prepare-me"), 200);
+    }
+
+    @Test
+    void testAsyncDispatch_AnswersProfileEndpointsToTheAuthenticatedUser() throws Exception {
+        when(userProfileService.addEducation(any())).thenReturn(CompletableFuture.completedFuture(ProfileResponse.builder().build()));
+        when(userProfileService.addExperience(any())).thenReturn(CompletableFuture.completedFuture(ProfileResponse.builder().build()));
+        when(userProfileService.addSkill(any())).thenReturn(CompletableFuture.completedFuture(ProfileResponse.builder().build()));
+
+        performAsync(post("/edge-api/v1/profile/education"), 201);
+        performAsync(post("/edge-api/v1/profile/experience"), 201);
+        performAsync(post("/edge-api/v1/profile/skill"), 201);
+    }
+
+    @Test
+    void testAsyncDispatch_StreamsInterviewEndpointsToTheAuthenticatedUser() throws Exception {
+        when(interviewService.streamRandomInterviewQuestions(any(), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<String>>getArgument(1).accept("What is");
+            return CompletableFuture.completedFuture(List.of(QuestionResponse.builder().questionValue("What is a closure?").build()));
+        });
+        when(interviewService.streamPrepareMeForAJob(any(), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<String>>getArgument(1).accept("Coaching");
+            return CompletableFuture.completedFuture(JobResponse.builder().build());
+        });
+
+        performAsync(get("/edge-api/v1/interview/generate/stream"), 200)
+                .andExpect(content().string(containsString("event:result")));
+        performAsync(get("/edge-api/v1/interview/prepare-me/stream"), 200)
+                .andExpect(content().string(containsString("event:result")));
+    }
+
+    @Test
+    void testRequest_RejectsInterviewEndpointsWithoutToken() throws Exception {
+        mockMvc.perform(get("/edge-api/v1/interview/answer-me")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder request, int status) throws Exception {
+        MvcResult result = mockMvc.perform(request
+                        .header("Authorization", "Bearer " + JWT)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().is(status));
+    }
+}
@@ -0,0 +1,69 @@
+package com.parunev.linkededge.openai;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OpenAiBulkheadTest {
+
+    private final OpenAiBulkhead bulkhead = new OpenAiBulkhead(
+            new OpenAiBulkhead.Limits(1, 1, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+
+    @Test
+    void execute_SlotTaken_QueuesUntilSlotIsFreed() {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+
+        CompletableFuture<String> running = bulkhead.execute(() -> first, this::error);
+        CompletableFuture<String> queued = bulkhead.execute(() -> second, this::error);
+
+        assertEquals(1, bulkhead.getActive());
+        assertEquals(1, bulkhead.getQueueDepth());
+
+        first.complete("first");
+        assertEquals("first", running.join());
+        assertEquals(0, bulkhead.getQueueDepth());
+        assertFalse(queued.isDone());
+
+        second.complete("second");
+        assertEquals("second", queued.join());
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    @Test
+    void execute_QueueFull_RejectsImmediately() {
+        bulkhead.execute(CompletableFuture::new, this::error);
+        bulkhead.execute(CompletableFuture::new, this::error);
+
+        CompletableFuture<String> rejected = bulkhead.execute(CompletableFuture::new, this::error);
+
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertEquals("QUEUE_FULL", e.getCause().getMessage());
+        assertEquals(1, bulkhead.getRejected());
+    }
+
+    @Test
+    void execute_CallTakesTooLong_CancelsCall() throws Exception {
+        OpenAiBulkhead strict = new OpenAiBulkhead(new OpenAiBulkhead.Limits(1, 0, Duration.ZERO, Duration.ofMillis(10)));
+        CompletableFuture<String> call = new CompletableFuture<>();
+
+        CompletableFuture<String> result = strict.execute(() -> call, this::error);
+
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertEquals("CALL_TIMEOUT", e.getCause().getMessage());
+        assertThrows(CancellationException.class, () -> call.get(1, TimeUnit.SECONDS));
+        assertEquals(1, strict.getRejected());
+    }
+
+    private RuntimeException error(OpenAiBulkhead.Rejection rejection) {
+        return new IllegalStateException(rejection.name());
+    }
+}
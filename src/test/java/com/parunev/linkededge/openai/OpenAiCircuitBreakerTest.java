@@ -0,0 +1,47 @@
+package com.parunev.linkededge.openai;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenAiCircuitBreakerTest {
+
+    @Test
+    void onFailure_FailureRateReachesThreshold_OpensBreaker() {
+        OpenAiCircuitBreaker breaker = new OpenAiCircuitBreaker(4, 4, 50, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onSuccess();
+        }
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(OpenAiCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void tryAcquire_AfterOpenDuration_LetsOneTrialCallThrough() {
+        OpenAiCircuitBreaker breaker = new OpenAiCircuitBreaker(2, 1, 50, Duration.ZERO);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(OpenAiCircuitBreaker.State.OPEN, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(OpenAiCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,69 @@
+package com.parunev.linkededge.openai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.parunev.linkededge.openai.OpenAiPromptBuilder.Priority.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenAiPromptBuilderTest {
+
+    private static final String INTRO = "Intro line.\n";
+    private static final String DESCRIPTION = "Job Description: "
+            + "We are looking for a senior engineer to join our platform team. ".repeat(20) + "\n";
+
+    private final List<String> items = new ArrayList<>();
+
+    OpenAiPromptBuilderTest() {
+        for (int i = 0; i < 10; i++) {
+            items.add(" - Company description number " + i + ".\n");
+        }
+    }
+
+    private OpenAiPromptBuilder builder() {
+        return new OpenAiPromptBuilder()
+                .text(REQUIRED, INTRO)
+                .text(HIGH, DESCRIPTION)
+                .list(LOW, items);
+    }
+
+    @Test
+    void build_WithinBudget_KeepsEverything() {
+        assertEquals(INTRO + DESCRIPTION + String.join("", items), builder().build(10000));
+    }
+
+    @Test
+    void build_SlightlyOverBudget_TrimsLowPriorityListFirst() {
+        int full = OpenAiTokenEstimator.countTokens(INTRO + DESCRIPTION + String.join("", items));
+
+        String prompt = builder().build(full - 20);
+
+        assertTrue(prompt.contains(DESCRIPTION));
+        assertTrue(prompt.contains(items.get(0)));
+        assertFalse(prompt.contains(items.get(9)));
+        assertTrue(prompt.contains("more."));
+        assertTrue(OpenAiTokenEstimator.countTokens(prompt) <= full - 20);
+    }
+
+    @Test
+    void build_FarOverBudget_TruncatesTextAtWordBoundary() {
+        String prompt = builder().build(100);
+
+        assertTrue(prompt.startsWith(INTRO + "Job Description: We are looking"));
+        assertTrue(prompt.contains(" [...]"));
+        assertTrue(prompt.endsWith(" - and 10 more.\n"));
+        assertTrue(OpenAiTokenEstimator.countTokens(prompt) <= 100);
+    }
+
+    @Test
+    void build_BudgetBelowRequiredSections_KeepsRequiredSections() {
+        String prompt = builder().build(1);
+
+        assertTrue(prompt.startsWith(INTRO));
+        assertFalse(prompt.contains("Job Description"));
+    }
+}
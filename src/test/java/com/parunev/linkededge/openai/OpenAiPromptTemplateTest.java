@@ -0,0 +1,48 @@
+package com.parunev.linkededge.openai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OpenAiPromptTemplateTest {
+
+    @Test
+    void render_BindsValuesInOrder() {
+        OpenAiPromptTemplate template = OpenAiPromptTemplate.compile("{index}. {skill} (Endorsement: {endorsements})\n");
+
+        assertEquals("1. Java (Endorsement: 12)\n", template.render(1, "Java", 12L));
+    }
+
+    @Test
+    void render_MatchesFormatted() {
+        OpenAiPromptTemplate template = OpenAiPromptTemplate.compile("Is '{skill}' a valid skill? {missing}");
+
+        assertEquals("Is '%s' a valid skill? %s".formatted("Spring", null), template.render("Spring", null));
+    }
+
+    @Test
+    void render_KeepsBracesWithoutName() {
+        OpenAiPromptTemplate template = OpenAiPromptTemplate.compile("{ \"question\": {} } {value}");
+
+        assertEquals("{ \"question\": {} } 42", template.render(42));
+    }
+
+    @Test
+    void render_WrongNumberOfValues_Throws() {
+        OpenAiPromptTemplate template = OpenAiPromptTemplate.compile("- Education: {education}");
+
+        assertThrows(IllegalArgumentException.class, template::render);
+    }
+
+    @Test
+    void appendTo_AppendsAtTheEnd() {
+        OpenAiPromptTemplate template = OpenAiPromptTemplate.compile("- {skill}.\n");
+        StringBuilder prompt = new StringBuilder("Skills:\n");
+
+        template.appendTo(prompt, "Java");
+        template.appendTo(prompt, "SQL");
+
+        assertEquals("Skills:\n- Java.\n- SQL.\n", prompt.toString());
+    }
+}
@@ -0,0 +1,38 @@
+package com.parunev.linkededge.openai;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenAiRateLimiterTest {
+
+    private final OpenAiRateLimiter rateLimiter = new OpenAiRateLimiter(Duration.ofSeconds(1),
+            new OpenAiRateLimiter.Limits(60, 6000),
+            Map.of("gpt-4", new OpenAiRateLimiter.Limits(1, 1000)));
+
+    @Test
+    void reserve_WithinCapacity_DoesNotWait() {
+        assertEquals(0, rateLimiter.reserve("gpt-3.5-turbo", 1000));
+    }
+
+    @Test
+    void reserve_ExhaustedModel_RejectsWithoutAffectingOtherModels() {
+        assertEquals(0, rateLimiter.reserve("gpt-4", 500));
+        assertEquals(-1, rateLimiter.reserve("gpt-4", 500));
+        assertEquals(0, rateLimiter.reserve("gpt-3.5-turbo", 500));
+    }
+
+    @Test
+    void correct_ActualUsageBelowEstimate_GivesTokensBack() {
+        assertEquals(0, rateLimiter.reserve("gpt-3.5-turbo", 6000));
+        long wait = rateLimiter.reserve("gpt-3.5-turbo", 100);
+        assertTrue(wait > 0 && wait <= 1000);
+
+        rateLimiter.correct("gpt-3.5-turbo", 6000, 1000);
+        assertEquals(0, rateLimiter.reserve("gpt-3.5-turbo", 1000));
+    }
+}
@@ -0,0 +1,33 @@
+package com.parunev.linkededge.openai;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenAiRetryPolicyTest {
+
+    private final OpenAiRetryPolicy policy = OpenAiRetryPolicy.builder()
+            .maxAttempts(3)
+            .initialBackoff(Duration.ofMillis(1000))
+            .maxBackoff(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void delayMillis_HonorsRetryAfterWithinMaxBackoff() {
+        assertEquals(2000, policy.delayMillis(1, Duration.ofSeconds(2)));
+        assertEquals(-1, policy.delayMillis(1, Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void delayMillis_GrowsWithJitterAndStopsAfterMaxAttempts() {
+        long first = policy.delayMillis(1, null);
+        long second = policy.delayMillis(2, null);
+
+        assertTrue(first >= 500 && first <= 1000);
+        assertTrue(second >= 1000 && second <= 2000);
+        assertEquals(-1, policy.delayMillis(3, null));
+    }
+}
@@ -0,0 +1,61 @@
+package com.parunev.linkededge.openai;
+
+import com.parunev.linkededge.openai.model.OpenAiOptions;
+import com.parunev.linkededge.openai.model.enums.OpenAiDefaults;
+import com.parunev.linkededge.openai.model.enums.OpenAiModel;
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
+import com.parunev.linkededge.openai.model.enums.OpenAiUseCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OpenAiRoutingPolicyTest {
+
+    private final OpenAiRoutingPolicy policy = new OpenAiRoutingPolicy(Map.of(
+            OpenAiRoute.VALIDATION, new OpenAiRoutingPolicy.Target(OpenAiModel.GPT_3_5_TURBO, 5),
+            OpenAiRoute.JOB_COACHING, new OpenAiRoutingPolicy.Target(OpenAiModel.GPT_4, 3000),
+            OpenAiRoute.SPECIALIZED_ANSWER, new OpenAiRoutingPolicy.Target(null, 1500)));
+
+    @Test
+    void modelFor_UsesTheModelOfTheRoute() {
+        assertEquals("gpt-4", policy.modelFor(options(OpenAiRoute.JOB_COACHING)));
+        assertEquals("gpt-3.5-turbo", policy.modelFor(options(OpenAiRoute.VALIDATION)));
+    }
+
+    @Test
+    void modelFor_FallsBackToTheDefaultModel() {
+        assertEquals(OpenAiDefaults.DEFAULT_MODEL.getValue(), policy.modelFor(options(OpenAiRoute.SPECIALIZED_ANSWER)));
+        assertEquals(OpenAiDefaults.DEFAULT_MODEL.getValue(), policy.modelFor(options(OpenAiRoute.INTERVIEW_QUESTIONS)));
+        assertEquals(OpenAiDefaults.DEFAULT_MODEL.getValue(), policy.modelFor(null));
+    }
+
+    @Test
+    void maxTokensFor_CapsOnlyConfiguredRoutes() {
+        assertEquals(5, policy.maxTokensFor(options(OpenAiRoute.VALIDATION)));
+        assertEquals(1500, policy.maxTokensFor(options(OpenAiRoute.SPECIALIZED_ANSWER)));
+        assertNull(policy.maxTokensFor(options(OpenAiRoute.GENERAL)));
+        assertNull(OpenAiRoutingPolicy.withDefaults().maxTokensFor(options(OpenAiRoute.VALIDATION)));
+    }
+
+    @Test
+    void route_SelectsTheUseCase() {
+        assertEquals(OpenAiUseCase.INTERVIEW, options(OpenAiRoute.INTERVIEW_QUESTIONS).getUseCase());
+        assertEquals(OpenAiUseCase.INTERVIEW, options(OpenAiRoute.SPECIALIZED_ANSWER).getUseCase());
+        assertEquals(OpenAiUseCase.JOB_PREPARATION, options(OpenAiRoute.JOB_COACHING).getUseCase());
+        assertEquals(OpenAiUseCase.GENERAL, OpenAiOptions.DEFAULT.getUseCase());
+    }
+
+    @Test
+    void estimateTokens_AllowsNoMoreThanTheCapForTheCompletion() {
+        assertEquals(105, OpenAiRateLimiter.estimateTokens(100, 5));
+        assertEquals(600, OpenAiRateLimiter.estimateTokens(100, 3000));
+        assertEquals(600, OpenAiRateLimiter.estimateTokens(100, null));
+    }
+
+    private static OpenAiOptions options(OpenAiRoute route) {
+        return OpenAiOptions.builder().route(route).build();
+    }
+}
@@ -0,0 +1,262 @@
+package com.parunev.linkededge.openai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parunev.linkededge.openai.cache.InMemoryOpenAiResponseCache;
+import com.parunev.linkededge.openai.cache.OpenAiResponseCache;
+import com.parunev.linkededge.openai.exception.OpenAiException;
+import com.parunev.linkededge.openai.model.OpenAiMessage;
+import com.parunev.linkededge.openai.model.OpenAiOptions;
+import com.parunev.linkededge.openai.model.enums.OpenAiModel;
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
+import com.parunev.linkededge.openai.model.enums.OpenAiUseCase;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class OpenAiTest {
+
+    private static final List<OpenAiMessage> MESSAGES = List.of(
+            OpenAiMessage.builder().role("user").content("Is Java a skill?").build());
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockWebServer server;
+    private OpenAi openAi;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        OkHttpClient client = new OkHttpClient();
+        openAi = OpenAi.builder()
+                .openAiApi("test-key")
+                .openAiHost(server.url("/v1/chat/completions").toString())
+                .client(client)
+                .useCaseClients(Map.of(OpenAiUseCase.VALIDATION, client.newBuilder()
+                        .addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                                .header("X-Use-Case", "validation").build()))
+                        .build()))
+                .routingPolicy(new OpenAiRoutingPolicy(Map.of(
+                        OpenAiRoute.VALIDATION, new OpenAiRoutingPolicy.Target(OpenAiModel.GPT_3_5_TURBO, 5))))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void askFor_SendsTheOptionsOfTheRouteWithTheClientOfItsUseCase() throws Exception {
+        server.enqueue(completion("{\"valid\":\"yes\"}"));
+
+        JsonNode answer = openAi.askFor(MESSAGES, options(OpenAiRoute.VALIDATION), JsonNode.class);
+
+        assertEquals("yes", answer.get("valid").asText());
+        RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(request);
+        assertEquals("validation", request.getHeader("X-Use-Case"));
+        JsonNode body = objectMapper.readTree(request.getBody().readUtf8());
+        assertEquals("gpt-3.5-turbo", body.get("model").asText());
+        assertEquals(5, body.get("max_tokens").asInt());
+        assertEquals("json_object", body.get("response_format").get("type").asText());
+    }
+
+    @Test
+    void ask_ModelWithoutJsonMode_SendsNoResponseFormat() throws Exception {
+        server.enqueue(completion("{\"valid\":\"yes\"}"));
+
+        assertEquals("{\"valid\":\"yes\"}", openAi.ask("gpt-4", MESSAGES, cacheable(OpenAiRoute.GENERAL, true)));
+
+        JsonNode body = objectMapper.readTree(server.takeRequest(1, TimeUnit.SECONDS).getBody().readUtf8());
+        assertEquals("gpt-4", body.get("model").asText());
+        assertFalse(body.has("response_format"));
+    }
+
+    @Test
+    void ask_NullContent_IsAnEmptyAnswer() {
+        server.enqueue(completion(null));
+        server.enqueue(completion(null));
+
+        assertEquals("", openAi.ask("gpt-4", MESSAGES, OpenAiOptions.DEFAULT));
+        OpenAiException e = assertThrows(OpenAiException.class,
+                () -> openAi.askFor(MESSAGES, options(OpenAiRoute.VALIDATION), JsonNode.class));
+        assertEquals(HttpStatus.BAD_GATEWAY, e.getApiError().getStatus());
+    }
+
+    @Test
+    void ask_CachesOnlyCacheableCalls() {
+        OpenAi cached = withCache(new InMemoryOpenAiResponseCache(10, 60_000));
+        server.enqueue(completion("first"));
+        server.enqueue(completion("second"));
+        server.enqueue(completion("third"));
+
+        assertEquals("first", cached.ask("gpt-4", MESSAGES, OpenAiOptions.DEFAULT));
+        assertEquals("second", cached.ask("gpt-4", MESSAGES, OpenAiOptions.DEFAULT));
+        assertEquals("third", cached.ask("gpt-4", MESSAGES, cacheable(OpenAiRoute.GENERAL, false)));
+        assertEquals("third", cached.ask("gpt-4", MESSAGES, cacheable(OpenAiRoute.GENERAL, false)));
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void ask_KeysTheCacheOnTheModelAndTheOptionsSentToOpenAi() {
+        OpenAi cached = withCache(new InMemoryOpenAiResponseCache(10, 60_000));
+        server.enqueue(completion("general"));
+        server.enqueue(completion("validation"));
+        server.enqueue(completion("{\"json\":true}"));
+        server.enqueue(completion("gpt-3.5-turbo"));
+
+        assertEquals("general", cached.ask("gpt-4", MESSAGES, cacheable(OpenAiRoute.GENERAL, false)));
+        assertEquals("validation", cached.ask("gpt-4", MESSAGES, cacheable(OpenAiRoute.VALIDATION, false)));
+        assertEquals("{\"json\":true}", cached.ask("gpt-3.5-turbo", MESSAGES, cacheable(OpenAiRoute.GENERAL, true)));
+        assertEquals("gpt-3.5-turbo", cached.ask("gpt-3.5-turbo", MESSAGES, cacheable(OpenAiRoute.GENERAL, false)));
+
+        assertEquals("general", cached.ask("gpt-4", MESSAGES, cacheable(OpenAiRoute.GENERAL, false)));
+        assertEquals("validation", cached.ask("gpt-4", MESSAGES, cacheable(OpenAiRoute.VALIDATION, false)));
+        assertEquals(4, server.getRequestCount());
+    }
+
+    @Test
+    void ask_TreatsAFailingCacheAsAMiss() {
+        OpenAiResponseCache failing = mock(OpenAiResponseCache.class);
+        when(failing.get(anyString())).thenThrow(new IllegalStateException("cache is down"));
+        doThrow(new IllegalStateException("cache is down")).when(failing).put(anyString(), any());
+        OpenAi cached = withCache(failing);
+        server.enqueue(completion("answer"));
+
+        assertEquals("answer", cached.ask("gpt-4", MESSAGES, cacheable(OpenAiRoute.GENERAL, false)));
+        assertEquals(1, server.getRequestCount());
+        verify(failing).put(anyString(), eq("answer"));
+    }
+
+    @Test
+    void ask_GivesBackTheTokensOfFailedAttempts() {
+        // Room for two calls of the estimated size: a third reservation is only possible if failed ones are given back.
+        OpenAi limited = OpenAi.builder()
+                .openAiApi("test-key")
+                .openAiHost(server.url("/v1/chat/completions").toString())
+                .client(new OkHttpClient())
+                .retryPolicy(OpenAiRetryPolicy.builder().maxAttempts(3).initialBackoff(Duration.ofMillis(10)).build())
+                .rateLimiter(new OpenAiRateLimiter(Duration.ZERO, new OpenAiRateLimiter.Limits(6000,
+                        OpenAiRateLimiter.estimateTokens(MESSAGES) * 2 + 100), Map.of()))
+                .build();
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(completion("answer"));
+
+        assertEquals("answer", limited.ask("gpt-4", MESSAGES, OpenAiOptions.DEFAULT));
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void ask_GivesBackTheTokensOfRejectedCalls() {
+        // Room for one call of the estimated size: a second reservation is only possible if the rejected one is given back.
+        OpenAi limited = OpenAi.builder()
+                .openAiApi("test-key")
+                .openAiHost(server.url("/v1/chat/completions").toString())
+                .client(new OkHttpClient())
+                .rateLimiter(new OpenAiRateLimiter(Duration.ZERO, new OpenAiRateLimiter.Limits(6000,
+                        OpenAiRateLimiter.estimateTokens(MESSAGES) + 100), Map.of()))
+                .build();
+        server.enqueue(new MockResponse().setResponseCode(400));
+        server.enqueue(completion("answer"));
+
+        OpenAiException e = assertThrows(OpenAiException.class, () -> limited.ask("gpt-4", MESSAGES, OpenAiOptions.DEFAULT));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getApiError().getStatus());
+        assertEquals("answer", limited.ask("gpt-4", MESSAGES, OpenAiOptions.DEFAULT));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void askStream_HandsOutEveryDeltaUntilDone() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody(event(delta("Hel")) + ": keep-alive\n\n" + event(delta("lo")) + event("{\"choices\":[{\"delta\":{}}]}")
+                        + event("[DONE]") + event(delta(" ignored"))));
+        List<String> chunks = new ArrayList<>();
+
+        String answer = openAi.askStream("gpt-4", MESSAGES, chunks::add).get(1, TimeUnit.SECONDS);
+
+        assertEquals("Hello", answer);
+        assertEquals(List.of("Hel", "lo"), chunks);
+        JsonNode body = objectMapper.readTree(server.takeRequest(1, TimeUnit.SECONDS).getBody().readUtf8());
+        assertTrue(body.get("stream").asBoolean());
+    }
+
+    @Test
+    void askStream_FailsWithTheBodyOfAnErrorResponse() {
+        server.enqueue(new MockResponse()
+                .setResponseCode(400)
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"error\":{\"message\":\"context_length_exceeded\"}}"));
+        List<String> chunks = new ArrayList<>();
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> openAi.askStream("gpt-4", MESSAGES, chunks::add).join());
+
+        OpenAiException cause = assertInstanceOf(OpenAiException.class, e.getCause());
+        assertEquals(HttpStatus.BAD_REQUEST, cause.getApiError().getStatus());
+        assertTrue(cause.getApiError().getError().contains("context_length_exceeded"));
+        assertTrue(chunks.isEmpty());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private OpenAi withCache(OpenAiResponseCache responseCache) {
+        return OpenAi.builder()
+                .openAiApi("test-key")
+                .openAiHost(server.url("/v1/chat/completions").toString())
+                .client(new OkHttpClient())
+                .responseCache(responseCache)
+                .routingPolicy(new OpenAiRoutingPolicy(Map.of(
+                        OpenAiRoute.VALIDATION, new OpenAiRoutingPolicy.Target(OpenAiModel.GPT_3_5_TURBO, 5))))
+                .build();
+    }
+
+    private static OpenAiOptions cacheable(OpenAiRoute route, boolean json) {
+        return OpenAiOptions.builder().cacheable(true).route(route).json(json).build();
+    }
+
+    private static OpenAiOptions options(OpenAiRoute route) {
+        return OpenAiOptions.builder().route(route).build();
+    }
+
+    private static String event(String data) {
+        return "data: " + data + "\n\n";
+    }
+
+    private String delta(String content) {
+        return objectMapper.createObjectNode()
+                .set("choices", objectMapper.createArrayNode().add(objectMapper.createObjectNode()
+                        .set("delta", objectMapper.createObjectNode().put("content", content))))
+                .toString();
+    }
+
+    private MockResponse completion(String content) {
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(objectMapper.createObjectNode()
+                        .set("choices", objectMapper.createArrayNode().add(objectMapper.createObjectNode()
+                                .set("message", objectMapper.createObjectNode()
+                                        .put("role", "assistant")
+                                        .put("content", content))))
+                        .toString());
+    }
+}
@@ -0,0 +1,38 @@
+package com.parunev.linkededge.openai;
+
+import com.parunev.linkededge.openai.model.OpenAiMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenAiTokenEstimatorTest {
+
+    @Test
+    void countTokens_EmptyText_IsZero() {
+        assertEquals(0, OpenAiTokenEstimator.countTokens((String) null));
+        assertEquals(0, OpenAiTokenEstimator.countTokens(""));
+    }
+
+    @Test
+    void countTokens_CommonWords_MergesSingleSpaces() {
+        assertEquals(2, OpenAiTokenEstimator.countTokens("Hello world"));
+        assertEquals(2, OpenAiTokenEstimator.countTokens("2023"));
+    }
+
+    @Test
+    void countTokens_Messages_AddsChatFormatOverhead() {
+        List<OpenAiMessage> messages = List.of(OpenAiMessage.builder().role("user").content("Hello world").build());
+
+        assertEquals(9, OpenAiTokenEstimator.countTokens(messages));
+    }
+
+    @Test
+    void countTokens_LongerText_GrowsWithLength() {
+        String sentence = "We are looking for a senior engineer to join our platform team. ";
+
+        assertTrue(OpenAiTokenEstimator.countTokens(sentence.repeat(10)) > OpenAiTokenEstimator.countTokens(sentence) * 9);
+    }
+}
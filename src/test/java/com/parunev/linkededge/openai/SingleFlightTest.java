@@ -0,0 +1,70 @@
+package com.parunev.linkededge.openai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_ConcurrentIdenticalCalls_ShareOneCall() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        upstream.complete("answer");
+
+        assertEquals(1, calls.get());
+        assertEquals("answer", first.join());
+        assertEquals("answer", second.join());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void execute_OneCallerCancels_OthersStillReceiveResult() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute("key", () -> upstream);
+        CompletableFuture<String> second = singleFlight.execute("key", CompletableFuture::new);
+
+        first.cancel(true);
+        assertFalse(upstream.isCancelled());
+
+        upstream.complete("answer");
+        assertEquals("answer", second.join());
+    }
+
+    @Test
+    void execute_AllCallersCancel_CancelsCallAndForgetsKey() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute("key", () -> upstream);
+        CompletableFuture<String> second = singleFlight.execute("key", CompletableFuture::new);
+
+        first.cancel(true);
+        second.cancel(true);
+
+        assertTrue(upstream.isCancelled());
+        assertEquals(0, singleFlight.inFlight());
+
+        CompletableFuture<String> retried = new CompletableFuture<>();
+        CompletableFuture<String> third = singleFlight.execute("key", () -> retried);
+        retried.complete("fresh");
+        assertEquals("fresh", third.join());
+    }
+}
@@ -0,0 +1,76 @@
+package com.parunev.linkededge.openai.benchmark;
+
+import com.parunev.linkededge.model.Skill;
+import com.parunev.linkededge.model.enums.QuestionDifficulty;
+import com.parunev.linkededge.openai.OpenAiPrompts;
+import com.parunev.linkededge.openai.model.OpenAiMessage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description: Compares the interview questions prompt built by {@link OpenAiPrompts#userInterviewQuestionsPrompt}
+ * against the same prompt built inline with `String.formatted`.
+ * Not part of the test suite, run it with `main` from the test classpath.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenAiPromptTemplateBenchmark {
+
+    @Param({"5", "50"})
+    private int skillCount;
+
+    private final List<Skill> skills = new ArrayList<>();
+    private final String education = "Bachelor of Science, Computer Science, Technical University of Sofia";
+    private final String experience = "Backend Developer, LinkedEdge, 2021-2023";
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < skillCount; i++) {
+            skills.add(Skill.builder().name("Skill number " + i).numOfEndorsement(i * 3).build());
+        }
+
+        // Both sides must build the same prompt, or the comparison is meaningless.
+        if (!formatted().getContent().equals(production().getContent())) {
+            throw new IllegalStateException("The baseline does not build the production prompt");
+        }
+    }
+
+    @Benchmark
+    public OpenAiMessage formatted() {
+        StringBuilder content = new StringBuilder();
+        content.append("Generate 5 open-ended interview questions for each skill with the following criteria:\n");
+        content.append("- Education: %s\n".formatted(education));
+        content.append("- Experience: %s\n".formatted(experience));
+        content.append("- Skills (with endorsements):\n");
+        for (int i = 1; i <= skills.size(); i++) {
+            content.append("%d. %s (Endorsement: %d)\n".formatted(
+                    i, skills.get(i - 1).getName(), skills.get(i - 1).getNumOfEndorsement()));
+        }
+        content.append("- Difficulty Level: %s".formatted(QuestionDifficulty.MODERATE));
+        return OpenAiMessage.builder().role("user").content(content.toString()).build();
+    }
+
+    @Benchmark
+    public OpenAiMessage production() {
+        return OpenAiPrompts.userInterviewQuestionsPrompt(education, experience, skills, QuestionDifficulty.MODERATE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OpenAiPromptTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,56 @@
+package com.parunev.linkededge.openai.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryOpenAiResponseCacheTest {
+
+    @Test
+    void get_ReturnsTheStoredResponse() {
+        InMemoryOpenAiResponseCache cache = new InMemoryOpenAiResponseCache(10, 60_000);
+
+        cache.put("key", "response");
+
+        assertEquals("response", cache.get("key"));
+        assertNull(cache.get("other"));
+    }
+
+    @Test
+    void put_EvictsResponsesBeyondTheMaximumSize() {
+        InMemoryOpenAiResponseCache cache = new InMemoryOpenAiResponseCache(1, 60_000);
+
+        cache.put("first", "response");
+        cache.put("second", "response");
+
+        assertNull(cache.get("first"));
+        assertEquals("response", cache.get("second"));
+    }
+
+    @Test
+    void get_ExpiresResponsesAfterTheTtl() throws InterruptedException {
+        InMemoryOpenAiResponseCache cache = new InMemoryOpenAiResponseCache(10, 1);
+
+        cache.put("key", "response");
+        Thread.sleep(20);
+
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    void bindTo_PublishesHitsAndMisses() {
+        InMemoryOpenAiResponseCache cache = new InMemoryOpenAiResponseCache(10, 60_000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.put("key", "response");
+        cache.get("key");
+        cache.get("other");
+
+        assertEquals(1, registry.get("cache.gets").tag("cache", InMemoryOpenAiResponseCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", InMemoryOpenAiResponseCache.CACHE_NAME)
+                .tag("result", "miss").functionCounter().count());
+    }
+}
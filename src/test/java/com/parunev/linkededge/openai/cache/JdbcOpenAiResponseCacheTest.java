@@ -0,0 +1,102 @@
+package com.parunev.linkededge.openai.cache;
+
+import com.parunev.linkededge.model.OpenAiCachedResponse;
+import com.parunev.linkededge.repository.OpenAiCachedResponseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JdbcOpenAiResponseCacheTest {
+
+    private static final long TTL = 3_600_000;
+
+    @Mock
+    private OpenAiCachedResponseRepository repository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private JdbcOpenAiResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cache = new JdbcOpenAiResponseCache(repository, registry, TTL);
+    }
+
+    @Test
+    void get_ReturnsAnUnexpiredResponseAndCountsAHit() {
+        when(repository.findByCacheKeyAndExpiresAtAfter(eq("key"), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(OpenAiCachedResponse.builder().cacheKey("key").response("response").build()));
+
+        assertEquals("response", cache.get("key"));
+        assertEquals(1, count("hit"));
+        assertEquals(0, count("miss"));
+    }
+
+    @Test
+    void get_ReturnsNullForAMissingOrExpiredResponseAndCountsAMiss() {
+        when(repository.findByCacheKeyAndExpiresAtAfter(eq("key"), any(LocalDateTime.class))).thenReturn(Optional.empty());
+
+        assertNull(cache.get("key"));
+        assertEquals(0, count("hit"));
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void put_StoresANewResponseExpiringAfterTheTtl() {
+        when(repository.findByCacheKey("key")).thenReturn(Optional.empty());
+        LocalDateTime before = LocalDateTime.now();
+
+        cache.put("key", "response");
+
+        ArgumentCaptor<OpenAiCachedResponse> saved = ArgumentCaptor.forClass(OpenAiCachedResponse.class);
+        verify(repository).save(saved.capture());
+        assertEquals("key", saved.getValue().getCacheKey());
+        assertEquals("response", saved.getValue().getResponse());
+        assertFalse(saved.getValue().getExpiresAt().isBefore(before.plusSeconds(TTL / 1000)));
+    }
+
+    @Test
+    void put_ReplacesAnExistingResponse() {
+        OpenAiCachedResponse existing = OpenAiCachedResponse.builder().cacheKey("key").response("old")
+                .expiresAt(LocalDateTime.now().minusMinutes(1)).build();
+        when(repository.findByCacheKey("key")).thenReturn(Optional.of(existing));
+
+        cache.put("key", "response");
+
+        verify(repository).save(existing);
+        assertEquals("response", existing.getResponse());
+        assertTrue(existing.getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void put_KeepsTheResponseAnotherNodeStored() {
+        when(repository.findByCacheKey("key")).thenReturn(Optional.empty());
+        when(repository.save(any(OpenAiCachedResponse.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertDoesNotThrow(() -> cache.put("key", "response"));
+    }
+
+    @Test
+    void purgeExpired_DeletesExpiredResponses() {
+        cache.purgeExpired();
+
+        verify(repository).deleteAllByExpiresAtBefore(any(LocalDateTime.class));
+    }
+
+    private double count(String result) {
+        return registry.get("cache.gets").tag("cache", InMemoryOpenAiResponseCache.CACHE_NAME)
+                .tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,57 @@
+package com.parunev.linkededge.openai.stub;
+
+import java.util.Random;
+
+/**
+ * @Description: The distribution the response latency of the {@link OpenAiStubServer} is drawn from.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Draw the latency of a single response.
+     *
+     * @param random The source of randomness, shared by the server.
+     * @return The latency in milliseconds.
+     */
+    long nextMillis(Random random);
+
+    /**
+     * @return A distribution without latency.
+     */
+    static LatencyDistribution none() {
+        return random -> 0;
+    }
+
+    /**
+     * @param millis The latency of every response.
+     * @return A distribution always answering with the same latency.
+     */
+    static LatencyDistribution fixed(long millis) {
+        return random -> millis;
+    }
+
+    /**
+     * @param minMillis The lowest latency.
+     * @param maxMillis The highest latency.
+     * @return A distribution spreading the latency evenly between the bounds.
+     */
+    static LatencyDistribution uniform(long minMillis, long maxMillis) {
+        return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+    }
+
+    /**
+     * A log-normal distribution, the usual shape of OpenAI latencies: most responses close to the median and
+     * a long tail of slow ones.
+     *
+     * @param medianMillis The median latency.
+     * @param sigma The spread of the tail, 0.5 gives a p99 of about three times the median.
+     * @return The distribution.
+     */
+    static LatencyDistribution logNormal(long medianMillis, double sigma) {
+        return random -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+}
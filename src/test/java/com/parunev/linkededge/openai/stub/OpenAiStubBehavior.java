@@ -0,0 +1,81 @@
+package com.parunev.linkededge.openai.stub;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * @Description: How the {@link OpenAiStubServer} answers: how fast, how large, and how often it fails.
+ * <p>
+ * Failure rates are probabilities between 0 and 1, drawn independently for every request. Rate limited responses
+ * are answered with status 429 and a `Retry-After` header, server errors alternate between 500 and 503.
+ * Streamed responses are sent one event per chunk, with `streamChunkDelay` between the chunks; a non-zero
+ * `dripBytesPerSecond` sends regular responses as a slow drip instead of all at once.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Getter
+@Builder(toBuilder = true)
+public class OpenAiStubBehavior {
+
+    /**
+     * Answers at once, with short texts and without failures.
+     */
+    public static final OpenAiStubBehavior DEFAULT = OpenAiStubBehavior.builder().build();
+
+    /**
+     * The time until the response headers are sent.
+     */
+    @Builder.Default
+    private LatencyDistribution latency = LatencyDistribution.none();
+
+    /**
+     * The probability of answering with 429 Too Many Requests.
+     */
+    @Builder.Default
+    private double rateLimitRate = 0;
+
+    /**
+     * The `Retry-After` sent with rate limited responses.
+     */
+    @Builder.Default
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * The probability of answering with a 500 or 503 server error.
+     */
+    @Builder.Default
+    private double serverErrorRate = 0;
+
+    /**
+     * The number of words of every generated text, to simulate larger completions.
+     */
+    @Builder.Default
+    private int words = 12;
+
+    /**
+     * The number of characters of content sent in every streamed event.
+     */
+    @Builder.Default
+    private int streamChunkSize = 16;
+
+    /**
+     * The delay between two streamed events.
+     */
+    @Builder.Default
+    private Duration streamChunkDelay = Duration.ZERO;
+
+    /**
+     * The rate regular response bodies are sent at, 0 to send them at once.
+     */
+    @Builder.Default
+    private long dripBytesPerSecond = 0;
+
+    /**
+     * The seed of the random failures and latencies, so a load test can be repeated.
+     */
+    @Builder.Default
+    private long seed = 42;
+}
@@ -0,0 +1,367 @@
+package com.parunev.linkededge.openai.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.parunev.linkededge.model.enums.QuestionDifficulty;
+import com.parunev.linkededge.openai.OpenAiJobPrompt;
+import com.parunev.linkededge.openai.OpenAiPrompts;
+import com.parunev.linkededge.openai.OpenAiTokenEstimator;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @Description: A local, OpenAI compatible chat completions server for tests and load tests.
+ * <p>
+ * The server answers every prompt of {@link OpenAiPrompts} and {@link OpenAiJobPrompt} with a payload matching the
+ * schema the prompt asks for: `yes` to validations, and the interview questions, specialized answer and job coaching
+ * JSON objects the services bind. Questions are generated for the skills listed in the prompt, at the requested
+ * difficulty. Any other prompt gets a short text. Streamed requests are answered with server-sent events, and every
+ * response reports its usage from the {@link OpenAiTokenEstimator}, respecting `max_tokens`.
+ * Latency, failures and slow bodies are injected according to the {@link OpenAiStubBehavior}.
+ * <p>
+ * Point {@link com.parunev.linkededge.openai.OpenAi} at {@link #url()}, or run {@link #main(String[])} and start the
+ * application with `OPEN_AI_HOST` set to the printed URL.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public class OpenAiStubServer implements AutoCloseable {
+
+    private static final Pattern SKILL_LINE = Pattern.compile("^\\d+\\. (.+) \\(Endorsement: .*\\)$", Pattern.MULTILINE);
+    private static final Pattern DIFFICULTY_LINE = Pattern.compile("- Difficulty Level: (\\w+)");
+    private static final int QUESTIONS_PER_SKILL = 5;
+    private static final int COACHING_QUESTIONS = 5;
+    private static final int CHARS_PER_TOKEN = 4; // Used to cut completions down to `max_tokens`
+
+    private final MockWebServer server = new MockWebServer();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong ids = new AtomicLong();
+    private volatile OpenAiStubBehavior behavior;
+    private volatile Random random;
+
+    /**
+     * Constructor for the OpenAiStubServer class.
+     *
+     * @param behavior How the server answers.
+     */
+    public OpenAiStubServer(OpenAiStubBehavior behavior) {
+        setBehavior(behavior);
+        server.setDispatcher(new Dispatcher() {
+            @NotNull
+            @Override
+            public MockResponse dispatch(@NotNull RecordedRequest request) {
+                return answer(request);
+            }
+        });
+    }
+
+    /**
+     * Start a stub server and keep it running until the process is stopped.
+     *
+     * @param args The port to listen on, a free port when omitted.
+     * @throws IOException If the server cannot be started.
+     */
+    public static void main(String[] args) throws IOException {
+        OpenAiStubServer stub = new OpenAiStubServer(OpenAiStubBehavior.builder()
+                .latency(LatencyDistribution.logNormal(800, 0.5))
+                .rateLimitRate(0.01)
+                .serverErrorRate(0.005)
+                .build());
+        stub.start(args.length > 0 ? Integer.parseInt(args[0]) : 0);
+        System.out.println("OpenAI stub listening at " + stub.url());
+    }
+
+    /**
+     * Start the server on a free port.
+     *
+     * @throws IOException If the server cannot be started.
+     */
+    public void start() throws IOException {
+        start(0);
+    }
+
+    /**
+     * Start the server.
+     *
+     * @param port The port to listen on, 0 for a free port.
+     * @throws IOException If the server cannot be started.
+     */
+    public void start(int port) throws IOException {
+        server.start(port);
+    }
+
+    /**
+     * @return The chat completions URL, the value of `openai.host`.
+     */
+    public String url() {
+        return server.url("/v1/chat/completions").toString();
+    }
+
+    /**
+     * Change how the server answers from the next request on.
+     *
+     * @param behavior How the server answers.
+     */
+    public void setBehavior(OpenAiStubBehavior behavior) {
+        this.behavior = behavior;
+        this.random = new Random(behavior.getSeed());
+    }
+
+    /**
+     * @return The number of requests the server received.
+     */
+    public int getRequestCount() {
+        return server.getRequestCount();
+    }
+
+    /**
+     * Take the next request the server received, waiting for it if there is none yet.
+     *
+     * @return The request, or `null` if none was received within a second.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public RecordedRequest takeRequest() throws InterruptedException {
+        return server.takeRequest(1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse answer(RecordedRequest request) {
+        OpenAiStubBehavior current = behavior;
+        long latency = current.getLatency().nextMillis(random);
+        double failure = random.nextDouble();
+
+        MockResponse response;
+        try {
+            JsonNode body = objectMapper.readTree(request.getBody().readUtf8());
+            if (failure < current.getRateLimitRate()) {
+                response = error(429, "rate_limit_exceeded", "Rate limit reached for requests")
+                        .setHeader("Retry-After", current.getRetryAfter().toMillis() / 1000.0);
+            } else if (failure < current.getRateLimitRate() + current.getServerErrorRate()) {
+                response = failure < current.getRateLimitRate() + current.getServerErrorRate() / 2
+                        ? error(500, "server_error", "The server had an error while processing your request")
+                        : error(503, "server_error", "The engine is currently overloaded");
+            } else {
+                response = completion(body, current);
+            }
+        } catch (IOException e) {
+            response = error(400, "invalid_request_error", "We could not parse the JSON body of your request");
+        }
+
+        return response.setHeadersDelay(latency, TimeUnit.MILLISECONDS);
+    }
+
+    private MockResponse completion(JsonNode request, OpenAiStubBehavior current) throws IOException {
+        String model = request.path("model").asText("gpt-3.5-turbo");
+        String system = message(request, "system");
+        String user = message(request, "user");
+
+        String content = content(system, user, current.getWords());
+        String finishReason = "stop";
+        JsonNode maxTokens = request.get("max_tokens");
+        if (maxTokens != null && maxTokens.isInt() && OpenAiTokenEstimator.countTokens(content) > maxTokens.asInt()) {
+            content = content.substring(0, Math.min(content.length(), maxTokens.asInt() * CHARS_PER_TOKEN));
+            finishReason = "length";
+        }
+
+        int promptTokens = promptTokens(request);
+        int completionTokens = OpenAiTokenEstimator.countTokens(content);
+        String id = "chatcmpl-stub-" + ids.incrementAndGet();
+
+        if (request.path("stream").asBoolean(false)) {
+            return stream(id, model, content, finishReason, current);
+        }
+
+        ObjectNode completion = objectMapper.createObjectNode()
+                .put("id", id)
+                .put("object", "chat.completion")
+                .put("created", System.currentTimeMillis() / 1000)
+                .put("model", model);
+        ObjectNode choice = completion.putArray("choices").addObject().put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", finishReason);
+        completion.putObject("usage")
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+
+        MockResponse response = json(200, objectMapper.writeValueAsString(completion));
+        if (current.getDripBytesPerSecond() > 0) {
+            // Sent in slices every 100 ms.
+            response.throttleBody(Math.max(1, current.getDripBytesPerSecond() / 10), 100, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private MockResponse stream(String id, String model, String content, String finishReason,
+                                OpenAiStubBehavior current) throws IOException {
+        StringBuilder events = new StringBuilder();
+        int chunks = 0;
+        for (int start = 0; start < content.length(); start += current.getStreamChunkSize()) {
+            String piece = content.substring(start, Math.min(content.length(), start + current.getStreamChunkSize()));
+            events.append(event(id, model, piece, null));
+            chunks++;
+        }
+        events.append(event(id, model, null, finishReason));
+        events.append("data: [DONE]\n\n");
+
+        MockResponse response = new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody(events.toString());
+
+        Duration delay = current.getStreamChunkDelay();
+        if (!delay.isZero()) {
+            // Throttled by the average event size, so about one event arrives per delay.
+            long bytesPerEvent = Math.max(1, response.getBody().size() / (chunks + 2));
+            response.throttleBody(bytesPerEvent, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private String event(String id, String model, String piece, String finishReason) throws IOException {
+        ObjectNode chunk = objectMapper.createObjectNode()
+                .put("id", id)
+                .put("object", "chat.completion.chunk")
+                .put("created", System.currentTimeMillis() / 1000)
+                .put("model", model);
+        ObjectNode choice = chunk.putArray("choices").addObject().put("index", 0);
+        ObjectNode delta = choice.putObject("delta");
+        if (piece != null) {
+            delta.put("content", piece);
+        }
+        if (finishReason != null) {
+            choice.put("finish_reason", finishReason);
+        } else {
+            choice.putNull("finish_reason");
+        }
+        return "data: " + objectMapper.writeValueAsString(chunk) + "\n\n";
+    }
+
+    /**
+     * Generate the content the prompt asks for, recognized by its system message.
+     */
+    private String content(String system, String user, int words) throws IOException {
+        if (system == null) {
+            return text("Stub answer", words);
+        } else if (system.equals(OpenAiPrompts.SYSTEM_IS_IT_VALID_SKILL.getContent())
+                || system.equals(OpenAiPrompts.SYSTEM_IS_IT_VALID_EDUCATION.getContent())
+                || system.equals(OpenAiPrompts.SYSTEM_IS_IT_VALID_EXPERIENCE.getContent())) {
+            return "yes";
+        } else if (system.equals(OpenAiPrompts.SYSTEM_INTERVIEW_QUESTION_PROMPT.getContent())) {
+            return interviewQuestions(user, words);
+        } else if (system.equals(OpenAiPrompts.SYSTEM_ANSWER_SPECIALIZED_INTERVIEW_QUESTION_PROMPT.getContent())) {
+            ObjectNode answer = objectMapper.createObjectNode()
+                    .put("answer", text("Answer", words))
+                    .put("example", text("Example", words))
+                    .put("benefits", text("Benefits", words));
+            return objectMapper.writeValueAsString(answer);
+        } else if (system.equals(OpenAiJobPrompt.SYSTEM_PREPARE_AND_COACH_FOR_INTERVIEW.getContent())) {
+            return jobCoaching(words);
+        }
+        return text("Stub answer", words);
+    }
+
+    private String interviewQuestions(String user, int words) throws IOException {
+        List<String> skills = new ArrayList<>();
+        Matcher skillMatcher = SKILL_LINE.matcher(user != null ? user : "");
+        while (skillMatcher.find()) {
+            skills.add(skillMatcher.group(1));
+        }
+        if (skills.isEmpty()) {
+            skills.add("General");
+        }
+
+        Matcher difficultyMatcher = DIFFICULTY_LINE.matcher(user != null ? user : "");
+        String difficulty = difficultyMatcher.find() ? difficultyMatcher.group(1) : QuestionDifficulty.MODERATE.name();
+
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode questions = root.putArray("questions");
+        for (String skill : skills) {
+            for (int i = 1; i <= QUESTIONS_PER_SKILL; i++) {
+                questions.addObject()
+                        .put("difficulty", difficulty)
+                        .put("skill", skill)
+                        .put("question", text("Question " + i + " about " + skill, words / 2))
+                        .put("answer", text("Answer " + i, words));
+            }
+        }
+        return objectMapper.writeValueAsString(root);
+    }
+
+    private String jobCoaching(int words) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.putArray("preparation").addObject()
+                .put("doYouFit", text("You fit", words))
+                .put("doYouNotFit", text("You might not fit", words));
+
+        QuestionDifficulty[] difficulties = QuestionDifficulty.values();
+        ArrayNode coaching = root.putArray("coaching");
+        for (int i = 0; i < COACHING_QUESTIONS; i++) {
+            coaching.addObject()
+                    .put("difficulty", difficulties[i % difficulties.length].name())
+                    .put("question", text("Question " + (i + 1), words / 2))
+                    .put("insight", text("Insight", words))
+                    .put("advice", text("Advice", words))
+                    .put("answer", text("Answer", words));
+        }
+        return objectMapper.writeValueAsString(root);
+    }
+
+    private static String text(String prefix, int words) {
+        StringBuilder text = new StringBuilder(prefix).append(':');
+        for (int i = 0; i < words; i++) {
+            text.append(" lorem");
+        }
+        return text.append('.').toString();
+    }
+
+    private static String message(JsonNode request, String role) {
+        for (JsonNode message : request.path("messages")) {
+            if (role.equals(message.path("role").asText())) {
+                return message.path("content").asText();
+            }
+        }
+        return null;
+    }
+
+    private static int promptTokens(JsonNode request) {
+        int tokens = 3;
+        for (JsonNode message : request.path("messages")) {
+            tokens += 3 + OpenAiTokenEstimator.countTokens(message.path("role").asText())
+                    + OpenAiTokenEstimator.countTokens(message.path("content").asText());
+        }
+        return tokens;
+    }
+
+    private MockResponse error(int status, String code, String message) {
+        ObjectNode error = objectMapper.createObjectNode();
+        error.putObject("error").put("message", message).put("type", code).putNull("param").put("code", code);
+        return json(status, error.toString());
+    }
+
+    private static MockResponse json(int status, String body) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+}
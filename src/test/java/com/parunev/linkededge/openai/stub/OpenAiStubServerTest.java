@@ -0,0 +1,117 @@
+package com.parunev.linkededge.openai.stub;
+
+import com.parunev.linkededge.model.Skill;
+import com.parunev.linkededge.model.enums.QuestionDifficulty;
+import com.parunev.linkededge.model.payload.interview.GeneratedAnswer;
+import com.parunev.linkededge.model.payload.interview.GeneratedJobPreparation;
+import com.parunev.linkededge.model.payload.interview.GeneratedQuestions;
+import com.parunev.linkededge.openai.OpenAi;
+import com.parunev.linkededge.openai.OpenAiJobPrompt;
+import com.parunev.linkededge.openai.OpenAiPrompts;
+import com.parunev.linkededge.openai.OpenAiRetryPolicy;
+import com.parunev.linkededge.openai.exception.OpenAiException;
+import com.parunev.linkededge.openai.model.OpenAiMessage;
+import com.parunev.linkededge.openai.model.OpenAiOptions;
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAiStubServerTest {
+
+    private OpenAiStubServer stub;
+    private OpenAi openAi;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = new OpenAiStubServer(OpenAiStubBehavior.DEFAULT);
+        stub.start();
+        openAi = OpenAi.builder()
+                .openAiApi("test-key")
+                .openAiHost(stub.url())
+                .client(new OkHttpClient())
+                .retryPolicy(OpenAiRetryPolicy.builder().maxAttempts(2).initialBackoff(Duration.ofMillis(10)).build())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        stub.close();
+    }
+
+    @Test
+    void askForAsync_AnswersInterviewQuestionsForEverySkill() {
+        List<Skill> skills = List.of(Skill.builder().name("Java").numOfEndorsement(3).build(),
+                Skill.builder().name("Spring Boot").numOfEndorsement(1).build());
+        List<OpenAiMessage> messages = List.of(OpenAiPrompts.SYSTEM_INTERVIEW_QUESTION_PROMPT,
+                OpenAiPrompts.userInterviewQuestionsPrompt("Computer Science", "Developer", skills, QuestionDifficulty.HARD));
+
+        GeneratedQuestions questions = openAi.askForAsync(messages, options(OpenAiRoute.INTERVIEW_QUESTIONS),
+                GeneratedQuestions.class).join();
+
+        assertEquals(10, questions.questions().size());
+        assertEquals("Spring Boot", questions.questions().get(9).skill());
+        assertTrue(questions.questions().stream().allMatch(question -> question.difficulty() == QuestionDifficulty.HARD));
+    }
+
+    @Test
+    void askForAsync_AnswersSpecializedQuestionsAndJobCoaching() {
+        GeneratedAnswer answer = openAi.askForAsync(List.of(OpenAiPrompts.SYSTEM_ANSWER_SPECIALIZED_INTERVIEW_QUESTION_PROMPT,
+                        OpenAiPrompts.userGenerateSpecializedAnswer("What is a closure")),
+                options(OpenAiRoute.SPECIALIZED_ANSWER), GeneratedAnswer.class).join();
+        GeneratedJobPreparation preparation = openAi.askForAsync(List.of(OpenAiJobPrompt.SYSTEM_PREPARE_AND_COACH_FOR_INTERVIEW,
+                        OpenAiMessage.builder().role("user").content("Prepare me").build()),
+                options(OpenAiRoute.JOB_COACHING), GeneratedJobPreparation.class).join();
+
+        assertFalse(answer.example().isEmpty());
+        assertEquals(5, preparation.coaching().size());
+        assertEquals(1, preparation.preparation().size());
+    }
+
+    @Test
+    void askAsync_AnswersValidationsWithYes() {
+        String answer = openAi.askAsync(List.of(OpenAiPrompts.SYSTEM_IS_IT_VALID_SKILL,
+                OpenAiPrompts.userIsItValidSkill("Java")), options(OpenAiRoute.VALIDATION)).join();
+
+        assertEquals("yes", answer);
+    }
+
+    @Test
+    void askStream_SendsTheAnswerInChunks() {
+        stub.setBehavior(OpenAiStubBehavior.builder().words(40).streamChunkSize(8).build());
+        List<String> chunks = new ArrayList<>();
+
+        GeneratedAnswer answer = openAi.askStreamFor(List.of(OpenAiPrompts.SYSTEM_ANSWER_SPECIALIZED_INTERVIEW_QUESTION_PROMPT,
+                        OpenAiPrompts.userGenerateSpecializedAnswer("What is a closure")),
+                options(OpenAiRoute.SPECIALIZED_ANSWER), GeneratedAnswer.class, chunks::add).join();
+
+        assertTrue(chunks.size() > 10);
+        assertTrue(answer.answer().startsWith("Answer:"));
+    }
+
+    @Test
+    void askAsync_RetriesAndFailsWhenRateLimited() {
+        stub.setBehavior(OpenAiStubBehavior.builder().rateLimitRate(1).retryAfter(Duration.ZERO).build());
+
+        CompletionException e = assertThrows(CompletionException.class, () -> openAi.askAsync(
+                List.of(OpenAiPrompts.SYSTEM_IS_IT_VALID_SKILL, OpenAiPrompts.userIsItValidSkill("Java"))).join());
+
+        OpenAiException cause = assertInstanceOf(OpenAiException.class, e.getCause());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, cause.getApiError().getStatus());
+        assertEquals(2, stub.getRequestCount());
+    }
+
+    private static OpenAiOptions options(OpenAiRoute route) {
+        return OpenAiOptions.builder().route(route).build();
+    }
+}
@@ -2,6 +2,8 @@ package com.parunev.linkededge.security.jwt;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.parunev.linkededge.model.JwtToken;
+import com.parunev.linkededge.model.User;
+import com.parunev.linkededge.model.enums.Authority;
 import com.parunev.linkededge.repository.JwtTokenRepository;
 import com.parunev.linkededge.repository.UserRepository;
 import com.parunev.linkededge.service.UserService;
@@ -10,15 +12,20 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Optional;
+import java.util.UUID;
 
+import static com.parunev.linkededge.util.TokenHashUtil.sha256;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +39,12 @@ class JwtFilterTest {
     @Mock
     private JwtTokenRepository jwtTokenRepository;
 
+    @Mock
+    private JwtRevocationIndex revocationIndex;
+
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private ObjectMapper objectMapper;
 
@@ -44,22 +57,79 @@ class JwtFilterTest {
     }
 
     @Test
-    @Disabled(value = "Further testing needed")
     void testDoFilterInternal_WhenJwtIsValid() throws Exception {
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
         FilterChain filterChain = mock(FilterChain.class);
-        UserDetails userDetails = mock(UserDetails.class);
+        User user = user(true);
+        JwtToken jwtToken = JwtToken.builder()
+                .tokenValue("valid-jwt-token")
+                .user(user)
+                .build();
+
+        when(request.getRequestURI()).thenReturn("/edge-api/v1/interview/generate");
+        when(request.getHeader("Authorization")).thenReturn("Bearer valid-jwt-token");
+        when(jwtService.extractEmail("valid-jwt-token")).thenReturn("user@example.com");
+        when(jwtService.extractTokenId("valid-jwt-token")).thenReturn("token-id");
+        when(jwtTokenRepository.findWithUserByTokenHash(sha256("valid-jwt-token"))).thenReturn(Optional.of(jwtToken));
+        when(jwtService.isTokenValid("valid-jwt-token", user)).thenReturn(true);
+
+        try {
+            jwtFilter.doFilterInternal(request, response, filterChain);
+
+            assertEquals(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+            verify(revocationIndex).registerActive("token-id", user.getId());
+            verifyNoInteractions(userService);
+            verify(filterChain).doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void testDoFilterInternal_WhenJwtIsActiveLoadsTheCurrentUser() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain filterChain = mock(FilterChain.class);
+        User user = user(true);
+
+        when(request.getRequestURI()).thenReturn("/edge-api/v1/interview/generate");
+        when(request.getHeader("Authorization")).thenReturn("Bearer valid-jwt-token");
+        when(jwtService.extractEmail("valid-jwt-token")).thenReturn("user@example.com");
+        when(jwtService.extractTokenId("valid-jwt-token")).thenReturn("token-id");
+        when(revocationIndex.getActive("token-id")).thenReturn(user.getId());
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(jwtService.isTokenValid("valid-jwt-token", user)).thenReturn(true);
+
+        try {
+            jwtFilter.doFilterInternal(request, response, filterChain);
+
+            assertEquals(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+            verifyNoInteractions(jwtTokenRepository);
+            verify(filterChain).doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
 
+    @Test
+    void testDoFilterInternal_WhenUserIsDisabled() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain filterChain = mock(FilterChain.class);
+        User user = user(false);
+
+        when(request.getRequestURI()).thenReturn("/edge-api/v1/interview/generate");
         when(request.getHeader("Authorization")).thenReturn("Bearer valid-jwt-token");
         when(jwtService.extractEmail("valid-jwt-token")).thenReturn("user@example.com");
-        when(userService.loadUserByUsername("user@example.com")).thenReturn(userDetails);
-        when(jwtTokenRepository.findByTokenValue("valid-jwt-token")).thenReturn(Optional.of(new JwtToken()));
-        when(jwtService.isTokenValid("valid-jwt-token", userDetails)).thenReturn(true);
+        when(jwtService.extractTokenId("valid-jwt-token")).thenReturn("token-id");
+        when(revocationIndex.getActive("token-id")).thenReturn(user.getId());
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(jwtService.isTokenValid("valid-jwt-token", user)).thenReturn(true);
 
         jwtFilter.doFilterInternal(request, response, filterChain);
 
-        verify(userDetails).getUsername();
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
     }
 
@@ -77,11 +147,41 @@ class JwtFilterTest {
         });
 
         when(userService.loadUserByUsername(anyString())).thenReturn(userDetails);
-        when(jwtTokenRepository.findByTokenValue("invalid-jwt-token")).thenReturn(Optional.empty());
+        when(jwtTokenRepository.findWithUserByTokenHash(sha256("invalid-jwt-token"))).thenReturn(Optional.empty());
 
         assertThrows(JwtException.class, () ->
                 jwtFilter.doFilterInternal(request, response, filterChain));
 
         verifyNoInteractions(filterChain);
     }
+
+    @Test
+    void testDoFilterInternal_WhenJwtIsRevoked() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain filterChain = mock(FilterChain.class);
+
+        when(request.getRequestURI()).thenReturn("/edge-api/v1/interview/generate");
+        when(request.getHeader("Authorization")).thenReturn("Bearer revoked-jwt-token");
+        when(jwtService.extractEmail("revoked-jwt-token")).thenReturn("user@example.com");
+        when(jwtService.extractTokenId("revoked-jwt-token")).thenReturn("token-id");
+        when(revocationIndex.isRevoked("token-id")).thenReturn(true);
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(jwtTokenRepository);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    private static User user(boolean enabled) {
+        User user = User.builder()
+                .username("user")
+                .email("user@example.com")
+                .authority(Authority.AUTHORITY_USER)
+                .isEnabled(enabled)
+                .build();
+        ReflectionTestUtils.setField(user, "id", UUID.randomUUID());
+        return user;
+    }
 }
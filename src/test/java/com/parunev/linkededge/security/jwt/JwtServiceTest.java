@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
@@ -20,6 +21,8 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class JwtServiceTest {
@@ -36,6 +39,9 @@ class JwtServiceTest {
     @Mock
     private User userMock;
 
+    @Spy
+    private JwtCache jwtCache = new JwtCache(100, 3600000);
+
     @InjectMocks
     private JwtService jwtService;
 
@@ -83,6 +89,25 @@ class JwtServiceTest {
         assertEquals(email, extractedEmail);
     }
 
+    @Test
+    void testDecodeVerifiesTokenOnlyOnce() {
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("alg", "RS256");
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "test@example.com");
+
+        Jwt token = new Jwt("mocked-token-value", Instant.now(),
+                Instant.now().plus(Duration.ofMinutes(10)), headers, claims);
+        when(jwtDecoder.decode(token.getTokenValue())).thenReturn(token);
+
+        jwtService.extractEmail(token.getTokenValue());
+        jwtService.extractClaim(token.getTokenValue());
+        jwtService.isTokenExpired(token.getTokenValue());
+
+        verify(jwtDecoder, times(1)).decode(token.getTokenValue());
+        assertEquals(1, jwtCache.getMissCount());
+    }
+
     @Test
     @Disabled(value = "Further testing needed")
     void testIsTokenValid() {
@@ -0,0 +1,126 @@
+package com.parunev.linkededge.service.extraction;
+
+import com.parunev.linkededge.model.job.CompanyIndustry;
+import com.parunev.linkededge.model.job.CompanyResolution;
+import com.parunev.linkededge.model.job.CompanySpecialty;
+import com.parunev.linkededge.repository.CompanyResolutionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CompanyResolutionStoreTest {
+
+    private static final long FRESHNESS = 86_400_000;
+
+    @Mock
+    private CompanyResolutionRepository companyResolutionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private CompanyResolutionStore companyResolutionStore;
+    private final AtomicInteger extractions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(companyResolutionRepository.save(any(CompanyResolution.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        companyResolutionStore = new CompanyResolutionStore(companyResolutionRepository, transactionTemplate,
+                100, 3_600_000, FRESHNESS);
+    }
+
+    @Test
+    void testResolve_SavesANewCompanyOnceAndServesItFromMemory() {
+        when(companyResolutionRepository.findFirstByCompanyUniversalNameOrderByFetchedAtDesc("linkededge"))
+                .thenReturn(Optional.empty());
+
+        CompanyResolution first = companyResolutionStore.resolve("linkededge", extractor("LinkedEdge"));
+        CompanyResolution second = companyResolutionStore.resolve("linkededge", extractor("LinkedEdge"));
+
+        assertSame(first, second);
+        assertNotNull(first.getFetchedAt());
+        assertEquals(1, extractions.get());
+        verify(companyResolutionRepository, times(1)).save(any(CompanyResolution.class));
+        verify(companyResolutionRepository, times(1)).findFirstByCompanyUniversalNameOrderByFetchedAtDesc("linkededge");
+    }
+
+    @Test
+    void testResolve_ReusesAFreshStoredCompanyWithoutWriting() {
+        CompanyResolution stored = company("LinkedEdge", LocalDateTime.now().minusHours(1));
+        when(companyResolutionRepository.findFirstByCompanyUniversalNameOrderByFetchedAtDesc("linkededge"))
+                .thenReturn(Optional.of(stored));
+
+        CompanyResolution resolved = companyResolutionStore.resolve("linkededge", extractor("Renamed"));
+
+        assertSame(stored, resolved);
+        assertEquals("LinkedEdge", resolved.getCompanyName());
+        assertEquals(0, extractions.get());
+        verify(companyResolutionRepository, never()).save(any(CompanyResolution.class));
+    }
+
+    @Test
+    void testResolve_RefreshesAStaleStoredCompanyInPlace() {
+        LocalDateTime fetchedAt = LocalDateTime.now().minusDays(2);
+        CompanyResolution stored = company("LinkedEdge", fetchedAt);
+        stored.getSpecialties().add(CompanySpecialty.builder().companyResolution(stored).specialtyName("Old").build());
+        when(companyResolutionRepository.findFirstByCompanyUniversalNameOrderByFetchedAtDesc("linkededge"))
+                .thenReturn(Optional.of(stored));
+
+        CompanyResolution resolved = companyResolutionStore.resolve("linkededge", extractor("Renamed"));
+
+        assertSame(stored, resolved);
+        assertEquals("Renamed", resolved.getCompanyName());
+        assertTrue(resolved.getFetchedAt().isAfter(fetchedAt));
+        assertEquals(List.of("Interview preparation"),
+                resolved.getSpecialties().stream().map(CompanySpecialty::getSpecialtyName).toList());
+        assertSame(stored, resolved.getSpecialties().get(0).getCompanyResolution());
+        assertSame(stored, resolved.getIndustries().get(0).getCompanyResolution());
+        verify(companyResolutionRepository, never()).save(any(CompanyResolution.class));
+    }
+
+    @Test
+    void testResolve_SavesCompaniesWithoutUniversalNamePerJob() {
+        CompanyResolution first = companyResolutionStore.resolve(ExtractionConstants.NOT_PRESENT.getValue(), extractor("Unknown"));
+        CompanyResolution second = companyResolutionStore.resolve(ExtractionConstants.NOT_PRESENT.getValue(), extractor("Unknown"));
+
+        assertNotSame(first, second);
+        verify(companyResolutionRepository, times(2)).save(any(CompanyResolution.class));
+        verify(companyResolutionRepository, never()).findFirstByCompanyUniversalNameOrderByFetchedAtDesc(any());
+    }
+
+    private Supplier<CompanyResolution> extractor(String name) {
+        return () -> {
+            extractions.incrementAndGet();
+            CompanyResolution company = company(name, null);
+            company.getSpecialties().add(CompanySpecialty.builder().companyResolution(company).specialtyName("Interview preparation").build());
+            company.getIndustries().add(CompanyIndustry.builder().companyResolution(company).industryName("Software Development").build());
+            return company;
+        };
+    }
+
+    private static CompanyResolution company(String name, LocalDateTime fetchedAt) {
+        return CompanyResolution.builder()
+                .companyUniversalName("linkededge")
+                .companyName(name)
+                .fetchedAt(fetchedAt)
+                .specialties(new ArrayList<>())
+                .industries(new ArrayList<>())
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.parunev.linkededge.service.extraction.benchmark;
+
+import com.parunev.linkededge.model.Profile;
+import com.parunev.linkededge.model.User;
+import com.parunev.linkededge.model.enums.Authority;
+import com.parunev.linkededge.openai.stub.LatencyDistribution;
+import com.parunev.linkededge.repository.*;
+import com.parunev.linkededge.service.extraction.CompanyResolutionStore;
+import com.parunev.linkededge.service.extraction.ExtractionService;
+import com.parunev.linkededge.service.extraction.stub.LixStubBehavior;
+import com.parunev.linkededge.service.extraction.stub.LixStubServer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @Description: Drives `createProfile` and `createJob` against the {@link LixStubServer} and an in-memory database,
+ * and reports the throughput, the latencies and the SQL statements per extraction.
+ * Not part of the regular test run, enable it with `-Dextraction.load=true`; the size of the run is set with
+ * `extraction.load.profiles`, `extraction.load.jobs-per-profile`, `extraction.load.threads` and
+ * `extraction.load.latency` (the median Lix latency in milliseconds).
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "extraction.load", matches = "true")
+class ExtractionLoadTest {
+
+    private final int profiles = Integer.getInteger("extraction.load.profiles", 200);
+    private final int jobsPerProfile = Integer.getInteger("extraction.load.jobs-per-profile", 2);
+    private final int threads = Integer.getInteger("extraction.load.threads", 8);
+    private final long latency = Long.getLong("extraction.load.latency", 0L);
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private ProfileRepository profileRepository;
+    @Autowired private ExperienceRepository experienceRepository;
+    @Autowired private OrganisationRepository organisationRepository;
+    @Autowired private EducationRepository educationRepository;
+    @Autowired private SkillRepository skillRepository;
+    @Autowired private CompanyResolutionRepository companyResolutionRepository;
+    @Autowired private JobRepository jobRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void extractProfilesAndJobs() throws Exception {
+        try (LixStubServer stub = new LixStubServer(LixStubBehavior.builder()
+                .recorded(false)
+                .latency(latency > 0 ? LatencyDistribution.logNormal(latency, 0.4) : LatencyDistribution.none())
+                .build())) {
+            stub.start();
+            ExtractionService extractionService = extractionService(stub.url());
+
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < profiles; i++) {
+                users.add(userRepository.save(User.builder()
+                        .username("load-user-" + i)
+                        .email("load-user-" + i + "@linkededge.com")
+                        .password("password")
+                        .firstName("Load")
+                        .lastName("User " + i)
+                        .linkedInProfile("https://www.linkedin.com/in/load-user-" + i)
+                        .authority(Authority.AUTHORITY_USER)
+                        .mfaSecret("secret")
+                        .build()));
+            }
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            List<Long> profileNanos = Collections.synchronizedList(new ArrayList<>());
+            List<Long> jobNanos = Collections.synchronizedList(new ArrayList<>());
+            AtomicInteger jobs = new AtomicInteger();
+
+            statistics.clear();
+            long started = System.nanoTime();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (User user : users) {
+                futures.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    extractionService.createProfile(user);
+                    profileNanos.add(System.nanoTime() - start);
+
+                    Profile profile = profileRepository.findByUserId(user.getId()).orElseThrow();
+                    for (int j = 0; j < jobsPerProfile; j++) {
+                        start = System.nanoTime();
+                        extractionService.createJob(profile, user.getUsername() + "-job-" + j);
+                        jobNanos.add(System.nanoTime() - start);
+                        jobs.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            long elapsed = System.nanoTime() - started;
+
+            System.out.printf("Extracted %d profiles and %d jobs in %d ms with %d threads (%.1f extractions/s)%n",
+                    profiles, jobs.get(), TimeUnit.NANOSECONDS.toMillis(elapsed), threads,
+                    (profiles + jobs.get()) / (elapsed / 1e9));
+            System.out.printf("createProfile p50 %.1f ms, p99 %.1f ms; createJob p50 %.1f ms, p99 %.1f ms%n",
+                    percentile(profileNanos, 0.5), percentile(profileNanos, 0.99),
+                    percentile(jobNanos, 0.5), percentile(jobNanos, 0.99));
+            System.out.printf("%d SQL statements, %d transactions, %.1f statements per extraction%n",
+                    statistics.getPrepareStatementCount(), statistics.getTransactionCount(),
+                    statistics.getPrepareStatementCount() / (double) (profiles + jobs.get()));
+
+            assertEquals(profiles, profileRepository.count());
+            assertEquals(profiles * jobsPerProfile, jobRepository.count());
+            System.out.printf("%d companies stored for %d jobs%n", companyResolutionRepository.count(), jobs.get());
+        }
+    }
+
+    private ExtractionService extractionService(String baseUrl) {
+        ExtractionService extractionService = new ExtractionService(new RestTemplate(),
+                new TransactionTemplate(transactionManager), profileRepository,
+                experienceRepository, organisationRepository, educationRepository, skillRepository,
+                new CompanyResolutionStore(companyResolutionRepository, new TransactionTemplate(transactionManager),
+                        10_000, 3_600_000, 2_592_000_000L), jobRepository);
+        ReflectionTestUtils.setField(extractionService, "lixKey", "load-test-key");
+        ReflectionTestUtils.setField(extractionService, "lixBaseUrl", baseUrl);
+        return extractionService;
+    }
+
+    private static double percentile(List<Long> nanos, double percentile) {
+        if (nanos.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(nanos);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+}
@@ -0,0 +1,93 @@
+package com.parunev.linkededge.service.extraction.stub;
+
+import com.parunev.linkededge.openai.stub.LatencyDistribution;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * @Description: How the {@link LixStubServer} answers: recorded or synthetic payloads, how large, how fast,
+ * and how often it fails.
+ * <p>
+ * Recorded payloads are the fixtures under `lix/` on the test classpath, or the responses registered with
+ * {@link LixStubServer#recordProfile(String, String)} and {@link LixStubServer#recordJob(String, String)}.
+ * Synthetic payloads are generated with the sizes below, so the cost of extracting large profiles and jobs can be
+ * measured. Failure rates are probabilities between 0 and 1, drawn independently for every request.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+@Getter
+@Builder(toBuilder = true)
+public class LixStubBehavior {
+
+    /**
+     * Answers at once with the recorded fixtures and without failures.
+     */
+    public static final LixStubBehavior DEFAULT = LixStubBehavior.builder().build();
+
+    /**
+     * Whether to answer with recorded payloads, or to generate them.
+     */
+    @Builder.Default
+    private boolean recorded = true;
+
+    /**
+     * The time until the response headers are sent.
+     */
+    @Builder.Default
+    private LatencyDistribution latency = LatencyDistribution.none();
+
+    /**
+     * The probability of answering with 429 Too Many Requests.
+     */
+    @Builder.Default
+    private double rateLimitRate = 0;
+
+    /**
+     * The probability of answering with a 500 server error.
+     */
+    @Builder.Default
+    private double serverErrorRate = 0;
+
+    /**
+     * The number of skills of every synthetic profile.
+     */
+    @Builder.Default
+    private int skills = 10;
+
+    /**
+     * The number of experiences, each with its organisation, of every synthetic profile.
+     */
+    @Builder.Default
+    private int experiences = 5;
+
+    /**
+     * The number of education records of every synthetic profile.
+     */
+    @Builder.Default
+    private int educations = 2;
+
+    /**
+     * The number of job functions, job industries, company specialties and company industries of every synthetic job.
+     */
+    @Builder.Default
+    private int jobAttributes = 3;
+
+    /**
+     * The number of words of the job and company descriptions of every synthetic job.
+     */
+    @Builder.Default
+    private int descriptionWords = 300;
+
+    /**
+     * The number of distinct companies synthetic jobs are posted by, picked by the job id.
+     */
+    @Builder.Default
+    private int companies = 100;
+
+    /**
+     * The seed of the random failures and latencies, so a load test can be repeated.
+     */
+    @Builder.Default
+    private long seed = 42;
+}
@@ -0,0 +1,316 @@
+package com.parunev.linkededge.service.extraction.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.parunev.linkededge.openai.stub.LatencyDistribution;
+import com.parunev.linkededge.service.extraction.ExtractionConstants;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description: A local, Lix compatible server answering the profile and job retrievals of
+ * {@link ExtractionConstants#PROFILE_RETRIEVAL_URL} and {@link ExtractionConstants#JOB_RETRIEVAL_URL}, for tests
+ * and load tests of the extraction.
+ * <p>
+ * Depending on the {@link LixStubBehavior}, the server replays recorded payloads, or generates synthetic ones of
+ * the configured size with the exact shape the `ExtractionService` parses. Requests without an `Authorization`
+ * header are refused like the real API does. Latency and failures are injected according to the behavior.
+ * <p>
+ * Point the `ExtractionService` at {@link #url()} through `lix.base-url`, or run {@link #main(String[])} and start
+ * the application with `LIX_BASE_URL` set to the printed URL.
+ *
+ * @author Martin Parunev
+ * @date October 12, 2023
+ */
+public class LixStubServer implements AutoCloseable {
+
+    private static final String PROFILE_PATH = "/v1/person";
+    private static final String JOB_PATH = "/v1/enrich/job";
+    private static final String COMPANY_NODE = "com.linkedin.voyager.deco.jobs.web.shared.WebJobPostingCompany";
+
+    private final MockWebServer server = new MockWebServer();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, String> recordedProfiles = new ConcurrentHashMap<>();
+    private final Map<String, String> recordedJobs = new ConcurrentHashMap<>();
+    private final String profileFixture = fixture("lix/profile.json");
+    private final String jobFixture = fixture("lix/job.json");
+    private volatile LixStubBehavior behavior;
+    private volatile Random random;
+
+    /**
+     * Constructor for the LixStubServer class.
+     *
+     * @param behavior How the server answers.
+     */
+    public LixStubServer(LixStubBehavior behavior) {
+        setBehavior(behavior);
+        server.setDispatcher(new Dispatcher() {
+            @NotNull
+            @Override
+            public MockResponse dispatch(@NotNull RecordedRequest request) {
+                return answer(request);
+            }
+        });
+    }
+
+    /**
+     * Start a stub server with synthetic payloads and keep it running until the process is stopped.
+     *
+     * @param args The port to listen on, a free port when omitted.
+     * @throws IOException If the server cannot be started.
+     */
+    public static void main(String[] args) throws IOException {
+        LixStubServer stub = new LixStubServer(LixStubBehavior.builder()
+                .recorded(false)
+                .latency(LatencyDistribution.logNormal(1500, 0.4))
+                .serverErrorRate(0.005)
+                .build());
+        stub.start(args.length > 0 ? Integer.parseInt(args[0]) : 0);
+        System.out.println("Lix stub listening at " + stub.url());
+    }
+
+    /**
+     * Start the server on a free port.
+     *
+     * @throws IOException If the server cannot be started.
+     */
+    public void start() throws IOException {
+        start(0);
+    }
+
+    /**
+     * Start the server.
+     *
+     * @param port The port to listen on, 0 for a free port.
+     * @throws IOException If the server cannot be started.
+     */
+    public void start(int port) throws IOException {
+        server.start(port);
+    }
+
+    /**
+     * @return The base URL, the value of `lix.base-url`.
+     */
+    public String url() {
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    /**
+     * Change how the server answers from the next request on.
+     *
+     * @param behavior How the server answers.
+     */
+    public void setBehavior(LixStubBehavior behavior) {
+        this.behavior = behavior;
+        this.random = new Random(behavior.getSeed());
+    }
+
+    /**
+     * Replay a captured profile response for a profile link, whatever the behavior.
+     *
+     * @param profileLink The LinkedIn profile link the response belongs to.
+     * @param json The captured response body.
+     */
+    public void recordProfile(String profileLink, String json) {
+        recordedProfiles.put(profileLink, json);
+    }
+
+    /**
+     * Replay a captured job response for a job id, whatever the behavior.
+     *
+     * @param jobId The LinkedIn job id the response belongs to.
+     * @param json The captured response body.
+     */
+    public void recordJob(String jobId, String json) {
+        recordedJobs.put(jobId, json);
+    }
+
+    /**
+     * @return The number of requests the server received.
+     */
+    public int getRequestCount() {
+        return server.getRequestCount();
+    }
+
+    /**
+     * Take the next request the server received, waiting for it if there is none yet.
+     *
+     * @return The request, or `null` if none was received within a second.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public RecordedRequest takeRequest() throws InterruptedException {
+        return server.takeRequest(1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse answer(RecordedRequest request) {
+        LixStubBehavior current = behavior;
+        long latency = current.getLatency().nextMillis(random);
+        double failure = random.nextDouble();
+        HttpUrl url = request.getRequestUrl();
+
+        MockResponse response;
+        if (request.getHeader("Authorization") == null || request.getHeader("Authorization").isBlank()) {
+            response = error(401, "Unauthorized: missing API key");
+        } else if (url == null) {
+            response = error(400, "Bad request");
+        } else if (failure < current.getRateLimitRate()) {
+            response = error(429, "Too many requests").setHeader("Retry-After", 1);
+        } else if (failure < current.getRateLimitRate() + current.getServerErrorRate()) {
+            response = error(500, "Internal server error");
+        } else if (PROFILE_PATH.equals(url.encodedPath()) && url.queryParameter("profile_link") != null) {
+            response = json(200, profile(url.queryParameter("profile_link"), current));
+        } else if (JOB_PATH.equals(url.encodedPath()) && url.queryParameter("job_id") != null) {
+            response = json(200, job(url.queryParameter("job_id"), current));
+        } else {
+            response = error(404, "Not found");
+        }
+
+        return response.setHeadersDelay(latency, TimeUnit.MILLISECONDS);
+    }
+
+    private String profile(String profileLink, LixStubBehavior current) {
+        String recorded = recordedProfiles.get(profileLink);
+        if (recorded != null) {
+            return recorded;
+        } else if (current.isRecorded()) {
+            return profileFixture;
+        }
+
+        ObjectNode root = objectMapper.createObjectNode()
+                .put("name", "Synthetic Profile")
+                .put("location", "Sofia, Sofia City, Bulgaria")
+                .put("description", "Backend Developer | Java, Spring Boot, Microservices")
+                .put("img", "https://media.licdn.com/dms/image/synthetic")
+                .put("salesNavLink", "https://www.linkedin.com/sales/lead/synthetic")
+                .put("link", profileLink);
+
+        ArrayNode skills = root.putArray("skills");
+        for (int i = 0; i < current.getSkills(); i++) {
+            skills.addObject()
+                    .put("name", "Skill " + i)
+                    .put("numOfEndorsement", String.valueOf(i % 20));
+        }
+
+        ArrayNode experience = root.putArray("experience");
+        for (int i = 0; i < current.getExperiences(); i++) {
+            ObjectNode entry = experience.addObject()
+                    .put("title", "Software Engineer " + i)
+                    .put("dateStarted", "Jan " + (2010 + i))
+                    .put("dateEnded", "Dec " + (2010 + i))
+                    .put("location", "Sofia, Bulgaria");
+            entry.putObject("organisation")
+                    .put("name", "Organisation " + i)
+                    .put("salesNavLink", "https://www.linkedin.com/sales/company/" + i);
+        }
+
+        ArrayNode education = root.putArray("education");
+        for (int i = 0; i < current.getEducations(); i++) {
+            education.addObject()
+                    .put("institutionName", "University " + i)
+                    .put("degree", "Bachelor of Science")
+                    .put("fieldOfStudy", "Computer Science")
+                    .put("dateStarted", String.valueOf(2000 + i * 4))
+                    .put("dateEnded", String.valueOf(2004 + i * 4));
+        }
+
+        return root.toString();
+    }
+
+    private String job(String jobId, LixStubBehavior current) {
+        String recorded = recordedJobs.get(jobId);
+        if (recorded != null) {
+            return recorded;
+        } else if (current.isRecorded()) {
+            return jobFixture;
+        }
+
+        int company = Math.floorMod(jobId.hashCode(), Math.max(1, current.getCompanies()));
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode posting = root.putObject("jobPosting")
+                .put("jobPostingId", jobId)
+                .put("title", "Java Backend Developer")
+                .put("formattedLocation", "Sofia, Sofia City, Bulgaria")
+                .put("jobPostingUrl", "https://www.linkedin.com/jobs/view/" + jobId);
+        posting.putObject("description").put("text", text("Job description", current.getDescriptionWords()));
+        posting.putObject("employmentStatusResolutionResult").put("localizedName", "Full-time");
+
+        ArrayNode functions = posting.putArray("formattedJobFunctions");
+        ArrayNode industries = posting.putArray("formattedIndustries");
+        for (int i = 0; i < current.getJobAttributes(); i++) {
+            functions.add("Function " + i);
+            industries.add("Industry " + i);
+        }
+
+        ObjectNode resolution = posting.putObject("companyDetails")
+                .putObject(COMPANY_NODE)
+                .putObject("companyResolutionResult")
+                .put("universalName", "synthetic-company-" + company)
+                .put("name", "Synthetic Company " + company)
+                .put("url", "https://www.linkedin.com/company/synthetic-company-" + company)
+                .put("description", text("Company description", current.getDescriptionWords()))
+                .put("staffCount", 50 + company);
+        resolution.putObject("headquarter")
+                .put("country", "BG")
+                .put("city", "Sofia")
+                .put("postalCode", "1000");
+
+        ArrayNode specialities = resolution.putArray("specialities");
+        ArrayNode companyIndustries = resolution.putArray("industries");
+        for (int i = 0; i < current.getJobAttributes(); i++) {
+            specialities.add("Specialty " + i);
+            companyIndustries.add("Industry " + i);
+        }
+
+        return root.toString();
+    }
+
+    private static String text(String prefix, int words) {
+        StringBuilder text = new StringBuilder(prefix).append(':');
+        for (int i = 0; i < words; i++) {
+            text.append(" lorem");
+        }
+        return text.append('.').toString();
+    }
+
+    private static String fixture(String name) {
+        try (InputStream in = LixStubServer.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing Lix fixture: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MockResponse error(int status, String message) {
+        return json(status, objectMapper.createObjectNode().put("error", message).toString());
+    }
+
+    private static MockResponse json(int status, String body) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+}
@@ -0,0 +1,144 @@
+package com.parunev.linkededge.service.extraction.stub;
+
+import com.parunev.linkededge.model.Education;
+import com.parunev.linkededge.model.Experience;
+import com.parunev.linkededge.model.Organisation;
+import com.parunev.linkededge.model.Profile;
+import com.parunev.linkededge.model.Skill;
+import com.parunev.linkededge.model.User;
+import com.parunev.linkededge.model.job.CompanyResolution;
+import com.parunev.linkededge.model.job.Job;
+import com.parunev.linkededge.repository.*;
+import com.parunev.linkededge.service.extraction.CompanyResolutionStore;
+import com.parunev.linkededge.service.extraction.ExtractionService;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.boot.configurationprocessor.json.JSONException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LixStubServerTest {
+
+    private static final String PROFILE_LINK = "https://www.linkedin.com/in/martin-parunev";
+
+    @Spy
+    private RestTemplate restTemplate = new RestTemplate();
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ProfileRepository profileRepository;
+    @Mock
+    private ExperienceRepository experienceRepository;
+    @Mock
+    private OrganisationRepository organisationRepository;
+    @Mock
+    private EducationRepository educationRepository;
+    @Mock
+    private SkillRepository skillRepository;
+    @Mock
+    private CompanyResolutionStore companyResolutionStore;
+    @Mock
+    private JobRepository jobRepository;
+
+    @InjectMocks
+    private ExtractionService extractionService;
+
+    private LixStubServer stub;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(companyResolutionStore.resolve(anyString(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<CompanyResolution>>getArgument(1).get());
+        stub = new LixStubServer(LixStubBehavior.DEFAULT);
+        stub.start();
+        ReflectionTestUtils.setField(extractionService, "lixKey", "test-key");
+        ReflectionTestUtils.setField(extractionService, "lixBaseUrl", stub.url());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        stub.close();
+    }
+
+    @Test
+    void testCreateProfile_ExtractsTheRecordedProfile() throws JSONException, InterruptedException {
+        extractionService.createProfile(User.builder().linkedInProfile(PROFILE_LINK).build());
+
+        RecordedRequest request = stub.takeRequest();
+        assertEquals("test-key", request.getHeader("Authorization"));
+        assertEquals(PROFILE_LINK, request.getRequestUrl().queryParameter("profile_link"));
+
+        ArgumentCaptor<Profile> profile = ArgumentCaptor.forClass(Profile.class);
+        verify(profileRepository).save(profile.capture());
+        assertEquals("Martin Parunev", profile.getValue().getFullName());
+        assertEquals(6, profile.getValue().getSkill().size());
+        verify(transactionTemplate).execute(any());
+        verify(skillRepository).saveAll(argThat((List<Skill> skills) -> skills.size() == 6));
+        verify(organisationRepository).saveAll(argThat((List<Organisation> organisations) -> organisations.size() == 2));
+        verify(experienceRepository).saveAll(argThat((List<Experience> experiences) -> experiences.size() == 2));
+        verify(educationRepository).saveAll(argThat((List<Education> educations) -> educations.size() == 1));
+        verify(skillRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreateJob_ExtractsASyntheticJobOfTheConfiguredSize() {
+        stub.setBehavior(LixStubBehavior.builder().recorded(false).jobAttributes(4).descriptionWords(50).build());
+
+        Job job = extractionService.createJob(Profile.builder().build(), "3738794251");
+
+        assertNotNull(job);
+        assertEquals("3738794251", job.getJobPostingId());
+        assertEquals(4, job.getFunctions().size());
+        assertEquals(4, job.getIndustries().size());
+        assertTrue(job.getFunctions().stream().allMatch(function -> function.getJob() == job));
+        verify(transactionTemplate).execute(any());
+        verify(jobRepository).save(job);
+
+        CompanyResolution company = job.getCompanyResolution();
+        verify(companyResolutionStore).resolve(eq(company.getCompanyUniversalName()), any());
+        assertTrue(company.getCompanyUniversalName().startsWith("synthetic-company-"));
+        assertEquals(4, company.getSpecialties().size());
+        assertEquals(4, company.getIndustries().size());
+    }
+
+    @Test
+    void testCreateJob_ReplaysARecordedResponseForTheJobId() {
+        stub.recordJob("42", """
+                {"jobPosting": {"jobPostingId": "42", "title": "Recorded title"}}
+                """);
+
+        Job recorded = extractionService.createJob(Profile.builder().build(), "42");
+        Job fixture = extractionService.createJob(Profile.builder().build(), "43");
+
+        assertEquals("Recorded title", recorded.getJobTitle());
+        assertEquals("Java Backend Developer", fixture.getJobTitle());
+    }
+
+    @Test
+    void testCreateJob_ReturnsNullWhenTheApiFails() {
+        stub.setBehavior(LixStubBehavior.builder().serverErrorRate(1).build());
+
+        assertNull(extractionService.createJob(Profile.builder().build(), "3738794251"));
+        verifyNoInteractions(jobRepository);
+    }
+}
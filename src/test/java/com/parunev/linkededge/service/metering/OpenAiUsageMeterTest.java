@@ -0,0 +1,163 @@
+package com.parunev.linkededge.service.metering;
+
+import com.parunev.linkededge.model.OpenAiUsage;
+import com.parunev.linkededge.model.Profile;
+import com.parunev.linkededge.model.User;
+import com.parunev.linkededge.openai.model.enums.OpenAiRoute;
+import com.parunev.linkededge.repository.OpenAiUsageRepository;
+import com.parunev.linkededge.repository.ProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class OpenAiUsageMeterTest {
+
+    private static final String ENDPOINT = "/edge-api/v1/interview/questions";
+
+    @Mock
+    private OpenAiUsageRepository openAiUsageRepository;
+
+    @Mock
+    private ProfileRepository profileRepository;
+
+    @InjectMocks
+    private OpenAiUsageMeter openAiUsageMeter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(openAiUsageMeter, "batchSize", 2);
+        ReflectionTestUtils.setField(openAiUsageMeter, "maxPending", 100);
+    }
+
+    @Test
+    void testFlush_WritesOneRowPerKeyWithTheProfile() {
+        UUID profileId = UUID.randomUUID();
+        when(profileRepository.findAllByUserUsernameIn(anyCollection())).thenReturn(List.of(profile("john", profileId)));
+
+        openAiUsageMeter.record("john", ENDPOINT, "gpt-3.5-turbo", OpenAiRoute.INTERVIEW_QUESTIONS, 100, 400);
+        openAiUsageMeter.record("john", ENDPOINT, "gpt-3.5-turbo", OpenAiRoute.INTERVIEW_QUESTIONS, 120, 380);
+        openAiUsageMeter.record(null, null, "gpt-3.5-turbo", OpenAiRoute.VALIDATION, 30, 1);
+
+        openAiUsageMeter.flush();
+
+        List<OpenAiUsage> rows = savedRows(1);
+        rows.sort(Comparator.comparing(OpenAiUsage::getCalls));
+        assertEquals(2, rows.size());
+
+        assertNull(rows.get(0).getProfileId());
+        assertEquals(31L, rows.get(0).getTotalTokens());
+
+        OpenAiUsage questions = rows.get(1);
+        assertEquals(profileId, questions.getProfileId());
+        assertEquals(2L, questions.getCalls());
+        assertEquals(220L, questions.getPromptTokens());
+        assertEquals(780L, questions.getCompletionTokens());
+        assertEquals(1000L, questions.getTotalTokens());
+    }
+
+    @Test
+    void testFlush_WritesOnlyTheUsageSinceThePreviousFlush() {
+        openAiUsageMeter.record(null, ENDPOINT, "gpt-3.5-turbo", OpenAiRoute.GENERAL, 10, 20);
+        openAiUsageMeter.flush();
+
+        openAiUsageMeter.flush();
+        verify(openAiUsageRepository, times(1)).saveAll(anyList());
+
+        openAiUsageMeter.record(null, ENDPOINT, "gpt-3.5-turbo", OpenAiRoute.GENERAL, 5, 5);
+        openAiUsageMeter.flush();
+
+        OpenAiUsage row = savedRows(2).get(0);
+        assertEquals(1L, row.getCalls());
+        assertEquals(10L, row.getTotalTokens());
+    }
+
+    @Test
+    void testFlush_KeepsRowsThatCouldNotBeWritten() {
+        when(openAiUsageRepository.saveAll(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Database unavailable"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        openAiUsageMeter.record(null, ENDPOINT, "gpt-3.5-turbo", OpenAiRoute.GENERAL, 10, 20);
+        openAiUsageMeter.flush();
+        openAiUsageMeter.flush();
+
+        List<OpenAiUsage> rows = savedRows(2);
+        assertEquals(1, rows.size());
+        assertEquals(30L, rows.get(0).getTotalTokens());
+    }
+
+    @Test
+    void testFlush_LosesNoCallRecordedWhileIdleKeysAreForgotten() throws InterruptedException {
+        List<OpenAiUsage> rows = Collections.synchronizedList(new ArrayList<>());
+        when(openAiUsageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            rows.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        int threads = 4;
+        int callsPerThread = 20_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                for (int call = 0; call < callsPerThread; call++) {
+                    openAiUsageMeter.record(null, ENDPOINT, "gpt-3.5-turbo", OpenAiRoute.GENERAL, 1, 2);
+                    if (call % 100 == 0) {
+                        // Leave the key idle now and then, so flushes forget it while calls are recorded.
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        while (done.getCount() > 0) {
+            openAiUsageMeter.flush();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        openAiUsageMeter.flush();
+
+        long calls = 0;
+        long totalTokens = 0;
+        synchronized (rows) {
+            for (OpenAiUsage row : rows) {
+                calls += row.getCalls();
+                totalTokens += row.getTotalTokens();
+            }
+        }
+        assertEquals((long) threads * callsPerThread, calls);
+        assertEquals(3L * threads * callsPerThread, totalTokens);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OpenAiUsage> savedRows(int invocations) {
+        ArgumentCaptor<List<OpenAiUsage>> captor = ArgumentCaptor.forClass(List.class);
+        verify(openAiUsageRepository, times(invocations)).saveAll(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    private static Profile profile(String username, UUID id) {
+        Profile profile = Profile.builder().user(User.builder().username(username).build()).build();
+        ReflectionTestUtils.setField(profile, "id", id);
+        return profile;
+    }
+}
@@ -0,0 +1,89 @@
+package com.parunev.linkededge.service.retention;
+
+import com.parunev.linkededge.repository.ConfirmationTokenRepository;
+import com.parunev.linkededge.repository.JwtTokenRepository;
+import com.parunev.linkededge.repository.PasswordTokenRepository;
+import com.parunev.linkededge.repository.SchedulerLockRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRetentionServiceTest {
+
+    @Mock
+    private JwtTokenRepository jwtTokenRepository;
+
+    @Mock
+    private ConfirmationTokenRepository confirmationTokenRepository;
+
+    @Mock
+    private PasswordTokenRepository passwordTokenRepository;
+
+    @Mock
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TokenRetentionService tokenRetentionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(tokenRetentionService, "jwtExpiration", 600000L);
+        ReflectionTestUtils.setField(tokenRetentionService, "batchSize", 2);
+        ReflectionTestUtils.setField(tokenRetentionService, "maxBatches", 10);
+    }
+
+    @Test
+    void testPurgeTokens_DeletesInBatches() {
+        List<UUID> fullBatch = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> lastBatch = List.of(UUID.randomUUID());
+
+        when(schedulerLockRepository.existsByName("token-retention")).thenReturn(true);
+        when(schedulerLockRepository.acquire(eq("token-retention"), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(jwtTokenRepository.findReclaimableIds(any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(fullBatch, lastBatch);
+
+        tokenRetentionService.purgeTokens();
+
+        verify(jwtTokenRepository).deleteAllByIdInBatch(fullBatch);
+        verify(jwtTokenRepository).deleteAllByIdInBatch(lastBatch);
+        verify(confirmationTokenRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(schedulerLockRepository).release(eq("token-retention"), anyString(), any(LocalDateTime.class));
+        assertEquals(3, meterRegistry.counter("tokens.retention.reclaimed", "table", "JWT_TOKENS").count());
+    }
+
+    @Test
+    void testPurgeTokens_LockHeldByAnotherNode() {
+        when(schedulerLockRepository.existsByName("token-retention")).thenReturn(true);
+        when(schedulerLockRepository.acquire(eq("token-retention"), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        tokenRetentionService.purgeTokens();
+
+        verifyNoInteractions(jwtTokenRepository, confirmationTokenRepository, passwordTokenRepository);
+        verify(schedulerLockRepository, never()).release(anyString(), anyString(), any(LocalDateTime.class));
+    }
+}
@@ -7,7 +7,12 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -27,4 +32,24 @@ class RequestUtilTest {
 
         assertEquals("/test-uri", currentRequest);
     }
+
+    @Test
+    void withCurrentContext_PropagatesRequestToTask() throws Exception {
+        MockHttpServletRequest mockRequest = MockMvcRequestBuilders.get("/async-uri")
+                .buildRequest(new MockServletContext());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(mockRequest));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            String path = CompletableFuture
+                    .supplyAsync(RequestUtil::getCurrentRequest, RequestUtil.withCurrentContext(executor))
+                    .get();
+
+            assertEquals("/async-uri", path);
+            assertNull(executor.submit(RequestContextHolder::getRequestAttributes).get());
+        } finally {
+            executor.shutdown();
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
 }
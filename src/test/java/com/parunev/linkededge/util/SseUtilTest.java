@@ -0,0 +1,142 @@
+package com.parunev.linkededge.util;
+
+import com.parunev.linkededge.openai.exception.OpenAiException;
+import com.parunev.linkededge.security.exceptions.ResourceNotFoundException;
+import com.parunev.linkededge.security.payload.ApiError;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SseUtilTest {
+
+    private static final String PATH = "/edge-api/v1/interview/generate/stream";
+
+    private Function<Consumer<String>, CompletableFuture<?>> generation;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController()).build();
+    }
+
+    @Test
+    void testStream_SendsEveryChunkAndTheResult() throws Exception {
+        generation = onChunk -> {
+            onChunk.accept("What is");
+            onChunk.accept(" a closure?");
+            onChunk.accept("{\n  \"a\": 1");
+            return CompletableFuture.completedFuture(Map.of("question", "What is a closure?"));
+        };
+
+        assertEquals("""
+                event:chunk
+                data:{"text":"What is"}
+
+                event:chunk
+                data:{"text":" a closure?"}
+
+                event:chunk
+                data:{"text":"{\\n  \\"a\\": 1"}
+
+                event:result
+                data:{"question":"What is a closure?"}
+
+                """, stream());
+    }
+
+    @Test
+    void testStream_SendsTheApiErrorOfAnOpenAiFailure() throws Exception {
+        generation = onChunk -> CompletableFuture.failedFuture(new CompletionException(
+                new OpenAiException(error(HttpStatus.TOO_MANY_REQUESTS, "Rate limit reached for requests"))));
+
+        assertEquals("""
+                event:error
+                data:{"path":"/openai","error":"Rate limit reached for requests","status":"TOO_MANY_REQUESTS"}
+
+                """, withoutTimestamp(stream()));
+    }
+
+    @Test
+    void testStream_SendsTheErrorOfAMissingResource() throws Exception {
+        generation = onChunk -> CompletableFuture.failedFuture(
+                new ResourceNotFoundException(error(HttpStatus.NOT_FOUND, "Job not found")));
+
+        assertEquals("""
+                event:error
+                data:{"path":"/openai","error":"Job not found","status":"NOT_FOUND"}
+
+                """, withoutTimestamp(stream()));
+    }
+
+    @Test
+    void testStream_SendsAnInternalErrorForAnyOtherFailure() throws Exception {
+        generation = onChunk -> CompletableFuture.failedFuture(new IllegalStateException("Unexpected"));
+
+        assertEquals("""
+                event:error
+                data:{"path":"%s","error":"Unexpected","status":"INTERNAL_SERVER_ERROR"}
+
+                """.formatted(PATH), withoutTimestamp(stream()));
+    }
+
+    @Test
+    void testStream_ThrowsFailuresRaisedBeforeTheGenerationStarts() {
+        generation = onChunk -> {
+            throw new ResourceNotFoundException(error(HttpStatus.NOT_FOUND, "Profile not found"));
+        };
+
+        assertThrows(ResourceNotFoundException.class, () -> SseUtil.stream(generation::apply));
+    }
+
+    private String stream() throws Exception {
+        MvcResult result = mockMvc.perform(get(PATH))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static String withoutTimestamp(String events) {
+        return events.replaceAll(",\"timestamp\":[^}]*", "");
+    }
+
+    private static ApiError error(HttpStatus status, String message) {
+        return ApiError.builder()
+                .path("/openai")
+                .error(message)
+                .status(status)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    @RestController
+    class StreamController {
+
+        @GetMapping(PATH)
+        SseEmitter stream() {
+            return SseUtil.stream(generation::apply);
+        }
+    }
+}